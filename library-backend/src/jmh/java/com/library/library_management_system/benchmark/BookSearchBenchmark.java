@@ -0,0 +1,72 @@
+package com.library.library_management_system.benchmark;
+
+import com.library.library_management_system.LibraryManagementSystemApplication;
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.repository.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code BookService.searchBooks} has no in-memory index: it is the
+ * {@code title/author/isbn LIKE %term%} query in {@link BookRepository#searchBooks},
+ * which no B-tree index can serve. This benchmark runs that repository query
+ * against a seeded in-memory catalogue to give later index structures a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BookSearchBenchmark {
+
+	@Param({ "1000", "50000" })
+	public int catalogueSize;
+
+	@Param({ "Title 42", "Author 7", "978-00000001", "no such book" })
+	public String searchTerm;
+
+	private ConfigurableApplicationContext context;
+
+	private BookRepository bookRepository;
+
+	@Setup
+	public void setUp() {
+		// A fresh database per trial, so catalogues of different sizes never mix
+		context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("test")
+				.properties("spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+						+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+				.run();
+		bookRepository = context.getBean(BookRepository.class);
+		List<Book> catalogue = new ArrayList<>(catalogueSize);
+		for (int i = 0; i < catalogueSize; i++) {
+			catalogue.add(new Book(String.format("978-%010d", i), "Title " + i, "Author " + (i % 500),
+					"Category " + (i % 12), 1950 + (i % 70), 1 + (i % 5)));
+		}
+		bookRepository.saveAll(catalogue);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Book> likeSearch() {
+		return bookRepository.searchBooks(searchTerm);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.library.library_management_system.benchmark;
+
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.BorrowTransaction;
+import com.library.library_management_system.entity.LoanPolicy;
+import com.library.library_management_system.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity business rules that run on every borrow, return and overdue sweep.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class DomainLogicBenchmark {
+
+	@Param({ "0", "5", "60" })
+	public int daysOverdue;
+
+	private static final LoanPolicy.Rule RULE =
+			new LoanPolicy.Rule(3, 14, 2, 14, 5, new BigDecimal("0.50"), new BigDecimal("20.00"));
+
+	private BorrowTransaction transaction;
+
+	private Book book;
+
+	@Setup
+	public void setUp() {
+		User user = new User("bench", "secret", "Bench Member", "bench@example.com", User.Role.MEMBER);
+		book = new Book("978-0000000001", "Benchmark Book", "Jane Author", "Fiction", 2001, 3);
+		LocalDate dueDate = LocalDate.now().minusDays(daysOverdue);
+		transaction = new BorrowTransaction(user, book, dueDate.minusDays(14), dueDate);
+	}
+
+	@Benchmark
+	public BigDecimal calculateFine() {
+		return transaction.calculateFine(RULE);
+	}
+
+	@Benchmark
+	public BorrowTransaction.TransactionStatus markOverdue() {
+		transaction.setStatus(BorrowTransaction.TransactionStatus.BORROWED);
+		transaction.markOverdue(RULE);
+		return transaction.getStatus();
+	}
+
+	@Benchmark
+	public boolean isAvailable() {
+		return book.isAvailable();
+	}
+
+	@Benchmark
+	public Integer borrowAndReturnCopy() {
+		book.borrowCopy();
+		book.returnCopy();
+		return book.getAvailableCopies();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.library.library_management_system.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.BorrowTransaction;
+import com.library.library_management_system.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing entities the way the REST controllers return them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+	@Param({ "20", "500" })
+	public int listSize;
+
+	private ObjectMapper mapper;
+
+	private Book book;
+
+	private User user;
+
+	private BorrowTransaction transaction;
+
+	private List<Book> books;
+
+	@Setup
+	public void setUp() {
+		// Same settings Spring Boot applies to the MVC ObjectMapper
+		mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		user = new User("bench", "secret", "Bench Member", "bench@example.com", User.Role.MEMBER);
+		book = sampleBook(1);
+		transaction = new BorrowTransaction(user, book, LocalDate.now().minusDays(3), LocalDate.now().plusDays(11));
+		books = new ArrayList<>(listSize);
+		for (int i = 0; i < listSize; i++) {
+			books.add(sampleBook(i));
+		}
+	}
+
+	@Benchmark
+	public byte[] book() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(book);
+	}
+
+	@Benchmark
+	public byte[] user() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(user);
+	}
+
+	@Benchmark
+	public byte[] transactionWithAssociations() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(transaction);
+	}
+
+	@Benchmark
+	public byte[] bookList() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(books);
+	}
+
+	private static Book sampleBook(int i) {
+		Book book = new Book(String.format("978-%010d", i), "Benchmark Title " + i, "Author " + (i % 50),
+				"Category " + (i % 12), 1950 + (i % 70), 1 + (i % 5));
+		book.setId((long) i);
+		book.setPublisher("Bench House");
+		book.setShelfLocation("A-" + (i % 30));
+		book.setDescription("A reasonably long description used to give the payload a realistic size. ".repeat(4));
+		book.setStatus(Book.BookStatus.ACTIVE);
+		return book;
+	}
+
+}
\ No newline at end of file
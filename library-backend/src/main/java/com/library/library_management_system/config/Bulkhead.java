@@ -0,0 +1,47 @@
+package com.library.library_management_system.config;
+
+import java.util.Locale;
+
+// Traffic compartments. Member-facing borrow/return/search work is INTERACTIVE; admin
+// screens, reports and background sweeps are REPORTING and get their own admission limit
+// and connection pool, so a heavy report cannot starve checkouts.
+public enum Bulkhead {
+    INTERACTIVE, REPORTING;
+    
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+    
+    // The compartment the current thread works for, interactive unless marked otherwise
+    public static Bulkhead current() {
+        Bulkhead bulkhead = CURRENT.get();
+        return bulkhead != null ? bulkhead : INTERACTIVE;
+    }
+    
+    // Mark the current thread and return the previous compartment for exit()
+    public Bulkhead enter() {
+        Bulkhead previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+    
+    public static void exit(Bulkhead previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+    
+    // Run a task inside this compartment
+    public void run(Runnable task) {
+        Bulkhead previous = enter();
+        try {
+            task.run();
+        } finally {
+            exit(previous);
+        }
+    }
+    
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.library.library_management_system.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(name = "library.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+    
+    // Admit requests right after statement counting, ahead of security and the controllers
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(
+            MeterRegistry meterRegistry,
+            @Value("${library.bulkhead.reporting-paths:/api/*/statistics}") List<String> reportingPaths,
+            @Value("${library.bulkhead.critical-paths:POST /api/transactions/borrow,POST /api/transactions/*/return}")
+            List<String> criticalPaths,
+            @Value("${library.bulkhead.low-priority-paths:/api/*/statistics}") List<String> lowPriorityPaths,
+            @Value("${library.bulkhead.low-priority.headroom:10}") int lowPriorityHeadroom,
+            @Value("${library.bulkhead.low-priority.shed-queue-delay-ms:100}") long shedQueueDelay,
+            @Value("${library.bulkhead.low-priority.retry-after-seconds:5}") int shedRetryAfterSeconds,
+            @Value("${library.bulkhead.interactive.max-concurrent:150}") int interactiveMaxConcurrent,
+            @Value("${library.bulkhead.interactive.max-queued:100}") int interactiveMaxQueued,
+            @Value("${library.bulkhead.interactive.max-wait-ms:1000}") long interactiveMaxWait,
+            @Value("${library.bulkhead.reporting.max-concurrent:8}") int reportingMaxConcurrent,
+            @Value("${library.bulkhead.reporting.max-queued:16}") int reportingMaxQueued,
+            @Value("${library.bulkhead.reporting.max-wait-ms:250}") long reportingMaxWait,
+            @Value("${library.bulkhead.reporting.low-priority.max-queued:4}") int reportingLowMaxQueued,
+            @Value("${library.bulkhead.reporting.low-priority.max-wait-ms:100}") long reportingLowMaxWait) {
+        Map<Bulkhead, BulkheadLimiter> limiters = Map.of(
+            Bulkhead.INTERACTIVE, new BulkheadLimiter(Bulkhead.INTERACTIVE,
+                interactiveMaxConcurrent, interactiveMaxQueued, interactiveMaxWait,
+                lowPriorityHeadroom, shedQueueDelay, 0, 0, meterRegistry),
+            // Reports are often low priority too; there they queue briefly instead of being shed at once
+            Bulkhead.REPORTING, new BulkheadLimiter(Bulkhead.REPORTING,
+                reportingMaxConcurrent, reportingMaxQueued, reportingMaxWait,
+                0, shedQueueDelay, reportingLowMaxQueued, reportingLowMaxWait, meterRegistry));
+        FilterRegistrationBean<BulkheadFilter> registration =
+            new FilterRegistrationBean<>(new BulkheadFilter(reportingPaths, criticalPaths, lowPriorityPaths,
+                limiters, shedRetryAfterSeconds));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.library.library_management_system.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Sorts each request into a bulkhead and a priority by path, admits it through that
+// bulkhead's limiter and marks the thread so the data source routes it to the bulkhead's
+// connection pool. A full bulkhead answers 503 with Retry-After instead of tying up a
+// Tomcat thread. Low-priority requests are shed as soon as the interactive bulkhead backs
+// up, whichever bulkhead they belong to, since a slow database shows up there first.
+public class BulkheadFilter extends OncePerRequestFilter {
+    
+    private final List<RequestRoute> reportingRoutes;
+    
+    private final List<RequestRoute> criticalRoutes;
+    
+    private final List<RequestRoute> lowPriorityRoutes;
+    
+    private final Map<Bulkhead, BulkheadLimiter> limiters;
+    
+    private final int shedRetryAfterSeconds;
+    
+    public BulkheadFilter(List<String> reportingPaths, List<String> criticalPaths, List<String> lowPriorityPaths,
+                          Map<Bulkhead, BulkheadLimiter> limiters, int shedRetryAfterSeconds) {
+        this.reportingRoutes = parse(reportingPaths);
+        this.criticalRoutes = parse(criticalPaths);
+        this.lowPriorityRoutes = parse(lowPriorityPaths);
+        this.limiters = new EnumMap<>(limiters);
+        this.shedRetryAfterSeconds = shedRetryAfterSeconds;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        Bulkhead bulkhead = matches(reportingRoutes, request, path) ? Bulkhead.REPORTING : Bulkhead.INTERACTIVE;
+        RequestPriority priority = prioritize(request, path);
+        BulkheadLimiter limiter = limiters.get(bulkhead);
+        
+        BulkheadLimiter.Admission admission;
+        if (priority == RequestPriority.LOW && limiters.get(Bulkhead.INTERACTIVE).underPressure()) {
+            admission = BulkheadLimiter.Admission.SHED;
+        } else {
+            try {
+                admission = limiter.admit(priority);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                admission = BulkheadLimiter.Admission.TIMEOUT;
+            }
+        }
+        if (!admission.admitted()) {
+            reject(response, bulkhead, admission);
+            return;
+        }
+        
+        Bulkhead previous = bulkhead.enter();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Bulkhead.exit(previous);
+            limiter.release(priority, admission);
+        }
+    }
+    
+    private RequestPriority prioritize(HttpServletRequest request, PathContainer path) {
+        if (matches(criticalRoutes, request, path)) {
+            return RequestPriority.CRITICAL;
+        }
+        if (matches(lowPriorityRoutes, request, path)) {
+            return RequestPriority.LOW;
+        }
+        return RequestPriority.NORMAL;
+    }
+    
+    // Shed requests are told to stay away longer than ones that just missed a slot
+    private void reject(HttpServletResponse response, Bulkhead bulkhead, BulkheadLimiter.Admission admission)
+            throws IOException {
+        boolean shed = admission == BulkheadLimiter.Admission.SHED;
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(shed ? shedRetryAfterSeconds : 1));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(shed
+            ? "The server is busy and is deferring low-priority requests, please retry later"
+            : "The " + bulkhead.tag() + " bulkhead is full, please retry shortly");
+    }
+    
+    private static boolean matches(List<RequestRoute> routes, HttpServletRequest request, PathContainer path) {
+        for (RequestRoute route : routes) {
+            if (route.matches(request.getMethod(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static List<RequestRoute> parse(List<String> paths) {
+        return paths.stream()
+            .map(String::trim)
+            .filter(path -> !path.isEmpty())
+            .map(RequestRoute::parse)
+            .toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,211 @@
+package com.library.library_management_system.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Admission limit for one bulkhead: at most maxConcurrent requests run, at most maxQueued
+// wait up to maxWaitMillis for a slot, and everything else is turned away at once.
+// Priorities bend this: CRITICAL requests run even without a free slot, and LOW requests
+// only take a slot while lowHeadroom slots stay free and the queue is not backing up. LOW
+// requests wait only where lowMaxQueued is set (the reporting bulkhead, which has no
+// headroom), in fewer places and for less time than normal ones.
+// Publishes library.bulkhead.active/queued/limit/saturation/in_flight/queue_delay,
+// library.bulkhead.queue_wait and library.bulkhead.rejected.
+public class BulkheadLimiter {
+    
+    // Smoothing for the queue delay average; each sample moves it 1/8 of the way
+    private static final double QUEUE_DELAY_WEIGHT = 0.125;
+    
+    private final int maxConcurrent;
+    
+    private final int maxQueued;
+    
+    private final long maxWaitMillis;
+    
+    private final int lowHeadroom;
+    
+    private final long shedQueueDelayNanos;
+    
+    private final int lowMaxQueued;
+    
+    private final long lowMaxWaitMillis;
+    
+    private final Semaphore permits;
+    
+    private final AtomicInteger queued = new AtomicInteger();
+    
+    private final AtomicInteger lowQueued = new AtomicInteger();
+    
+    private final Map<RequestPriority, AtomicInteger> inFlight = new EnumMap<>(RequestPriority.class);
+    
+    private final Map<RequestPriority, Timer> queueWait = new EnumMap<>(RequestPriority.class);
+    
+    // Moving average of how long admitted requests waited for a slot, in nanoseconds
+    private volatile double queueDelayNanos;
+    
+    private final Counter rejectedQueueFull;
+    
+    private final Counter rejectedTimeout;
+    
+    private final Counter rejectedShed;
+    
+    private final Counter overflow;
+    
+    // The result of asking for admission; release() needs it to know whether a slot was taken
+    public enum Admission {
+        PERMIT, OVERFLOW, QUEUE_FULL, TIMEOUT, SHED;
+        
+        public boolean admitted() {
+            return this == PERMIT || this == OVERFLOW;
+        }
+    }
+    
+    public BulkheadLimiter(Bulkhead bulkhead, int maxConcurrent, int maxQueued, long maxWaitMillis,
+                           int lowHeadroom, long shedQueueDelayMillis, int lowMaxQueued, long lowMaxWaitMillis,
+                           MeterRegistry meterRegistry) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitMillis = maxWaitMillis;
+        this.lowHeadroom = lowHeadroom;
+        this.shedQueueDelayNanos = TimeUnit.MILLISECONDS.toNanos(shedQueueDelayMillis);
+        this.lowMaxQueued = lowMaxQueued;
+        this.lowMaxWaitMillis = lowMaxWaitMillis;
+        this.permits = new Semaphore(maxConcurrent, true);
+        
+        String tag = bulkhead.tag();
+        Gauge.builder("library.bulkhead.active", this, BulkheadLimiter::active)
+            .tag("bulkhead", tag).register(meterRegistry);
+        Gauge.builder("library.bulkhead.queued", queued, AtomicInteger::get)
+            .tag("bulkhead", tag).register(meterRegistry);
+        Gauge.builder("library.bulkhead.limit", this, limiter -> limiter.maxConcurrent)
+            .tag("bulkhead", tag).register(meterRegistry);
+        Gauge.builder("library.bulkhead.saturation", this, limiter -> (double) limiter.active() / limiter.maxConcurrent)
+            .tag("bulkhead", tag).register(meterRegistry);
+        Gauge.builder("library.bulkhead.queue_delay", this, limiter -> limiter.queueDelayNanos / 1_000_000)
+            .tag("bulkhead", tag).baseUnit("milliseconds").register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            AtomicInteger count = new AtomicInteger();
+            inFlight.put(priority, count);
+            Gauge.builder("library.bulkhead.in_flight", count, AtomicInteger::get)
+                .tag("bulkhead", tag).tag("priority", priority.tag()).register(meterRegistry);
+            queueWait.put(priority, Timer.builder("library.bulkhead.queue_wait")
+                .tag("bulkhead", tag).tag("priority", priority.tag()).register(meterRegistry));
+        }
+        this.rejectedQueueFull = Counter.builder("library.bulkhead.rejected")
+            .tag("bulkhead", tag).tag("reason", "queue_full").register(meterRegistry);
+        this.rejectedTimeout = Counter.builder("library.bulkhead.rejected")
+            .tag("bulkhead", tag).tag("reason", "timeout").register(meterRegistry);
+        this.rejectedShed = Counter.builder("library.bulkhead.rejected")
+            .tag("bulkhead", tag).tag("reason", "shed").register(meterRegistry);
+        this.overflow = Counter.builder("library.bulkhead.overflow")
+            .tag("bulkhead", tag).register(meterRegistry);
+    }
+    
+    // Admit a request of the given priority, waiting briefly for a NORMAL one if the queue has room
+    public Admission admit(RequestPriority priority) throws InterruptedException {
+        Admission admission = switch (priority) {
+            case CRITICAL -> admitCritical();
+            case NORMAL -> admitNormal();
+            case LOW -> admitLow();
+        };
+        if (admission.admitted()) {
+            inFlight.get(priority).incrementAndGet();
+        }
+        return admission;
+    }
+    
+    // Checkouts and returns take a free slot if there is one and run regardless otherwise
+    private Admission admitCritical() {
+        if (permits.tryAcquire()) {
+            recordQueueWait(RequestPriority.CRITICAL, 0);
+            return Admission.PERMIT;
+        }
+        overflow.increment();
+        return Admission.OVERFLOW;
+    }
+    
+    private Admission admitNormal() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            recordQueueWait(RequestPriority.NORMAL, 0);
+            return Admission.PERMIT;
+        }
+        return await(RequestPriority.NORMAL, maxWaitMillis);
+    }
+    
+    // Low-priority work never takes the last slots, is shed while the queue backs up, and
+    // only waits where it has a queue of its own
+    private Admission admitLow() throws InterruptedException {
+        if (!underPressure() && permits.availablePermits() > lowHeadroom && permits.tryAcquire()) {
+            recordQueueWait(RequestPriority.LOW, 0);
+            return Admission.PERMIT;
+        }
+        if (lowMaxQueued == 0 || underPressure()) {
+            rejectedShed.increment();
+            return Admission.SHED;
+        }
+        if (lowQueued.incrementAndGet() > lowMaxQueued) {
+            lowQueued.decrementAndGet();
+            rejectedShed.increment();
+            return Admission.SHED;
+        }
+        try {
+            return await(RequestPriority.LOW, lowMaxWaitMillis);
+        } finally {
+            lowQueued.decrementAndGet();
+        }
+    }
+    
+    // Wait up to maxWait for a slot, if the shared queue has room
+    private Admission await(RequestPriority priority, long maxWait) throws InterruptedException {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejectedQueueFull.increment();
+            return Admission.QUEUE_FULL;
+        }
+        long start = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS);
+            recordQueueWait(priority, System.nanoTime() - start);
+            if (acquired) {
+                return Admission.PERMIT;
+            }
+            rejectedTimeout.increment();
+            return Admission.TIMEOUT;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+    
+    // True while requests are waiting and recent queue delay is above the shedding threshold
+    public boolean underPressure() {
+        return queued.get() > 0 && queueDelayNanos > shedQueueDelayNanos;
+    }
+    
+    public void release(RequestPriority priority, Admission admission) {
+        if (!admission.admitted()) {
+            return;
+        }
+        inFlight.get(priority).decrementAndGet();
+        if (admission == Admission.PERMIT) {
+            permits.release();
+        }
+    }
+    
+    private void recordQueueWait(RequestPriority priority, long nanos) {
+        queueWait.get(priority).record(nanos, TimeUnit.NANOSECONDS);
+        // Racing updates may drop a sample, which an average like this can afford
+        queueDelayNanos += (nanos - queueDelayNanos) * QUEUE_DELAY_WEIGHT;
+    }
+    
+    private int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
\ No newline at end of file
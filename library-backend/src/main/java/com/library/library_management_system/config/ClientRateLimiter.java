@@ -0,0 +1,39 @@
+package com.library.library_management_system.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+// One token bucket per client key, held in a bounded cache. A bucket left alone long enough
+// to refill completely is the same as a new one, so idle buckets expire and memory follows
+// the active clients only. Lookups hit the cache's lock-free read path and the bucket's
+// compare-and-set, so the limiter is cheap enough to run on every request.
+public class ClientRateLimiter {
+    
+    private final int capacity;
+    
+    private final double tokensPerSecond;
+    
+    private final Cache<String, TokenBucket> buckets;
+    
+    public ClientRateLimiter(int capacity, double tokensPerMinute, long maxClients) {
+        this.capacity = capacity;
+        this.tokensPerSecond = tokensPerMinute / 60;
+        long refillSeconds = (long) Math.ceil(capacity * 60 / tokensPerMinute);
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofSeconds(Math.max(1, refillSeconds)))
+            .build();
+    }
+    
+    // The client's bucket, created full on first use
+    public TokenBucket bucket(String client) {
+        TokenBucket bucket = buckets.getIfPresent(client);
+        return bucket != null ? bucket : buckets.get(client, key -> new TokenBucket(capacity, tokensPerSecond));
+    }
+    
+    public boolean tryAcquire(String client) {
+        return bucket(client).tryConsume();
+    }
+}
\ No newline at end of file
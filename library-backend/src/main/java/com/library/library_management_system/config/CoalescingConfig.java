@@ -0,0 +1,34 @@
+package com.library.library_management_system.config;
+
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.Reservation;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Optional;
+
+// Single-flight groups for the reads that spike when one title gets popular
+@Configuration
+public class CoalescingConfig {
+    
+    @Value("${library.coalescing.ttl-ms:0}")
+    private long ttlMillis;
+    
+    @Bean
+    public SingleFlight<Long, Optional<Book>> bookByIdFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("book", ttlMillis, meterRegistry);
+    }
+    
+    @Bean
+    public SingleFlight<Long, Boolean> bookAvailabilityFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("book_availability", ttlMillis, meterRegistry);
+    }
+    
+    @Bean
+    public SingleFlight<Long, List<Reservation>> reservationQueueFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("reservation_queue", ttlMillis, meterRegistry);
+    }
+}
\ No newline at end of file
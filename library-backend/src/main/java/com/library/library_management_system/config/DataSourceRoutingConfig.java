@@ -0,0 +1,100 @@
+package com.library.library_management_system.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+@Configuration
+public class DataSourceRoutingConfig {
+    
+    // Read-write pool built from spring.datasource.*; Flyway migrates through it directly
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    // Read-write pool on the primary database for the reporting bulkhead (admin screens and sweeps)
+    @Bean
+    @ConfigurationProperties("library.datasource.reporting.hikari")
+    public HikariDataSource reportingDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("reporting");
+        return dataSource;
+    }
+    
+    // Read-only pool, only created when a replica url is configured
+    @Bean
+    @ConditionalOnProperty(name = "library.datasource.replica.url")
+    @ConfigurationProperties("library.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties primary,
+            @Value("${library.datasource.replica.url}") String url,
+            @Value("${library.datasource.replica.username:}") String username,
+            @Value("${library.datasource.replica.password:}") String password) {
+        return replicaPool("replica", primary, url, username, password);
+    }
+    
+    // Read-only pool on the replica for the reporting bulkhead
+    @Bean
+    @ConditionalOnProperty(name = "library.datasource.replica.url")
+    @ConfigurationProperties("library.datasource.replica.reporting-hikari")
+    public HikariDataSource reportingReplicaDataSource(
+            DataSourceProperties primary,
+            @Value("${library.datasource.replica.url}") String url,
+            @Value("${library.datasource.replica.username:}") String username,
+            @Value("${library.datasource.replica.password:}") String password) {
+        return replicaPool("reporting-replica", primary, url, username, password);
+    }
+    
+    // The data source JPA sees: routing picks the pool per transaction, and the lazy proxy
+    // delays the checkout until the first statement, after the read-only flag is known
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("reportingDataSource") DataSource reportingDataSource,
+            @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+            @Qualifier("reportingReplicaDataSource") ObjectProvider<DataSource> reportingReplicaDataSource) {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+            ReadReplicaRoutingDataSource.Route.PRIMARY, primaryDataSource,
+            ReadReplicaRoutingDataSource.Route.REPLICA, replicaDataSource.getIfAvailable(() -> primaryDataSource),
+            ReadReplicaRoutingDataSource.Route.REPORTING, reportingDataSource,
+            ReadReplicaRoutingDataSource.Route.REPORTING_REPLICA,
+            reportingReplicaDataSource.getIfAvailable(() -> reportingDataSource)));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+    
+    private static HikariDataSource replicaPool(String name, DataSourceProperties primary, String url,
+                                                String username, String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(primary.determineDriverClassName())
+            .url(url)
+            .username(username.isEmpty() ? primary.determineUsername() : username)
+            .password(password.isEmpty() ? primary.determinePassword() : password)
+            .build();
+        dataSource.setPoolName(name);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+}
\ No newline at end of file
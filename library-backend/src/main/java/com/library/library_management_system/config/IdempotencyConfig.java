@@ -0,0 +1,29 @@
+package com.library.library_management_system.config;
+
+import com.library.library_management_system.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(name = "library.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+    
+    // Runs after security so keys can be scoped to the authenticated user
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyService idempotencyService,
+            @Value("${library.idempotency.paths:POST /api/transactions/borrow}") List<String> paths) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+            new FilterRegistrationBean<>(new IdempotencyFilter(paths, idempotencyService));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 10);
+        return registration;
+    }
+}
\ No newline at end of file
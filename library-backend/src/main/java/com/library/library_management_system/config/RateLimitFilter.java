@@ -0,0 +1,84 @@
+package com.library.library_management_system.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-client rate limits on the public API. The first rule whose route matches a request
+// takes a token from that client's bucket for the rule; an empty bucket answers 429 with
+// Retry-After. Clients are told apart by address, which is known before authentication
+// and cannot be changed by editing a header.
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private final List<Rule> rules;
+    
+    // A route with its own limit, e.g. "GET /api/books/**=300/600" (burst/refill per minute)
+    record Rule(String spec, RequestRoute route, ClientRateLimiter limiter, Counter rejected) {
+        
+        static Rule parse(String definition, long maxClients, MeterRegistry meterRegistry) {
+            int split = definition.lastIndexOf('=');
+            int slash = definition.indexOf('/', split);
+            if (split < 0 || slash < 0) {
+                throw new IllegalArgumentException("Rate limit rule must look like 'route=capacity/per-minute': "
+                    + definition);
+            }
+            String spec = definition.substring(0, split).trim();
+            int capacity = Integer.parseInt(definition.substring(split + 1, slash).trim());
+            double perMinute = Double.parseDouble(definition.substring(slash + 1).trim());
+            return new Rule(spec, RequestRoute.parse(spec), new ClientRateLimiter(capacity, perMinute, maxClients),
+                Counter.builder("library.rate_limit.rejected").tag("route", spec).register(meterRegistry));
+        }
+    }
+    
+    public RateLimitFilter(List<String> rules, long maxClients, MeterRegistry meterRegistry) {
+        this.rules = rules.stream()
+            .map(String::trim)
+            .filter(rule -> !rule.isEmpty())
+            .map(rule -> Rule.parse(rule, maxClients, meterRegistry))
+            .toList();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Rule rule = match(request);
+        if (rule != null) {
+            TokenBucket bucket = rule.limiter().bucket(request.getRemoteAddr());
+            if (!bucket.tryConsume()) {
+                rule.rejected().increment();
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(bucket.nanosUntilNextToken() + 999_999_999));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+                response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                response.getWriter().write("Too many requests, please retry in " + retryAfter + "s");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+    
+    private Rule match(HttpServletRequest request) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Rule rule : rules) {
+            if (rule.route().matches(request.getMethod(), path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
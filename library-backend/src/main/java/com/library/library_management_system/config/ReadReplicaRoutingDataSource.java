@@ -0,0 +1,22 @@
+package com.library.library_management_system.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Route {
+        PRIMARY, REPLICA, REPORTING, REPORTING_REPLICA
+    }
+    
+    // Read-only transactions go to a replica, everything else (and non-transactional work) to the
+    // primary; the reporting bulkhead has its own pair of pools so it never drains the interactive ones
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (Bulkhead.current() == Bulkhead.REPORTING) {
+            return readOnly ? Route.REPORTING_REPLICA : Route.REPORTING;
+        }
+        return readOnly ? Route.REPLICA : Route.PRIMARY;
+    }
+}
\ No newline at end of file
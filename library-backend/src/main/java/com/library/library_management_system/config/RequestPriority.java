@@ -0,0 +1,14 @@
+package com.library.library_management_system.config;
+
+import java.util.Locale;
+
+// How a request is treated when its bulkhead is under pressure. CRITICAL (checkout and
+// return) is always admitted, NORMAL queues for a slot, and LOW (statistics, exports and
+// search suggestions) never queues and is shed first.
+public enum RequestPriority {
+    CRITICAL, NORMAL, LOW;
+    
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.library.library_management_system.config;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Locale;
+
+// A path pattern, optionally limited to one HTTP method ("GET /api/reservations")
+record RequestRoute(String method, PathPattern pattern) {
+    
+    static RequestRoute parse(String spec) {
+        String[] parts = spec.split("\\s+", 2);
+        return parts.length == 2
+            ? new RequestRoute(parts[0].toUpperCase(Locale.ROOT), PathPatternParser.defaultInstance.parse(parts[1]))
+            : new RequestRoute(null, PathPatternParser.defaultInstance.parse(parts[0]));
+    }
+    
+    boolean matches(String requestMethod, PathContainer path) {
+        return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+    }
+}
\ No newline at end of file
@@ -1,28 +1,113 @@
 // src/main/java/com/library/library_management_system/config/SecurityConfig.java
 package com.library.library_management_system.config;
 
+import com.library.library_management_system.service.TokenService;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 @SuppressWarnings("deprecation")
 public class SecurityConfig {
     
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+    
+    @Value("${library.security.token.secret:}")
+    private String tokenSecret;
+    
+    // New passwords are bcrypt ({bcrypt} prefix). Rows without a prefix are the old plaintext
+    // passwords: still accepted, and rehashed by UserService on the next successful login.
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${library.security.hashing.bcrypt-strength:10}") int strength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of(
+            "bcrypt", new BCryptPasswordEncoder(strength),
+            "noop", NoOpPasswordEncoder.getInstance()));
+        encoder.setDefaultPasswordEncoderForMatches(NoOpPasswordEncoder.getInstance());
+        return encoder;
+    }
+    
+    // Shared HMAC key for signing and verifying access tokens (base64, at least 256 bits).
+    // Without one, a random key is generated per process: tokens stop verifying after a
+    // restart and on other instances, so deployments must set LIBRARY_TOKEN_SECRET.
+    @Bean
+    public SecretKey tokenSigningKey() {
+        if (tokenSecret == null || tokenSecret.isBlank()) {
+            log.warn("library.security.token.secret is not set; signing tokens with a random per-process key");
+            byte[] key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            return new SecretKeySpec(key, "HmacSHA256");
+        }
+        return new SecretKeySpec(Base64.getDecoder().decode(tokenSecret), "HmacSHA256");
+    }
+    
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey tokenSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenSigningKey));
+    }
+    
+    // Verifies signature, expiry and issuer locally; no database access per request
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey tokenSigningKey) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(tokenSigningKey)
+            .macAlgorithm(MacAlgorithm.HS256)
+            .build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(TokenService.ISSUER));
+        return decoder;
+    }
+    
+    // The role claim becomes ROLE_ADMIN / ROLE_MEMBER for the hasRole rules below
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName("role");
+        authorities.setAuthorityPrefix("ROLE_");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+    
+    // Browsers cannot set headers on an EventSource, so the streams also take ?access_token=.
+    // Everything else reads the Authorization header only, keeping tokens out of request logs.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return NoOpPasswordEncoder.getInstance();
+    public BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver headerOnly = new DefaultBearerTokenResolver();
+        DefaultBearerTokenResolver withQuery = new DefaultBearerTokenResolver();
+        withQuery.setAllowUriQueryParameter(true);
+        return request -> request.getRequestURI().startsWith(request.getContextPath() + "/api/stream/")
+            ? withQuery.resolve(request)
+            : headerOnly.resolve(request);
     }
     
     @Bean
@@ -31,7 +116,13 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // First match wins: the literal admin paths must precede the /api/users/{id} wildcard
             .authorizeHttpRequests(authz -> authz
+                .requestMatchers("/api/users/members").hasRole("ADMIN")
+                .requestMatchers("/api/users/{id}/membership/extend").hasRole("ADMIN")
+                .requestMatchers("/api/users/membership/extend").hasRole("ADMIN")
+                .requestMatchers("/api/users/expired-memberships").hasRole("ADMIN")
+                .requestMatchers("/api/loan-policies/**").hasRole("ADMIN")
                 .requestMatchers("/api/users/login").permitAll()
                 .requestMatchers("/api/users/register").permitAll()
                 .requestMatchers("/api/books/**").permitAll()
@@ -43,14 +134,15 @@ public class SecurityConfig {
                 .requestMatchers("/api/books/{id}/availability").permitAll()
                 .requestMatchers("/api/transactions/**").permitAll()
                 .requestMatchers("/api/reservations/**").permitAll()
+                .requestMatchers("/api/stream/books").permitAll()
                 .requestMatchers("/api/users/{id}").permitAll()
                 .requestMatchers("/api/users/username/{username}").permitAll()
                 .requestMatchers("/api/users/search").permitAll()
-                .requestMatchers("/api/users/members").hasRole("ADMIN")
-                .requestMatchers("/api/users/{id}/membership/extend").hasRole("ADMIN")
-                .requestMatchers("/api/users/expired-memberships").hasRole("ADMIN")
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
-            );
+            )
+            .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())));
         
         return http.build();
     }
@@ -76,9 +168,12 @@ public class SecurityConfig {
             "Accept",
             "Origin",
             "Access-Control-Request-Method",
-            "Access-Control-Request-Headers"
+            "Access-Control-Request-Headers",
+            IdempotencyFilter.HEADER
         ));
         
+        configuration.setExposedHeaders(Arrays.asList("X-Total-Count", IdempotencyFilter.REPLAYED_HEADER));
+        
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
@@ -0,0 +1,102 @@
+package com.library.library_management_system.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// Collapses concurrent identical reads: the first caller for a key runs the loader, callers
+// that arrive while it is running wait for and share its result. With a ttl the result is
+// also reused for that long after it completes. Failures are never shared past the callers
+// already waiting. Publishes library.coalescing.calls tagged by name and outcome.
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    
+    private final long ttlNanos;
+    
+    private final Counter leaders;
+    
+    private final Counter followers;
+    
+    private final Counter reused;
+    
+    public SingleFlight(String name, long ttlMillis, MeterRegistry meterRegistry) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.leaders = meterRegistry.counter("library.coalescing.calls", "name", name, "outcome", "leader");
+        this.followers = meterRegistry.counter("library.coalescing.calls", "name", name, "outcome", "follower");
+        this.reused = meterRegistry.counter("library.coalescing.calls", "name", name, "outcome", "reused");
+    }
+    
+    // Return the shared result for the key, running the loader only if nobody else is
+    public V execute(K key, Supplier<V> loader) {
+        while (true) {
+            Flight<V> flight = flights.get(key);
+            if (flight == null) {
+                Flight<V> mine = new Flight<>();
+                flight = flights.putIfAbsent(key, mine);
+                if (flight == null) {
+                    leaders.increment();
+                    return lead(key, mine, loader);
+                }
+            }
+            
+            if (flight.isExpired(ttlNanos)) {
+                flights.remove(key, flight);
+                continue;
+            }
+            (flight.result.isDone() ? reused : followers).increment();
+            return await(flight);
+        }
+    }
+    
+    // Drop a remembered result, e.g. after the underlying row changed
+    public void forget(K key) {
+        flights.remove(key);
+    }
+    
+    private V lead(K key, Flight<V> flight, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            flight.completedAt = System.nanoTime();
+            flight.result.complete(value);
+            if (ttlNanos <= 0) {
+                flights.remove(key, flight);
+            }
+            return value;
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    private V await(Flight<V> flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private static final class Flight<V> {
+        
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        
+        private volatile long completedAt;
+        
+        private boolean isExpired(long ttlNanos) {
+            return result.isDone() && System.nanoTime() - completedAt > ttlNanos;
+        }
+    }
+}
\ No newline at end of file
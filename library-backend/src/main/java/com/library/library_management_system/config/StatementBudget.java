@@ -0,0 +1,15 @@
+package com.library.library_management_system.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Maximum number of SQL statements a controller method may issue per request,
+// response serialization included. Checked by StatementCountFilter.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    
+    int value();
+}
\ No newline at end of file
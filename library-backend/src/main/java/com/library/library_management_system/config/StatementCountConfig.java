@@ -0,0 +1,35 @@
+package com.library.library_management_system.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "library.sql.statement-count.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementCountConfig {
+    
+    // Register the counting inspector unless another inspector is already configured
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingInspector() {
+        return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+    }
+    
+    // Count per request, ahead of security so rejected requests are counted too
+    @Bean
+    @ConditionalOnWebApplication
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(
+            MeterRegistry meterRegistry,
+            @Value("${library.sql.statement-budget.enforce:false}") boolean enforceBudgets) {
+        FilterRegistrationBean<StatementCountFilter> registration =
+            new FilterRegistrationBean<>(new StatementCountFilter(meterRegistry, enforceBudgets));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
\ No newline at end of file
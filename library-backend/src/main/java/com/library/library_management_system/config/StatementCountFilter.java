@@ -0,0 +1,95 @@
+package com.library.library_management_system.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+// Counts the SQL statements each request issues, including lazy loads triggered while the
+// response is serialized. The count goes to the library.http.sql.statements summary (tagged
+// by method and uri) and is checked against the endpoint's @StatementBudget. Only when
+// budgets are enforced is the body buffered, so the X-SQL-Statement-Count header can follow
+// it and an over-budget response can be replaced; otherwise responses stream as usual.
+public class StatementCountFilter extends OncePerRequestFilter {
+    
+    public static final String HEADER = "X-SQL-Statement-Count";
+    
+    private static final Logger log = LoggerFactory.getLogger(StatementCountFilter.class);
+    
+    private final MeterRegistry meterRegistry;
+    
+    private final boolean enforceBudgets;
+    
+    public StatementCountFilter(MeterRegistry meterRegistry, boolean enforceBudgets) {
+        this.meterRegistry = meterRegistry;
+        this.enforceBudgets = enforceBudgets;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = enforceBudgets ? new ContentCachingResponseWrapper(response) : null;
+        StatementCountingInspector.begin();
+        int statements;
+        try {
+            filterChain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            statements = StatementCountingInspector.end();
+        }
+        
+        String uri = uriTemplate(request);
+        meterRegistry.summary("library.http.sql.statements", "method", request.getMethod(), "uri", uri)
+            .record(statements);
+        
+        StatementBudget budget = budget(request);
+        String overBudget = budget != null && statements > budget.value()
+            ? String.format("%s %s issued %d SQL statements, budget is %d",
+                request.getMethod(), uri, statements, budget.value())
+            : null;
+        if (wrapper == null) {
+            // Already streamed to the client: only the metric and the log line remain
+            if (overBudget != null) {
+                log.warn(overBudget);
+            }
+            return;
+        }
+        
+        wrapper.setHeader(HEADER, String.valueOf(statements));
+        if (overBudget != null) {
+            // Nothing has reached the client yet, so the buffered body can be replaced
+            wrapper.resetBuffer();
+            wrapper.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            wrapper.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            wrapper.getWriter().write(overBudget);
+            wrapper.getWriter().flush();
+        }
+        wrapper.copyBodyToResponse();
+    }
+    
+    // Event streams stay open and must not be buffered or counted as one request
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/api/stream/");
+    }
+    
+    private static String uriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+    
+    private static StatementBudget budget(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        return handler instanceof HandlerMethod method ? method.getMethodAnnotation(StatementBudget.class) : null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.library.library_management_system.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the SQL statements Hibernate prepares on the current thread while a count is open.
+// StatementCountFilter opens one per HTTP request; work handed to other threads is not counted.
+public class StatementCountingInspector implements StatementInspector {
+    
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+    
+    // Start counting on this thread
+    public static void begin() {
+        COUNT.set(new int[1]);
+    }
+    
+    // Stop counting and return the number of statements since begin()
+    public static int end() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.library.library_management_system.config;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+// Token bucket that holds up to capacity tokens and refills continuously at a fixed rate.
+// Each permitted call takes one token, so short bursts pass and sustained excess is refused.
+// The state is a single timestamp (when the bucket would be full again, less one token per
+// call), updated with compare-and-set, so concurrent callers never block each other.
+public class TokenBucket {
+    
+    private static final AtomicLongFieldUpdater<TokenBucket> FULL_AT =
+        AtomicLongFieldUpdater.newUpdater(TokenBucket.class, "fullAt");
+    
+    private final long nanosPerToken;
+    
+    private final long burstNanos;
+    
+    // System.nanoTime() at which every token taken so far has been refilled
+    private volatile long fullAt;
+    
+    public TokenBucket(int capacity, double tokensPerSecond) {
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000d / tokensPerSecond));
+        this.burstNanos = nanosPerToken * capacity;
+        this.fullAt = System.nanoTime();
+    }
+    
+    // Take one token if there is one
+    public boolean tryConsume() {
+        long now = System.nanoTime();
+        while (true) {
+            long current = fullAt;
+            long next = later(current, now) + nanosPerToken;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (FULL_AT.compareAndSet(this, current, next)) {
+                return true;
+            }
+        }
+    }
+    
+    // How long until the next token is available, zero if one is available now
+    public long nanosUntilNextToken() {
+        long now = System.nanoTime();
+        return Math.max(0, later(fullAt, now) + nanosPerToken - now - burstNanos);
+    }
+    
+    // nanoTime values may wrap, so they are compared by difference
+    private static long later(long a, long b) {
+        return a - b > 0 ? a : b;
+    }
+}
\ No newline at end of file
@@ -1,10 +1,15 @@
 package com.library.library_management_system.controller;
 
+import com.library.library_management_system.config.SingleFlight;
+import com.library.library_management_system.config.StatementBudget;
+import com.library.library_management_system.dto.BookSummary;
 import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.event.BookAvailabilityChangedEvent;
 import com.library.library_management_system.service.BookService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,185 +23,123 @@ public class BookController {
     @Autowired
     private BookService bookService;
     
+    @Autowired
+    private SingleFlight<Long, Optional<Book>> bookByIdFlight;
+    
+    @Autowired
+    private SingleFlight<Long, Boolean> bookAvailabilityFlight;
+    
     // Create new book (Admin only)
     @PostMapping
     public ResponseEntity<?> createBook(@RequestBody Book book) {
-        try {
-            Book createdBook = bookService.createBook(book);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdBook);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error creating book: " + e.getMessage());
-        }
+        Book createdBook = bookService.createBook(book);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdBook);
     }
     
     // Get all books
     @GetMapping
     public ResponseEntity<List<Book>> getAllBooks() {
-        try {
-            List<Book> books = bookService.getAllBooks();
-            return ResponseEntity.ok(books);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Book> books = bookService.getAllBooks();
+        return ResponseEntity.ok(books);
     }
     
-    // Get book by ID
+    // Get book by ID (concurrent identical requests share one lookup)
     @GetMapping("/{id}")
     public ResponseEntity<?> getBookById(@PathVariable Long id) {
-        try {
-            Optional<Book> book = bookService.findById(id);
-            if (book.isPresent()) {
-                return ResponseEntity.ok(book.get());
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error retrieving book: " + e.getMessage());
+        Optional<Book> book = bookByIdFlight.execute(id, () -> bookService.findById(id));
+        if (book.isPresent()) {
+            return ResponseEntity.ok(book.get());
+        } else {
+            return ResponseEntity.notFound().build();
         }
     }
     
     // Get book by ISBN
     @GetMapping("/isbn/{isbn}")
     public ResponseEntity<?> getBookByIsbn(@PathVariable String isbn) {
-        try {
-            Optional<Book> book = bookService.findByIsbn(isbn);
-            if (book.isPresent()) {
-                return ResponseEntity.ok(book.get());
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error retrieving book: " + e.getMessage());
+        Optional<Book> book = bookService.findByIsbn(isbn);
+        if (book.isPresent()) {
+            return ResponseEntity.ok(book.get());
+        } else {
+            return ResponseEntity.notFound().build();
         }
     }
     
     // Search books
     @GetMapping("/search")
     public ResponseEntity<List<Book>> searchBooks(@RequestParam(required = false) String searchTerm) {
-        try {
-            List<Book> books = bookService.searchBooks(searchTerm);
-            return ResponseEntity.ok(books);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Book> books = bookService.searchBooks(searchTerm);
+        return ResponseEntity.ok(books);
     }
     
     // Get available books
     @GetMapping("/available")
     public ResponseEntity<List<Book>> getAvailableBooks() {
-        try {
-            List<Book> books = bookService.getAvailableBooks();
-            return ResponseEntity.ok(books);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Book> books = bookService.getAvailableBooks();
+        return ResponseEntity.ok(books);
     }
     
     // Get books by category
     @GetMapping("/category/{category}")
     public ResponseEntity<List<Book>> getBooksByCategory(@PathVariable String category) {
-        try {
-            List<Book> books = bookService.getBooksByCategory(category);
-            return ResponseEntity.ok(books);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Book> books = bookService.getBooksByCategory(category);
+        return ResponseEntity.ok(books);
     }
     
     // Get all categories
     @GetMapping("/categories")
     public ResponseEntity<List<String>> getAllCategories() {
-        try {
-            List<String> categories = bookService.getAllCategories();
-            return ResponseEntity.ok(categories);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<String> categories = bookService.getAllCategories();
+        return ResponseEntity.ok(categories);
     }
     
     // Get all authors
     @GetMapping("/authors")
     public ResponseEntity<List<String>> getAllAuthors() {
-        try {
-            List<String> authors = bookService.getAllAuthors();
-            return ResponseEntity.ok(authors);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<String> authors = bookService.getAllAuthors();
+        return ResponseEntity.ok(authors);
     }
     
     // Update book (Admin only)
     @PutMapping("/{id}")
     public ResponseEntity<?> updateBook(@PathVariable Long id, @RequestBody Book bookDetails) {
-        try {
-            Book updatedBook = bookService.updateBook(id, bookDetails);
-            return ResponseEntity.ok(updatedBook);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error updating book: " + e.getMessage());
-        }
+        Book updatedBook = bookService.updateBook(id, bookDetails);
+        forgetBook(id);
+        return ResponseEntity.ok(updatedBook);
     }
     
     // Delete book (Admin only)
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteBook(@PathVariable Long id) {
-        try {
-            bookService.deleteBook(id);
-            return ResponseEntity.ok().body("Book deleted successfully");
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error deleting book: " + e.getMessage());
-        }
+        bookService.deleteBook(id);
+        forgetBook(id);
+        return ResponseEntity.ok().body("Book deleted successfully");
     }
     
-    // Check book availability
+    // Check book availability (concurrent identical requests share one lookup)
     @GetMapping("/{id}/availability")
     public ResponseEntity<?> checkBookAvailability(@PathVariable Long id) {
-        try {
-            boolean isAvailable = bookService.isBookAvailable(id);
-            return ResponseEntity.ok().body(new BookAvailabilityResponse(isAvailable));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error checking availability: " + e.getMessage());
-        }
+        boolean isAvailable = bookAvailabilityFlight.execute(id, () -> bookService.isBookAvailable(id));
+        return ResponseEntity.ok().body(new BookAvailabilityResponse(isAvailable));
     }
     
     // Update book copies (Admin only)
     @PutMapping("/{id}/copies")
     public ResponseEntity<?> updateBookCopies(@PathVariable Long id, @RequestBody UpdateCopiesRequest request) {
-        try {
-            Book updatedBook = bookService.updateBookCopies(
-                id, 
-                request.getTotalCopies(), 
-                request.getAvailableCopies()
-            );
-            return ResponseEntity.ok(updatedBook);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error updating book copies: " + e.getMessage());
-        }
+        Book updatedBook = bookService.updateBookCopies(
+            id, 
+            request.getTotalCopies(), 
+            request.getAvailableCopies()
+        );
+        forgetBook(id);
+        return ResponseEntity.ok(updatedBook);
     }
     
     // Get books with low availability (Admin only)
     @GetMapping("/low-availability")
     public ResponseEntity<List<Book>> getBooksWithLowAvailability(@RequestParam(defaultValue = "2") int threshold) {
-        try {
-            List<Book> books = bookService.getBooksWithLowAvailability(threshold);
-            return ResponseEntity.ok(books);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Book> books = bookService.getBooksWithLowAvailability(threshold);
+        return ResponseEntity.ok(books);
     }
     
     // Advanced search with filters
@@ -207,62 +150,96 @@ public class BookController {
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Integer publicationYear,
             @RequestParam(required = false) Boolean availableOnly) {
-        try {
-            List<Book> books;
-            
-            if (title != null && !title.trim().isEmpty()) {
-                books = bookService.searchBooks(title);
-            } else if (author != null && !author.trim().isEmpty()) {
-                books = bookService.searchBooks(author);
-            } else if (category != null && !category.trim().isEmpty()) {
-                books = bookService.getBooksByCategory(category);
-            } else {
-                books = bookService.getAllBooks();
-            }
-            
-            // Filter by availability if requested
-            if (availableOnly != null && availableOnly) {
-                books = books.stream()
-                    .filter(Book::isAvailable)
-                    .toList();
-            }
-            
-            // Filter by publication year if specified
-            if (publicationYear != null) {
-                books = books.stream()
-                    .filter(book -> book.getPublicationYear() != null && 
-                                   book.getPublicationYear().equals(publicationYear))
-                    .toList();
-            }
-            
-            return ResponseEntity.ok(books);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        List<Book> books;
+        
+        if (title != null && !title.trim().isEmpty()) {
+            books = bookService.searchBooks(title);
+        } else if (author != null && !author.trim().isEmpty()) {
+            books = bookService.searchBooks(author);
+        } else if (category != null && !category.trim().isEmpty()) {
+            books = bookService.getBooksByCategory(category);
+        } else {
+            books = bookService.getAllBooks();
+        }
+        
+        // Filter by availability if requested
+        if (availableOnly != null && availableOnly) {
+            books = books.stream()
+                .filter(Book::isAvailable)
+                .toList();
         }
+        
+        // Filter by publication year if specified
+        if (publicationYear != null) {
+            books = books.stream()
+                .filter(book -> book.getPublicationYear() != null && 
+                               book.getPublicationYear().equals(publicationYear))
+                .toList();
+        }
+        
+        return ResponseEntity.ok(books);
     }
     
     // Get book statistics (Admin only)
     @GetMapping("/statistics")
     public ResponseEntity<?> getBookStatistics() {
-        try {
-            List<Book> allBooks = bookService.getAllBooks();
-            List<Book> availableBooks = bookService.getAvailableBooks();
-            List<String> categories = bookService.getAllCategories();
-            List<String> authors = bookService.getAllAuthors();
-            
-            BookStatistics stats = new BookStatistics(
-                allBooks.size(),
-                availableBooks.size(),
-                allBooks.size() - availableBooks.size(),
-                categories.size(),
-                authors.size()
-            );
-            
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error retrieving statistics: " + e.getMessage());
-        }
+        List<Book> allBooks = bookService.getAllBooks();
+        List<Book> availableBooks = bookService.getAvailableBooks();
+        List<String> categories = bookService.getAllCategories();
+        List<String> authors = bookService.getAllAuthors();
+        
+        BookStatistics stats = new BookStatistics(
+            allBooks.size(),
+            availableBooks.size(),
+            allBooks.size() - availableBooks.size(),
+            categories.size(),
+            authors.size()
+        );
+        
+        return ResponseEntity.ok(stats);
+    }
+    
+    // Get book summaries (list view without descriptions)
+    @GetMapping("/summaries")
+    @StatementBudget(1)
+    public ResponseEntity<List<BookSummary>> getBookSummaries() {
+        List<BookSummary> summaries = bookService.getBookSummaries();
+        return ResponseEntity.ok(summaries);
+    }
+    
+    // Search book summaries
+    @GetMapping("/summaries/search")
+    @StatementBudget(1)
+    public ResponseEntity<List<BookSummary>> searchBookSummaries(@RequestParam(required = false) String searchTerm) {
+        List<BookSummary> summaries = bookService.searchBookSummaries(searchTerm);
+        return ResponseEntity.ok(summaries);
+    }
+    
+    // Get summaries of available books
+    @GetMapping("/summaries/available")
+    @StatementBudget(1)
+    public ResponseEntity<List<BookSummary>> getAvailableBookSummaries() {
+        List<BookSummary> summaries = bookService.getAvailableBookSummaries();
+        return ResponseEntity.ok(summaries);
+    }
+    
+    // Get book summaries by category
+    @GetMapping("/summaries/category/{category}")
+    @StatementBudget(1)
+    public ResponseEntity<List<BookSummary>> getBookSummariesByCategory(@PathVariable String category) {
+        return ResponseEntity.ok(bookService.getBookSummariesByCategory(category));
+    }
+    
+    // Drop any coalesced result for the book so the next read sees the change
+    private void forgetBook(Long id) {
+        bookByIdFlight.forget(id);
+        bookAvailabilityFlight.forget(id);
+    }
+    
+    // Borrows and returns change availability, so coalesced lookups for the book are stale
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(BookAvailabilityChangedEvent event) {
+        forgetBook(event.bookId());
     }
     
     // Inner classes for request/response DTOs
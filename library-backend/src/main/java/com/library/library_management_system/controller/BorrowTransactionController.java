@@ -1,12 +1,19 @@
 package com.library.library_management_system.controller;
 
+import com.library.library_management_system.config.StatementBudget;
+import com.library.library_management_system.dto.LoanSummary;
+import com.library.library_management_system.dto.MemberClaims;
 import com.library.library_management_system.entity.BorrowTransaction;
 import com.library.library_management_system.service.BorrowTransactionService;
 import com.library.library_management_system.service.ReservationService;
+import com.library.library_management_system.service.TokenService;
+import com.library.library_management_system.service.TransactionArchiveService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -21,253 +28,222 @@ public class BorrowTransactionController {
     @Autowired
     private BorrowTransactionService borrowTransactionService;
     
+    @Autowired
+    private TokenService tokenService;
+    
     @Autowired
     private ReservationService reservationService;
     
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+    
     // Borrow a book
     @PostMapping("/borrow")
-    public ResponseEntity<?> borrowBook(@RequestBody BorrowRequest request) {
-        try {
-            BorrowTransaction transaction = borrowTransactionService.borrowBook(
-                request.getUserId(), 
-                request.getBookId()
-            );
-            return ResponseEntity.status(HttpStatus.CREATED).body(transaction);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error borrowing book: " + e.getMessage());
-        }
+    public ResponseEntity<?> borrowBook(@RequestBody BorrowRequest request, @AuthenticationPrincipal Jwt token) {
+        // A caller acting for themselves is taken from the token claims instead of the users table
+        MemberClaims member = tokenService.claimsFor(token, request.getUserId());
+        BorrowTransaction transaction = member != null
+            ? borrowTransactionService.borrowBook(member, request.getBookId())
+            : borrowTransactionService.borrowBook(request.getUserId(), request.getBookId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(transaction);
     }
     
     // Return a book
     @PostMapping("/{transactionId}/return")
     public ResponseEntity<?> returnBook(@PathVariable Long transactionId) {
-        try {
-            BorrowTransaction transaction = borrowTransactionService.returnBook(transactionId);
-            
-            // Check if there are any reservations for this book
+        BorrowTransaction transaction = borrowTransactionService.returnBook(transactionId);
+        
+        // Check if there are any reservations for this book; a deleted book's holds are being purged
+        if (transaction.getBook().getDeletedAt() == null) {
             reservationService.processBookReturn(transaction.getBook().getId());
-            
-            return ResponseEntity.ok(transaction);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error returning book: " + e.getMessage());
         }
+        
+        return ResponseEntity.ok(transaction);
     }
     
     // Renew a book
     @PostMapping("/{transactionId}/renew")
     public ResponseEntity<?> renewBook(@PathVariable Long transactionId) {
-        try {
-            BorrowTransaction transaction = borrowTransactionService.renewBook(transactionId);
-            return ResponseEntity.ok(transaction);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error renewing book: " + e.getMessage());
-        }
+        BorrowTransaction transaction = borrowTransactionService.renewBook(transactionId);
+        return ResponseEntity.ok(transaction);
     }
     
     // Get all transactions (Admin only)
     @GetMapping
+    @StatementBudget(1)
     public ResponseEntity<List<BorrowTransaction>> getAllTransactions() {
-        try {
-            List<BorrowTransaction> transactions = borrowTransactionService.getAllTransactions();
-            return ResponseEntity.ok(transactions);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<BorrowTransaction> transactions = borrowTransactionService.getAllTransactions();
+        return ResponseEntity.ok(transactions);
     }
     
     // Get transaction by ID
     @GetMapping("/{id}")
+    @StatementBudget(4)
     public ResponseEntity<?> getTransactionById(@PathVariable Long id) {
-        try {
-            Optional<BorrowTransaction> transaction = borrowTransactionService.findById(id);
-            if (transaction.isPresent()) {
-                return ResponseEntity.ok(transaction.get());
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error retrieving transaction: " + e.getMessage());
+        Optional<BorrowTransaction> transaction = borrowTransactionService.findById(id);
+        if (transaction.isPresent()) {
+            return ResponseEntity.ok(transaction.get());
+        } else {
+            return ResponseEntity.notFound().build();
         }
     }
     
     // Get user's borrowing history
     @GetMapping("/user/{userId}/history")
+    @StatementBudget(3)
     public ResponseEntity<List<BorrowTransaction>> getUserBorrowingHistory(@PathVariable Long userId) {
-        try {
-            List<BorrowTransaction> transactions = borrowTransactionService.getUserBorrowingHistory(userId);
-            return ResponseEntity.ok(transactions);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<BorrowTransaction> transactions = borrowTransactionService.getUserBorrowingHistory(userId);
+        return ResponseEntity.ok(transactions);
     }
     
     // Get user's active borrowings
     @GetMapping("/user/{userId}/active")
+    @StatementBudget(2)
     public ResponseEntity<List<BorrowTransaction>> getUserActiveBorrowings(@PathVariable Long userId) {
-        try {
-            List<BorrowTransaction> transactions = borrowTransactionService.getUserActiveBorrowings(userId);
-            return ResponseEntity.ok(transactions);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<BorrowTransaction> transactions = borrowTransactionService.getUserActiveBorrowings(userId);
+        return ResponseEntity.ok(transactions);
     }
     
     // Get overdue transactions
     @GetMapping("/overdue")
+    @StatementBudget(1)
     public ResponseEntity<List<BorrowTransaction>> getOverdueTransactions() {
-        try {
-            List<BorrowTransaction> transactions = borrowTransactionService.getOverdueTransactions();
-            return ResponseEntity.ok(transactions);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<BorrowTransaction> transactions = borrowTransactionService.getOverdueTransactions();
+        return ResponseEntity.ok(transactions);
     }
     
     // Get transactions due soon
     @GetMapping("/due-soon")
+    @StatementBudget(1)
     public ResponseEntity<List<BorrowTransaction>> getTransactionsDueSoon(
             @RequestParam(defaultValue = "3") int days) {
-        try {
-            List<BorrowTransaction> transactions = borrowTransactionService.getTransactionsDueSoon(days);
-            return ResponseEntity.ok(transactions);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<BorrowTransaction> transactions = borrowTransactionService.getTransactionsDueSoon(days);
+        return ResponseEntity.ok(transactions);
     }
     
     // Get transactions with unpaid fines
     @GetMapping("/unpaid-fines")
+    @StatementBudget(1)
     public ResponseEntity<List<BorrowTransaction>> getTransactionsWithUnpaidFines() {
-        try {
-            List<BorrowTransaction> transactions = borrowTransactionService.getTransactionsWithUnpaidFines();
-            return ResponseEntity.ok(transactions);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<BorrowTransaction> transactions = borrowTransactionService.getTransactionsWithUnpaidFines();
+        return ResponseEntity.ok(transactions);
     }
     
     // Get transactions by status
     @GetMapping("/status/{status}")
+    @StatementBudget(1)
     public ResponseEntity<List<BorrowTransaction>> getTransactionsByStatus(@PathVariable String status) {
-        try {
-            BorrowTransaction.TransactionStatus transactionStatus = 
-                BorrowTransaction.TransactionStatus.valueOf(status.toUpperCase());
-            List<BorrowTransaction> transactions = borrowTransactionService.getTransactionsByStatus(transactionStatus);
-            return ResponseEntity.ok(transactions);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        BorrowTransaction.TransactionStatus transactionStatus = 
+            BorrowTransaction.TransactionStatus.valueOf(status.toUpperCase());
+        List<BorrowTransaction> transactions = borrowTransactionService.getTransactionsByStatus(transactionStatus);
+        return ResponseEntity.ok(transactions);
     }
     
     // Get transactions by date range
     @GetMapping("/date-range")
+    @StatementBudget(2)
     public ResponseEntity<List<BorrowTransaction>> getTransactionsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        try {
-            List<BorrowTransaction> transactions = borrowTransactionService.getTransactionsByDateRange(startDate, endDate);
-            return ResponseEntity.ok(transactions);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<BorrowTransaction> transactions = borrowTransactionService.getTransactionsByDateRange(startDate, endDate);
+        return ResponseEntity.ok(transactions);
     }
     
     // Pay fine
     @PostMapping("/{transactionId}/pay-fine")
     public ResponseEntity<?> payFine(@PathVariable Long transactionId) {
-        try {
-            BorrowTransaction transaction = borrowTransactionService.payFine(transactionId);
-            return ResponseEntity.ok(transaction);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error paying fine: " + e.getMessage());
-        }
+        BorrowTransaction transaction = borrowTransactionService.payFine(transactionId);
+        return ResponseEntity.ok(transaction);
     }
     
     // Waive fine (Admin only)
     @PostMapping("/{transactionId}/waive-fine")
     public ResponseEntity<?> waiveFine(@PathVariable Long transactionId) {
-        try {
-            BorrowTransaction transaction = borrowTransactionService.waiveFine(transactionId);
-            return ResponseEntity.ok(transaction);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error waiving fine: " + e.getMessage());
-        }
+        BorrowTransaction transaction = borrowTransactionService.waiveFine(transactionId);
+        return ResponseEntity.ok(transaction);
     }
     
     // Update overdue transactions (Admin only)
     @PostMapping("/update-overdue")
     public ResponseEntity<?> updateOverdueTransactions() {
-        try {
-            borrowTransactionService.updateOverdueTransactions();
-            return ResponseEntity.ok().body("Overdue transactions updated successfully");
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error updating overdue transactions: " + e.getMessage());
-        }
+        borrowTransactionService.updateOverdueTransactions();
+        return ResponseEntity.ok().body("Overdue transactions updated successfully");
+    }
+    
+    // Archive settled, returned transactions (Admin only - scheduled task)
+    @PostMapping("/archive")
+    public ResponseEntity<?> archiveReturnedTransactions() {
+        int archived = transactionArchiveService.archiveReturnedTransactions();
+        return ResponseEntity.ok().body("Archived " + archived + " returned transactions");
     }
     
     // Get borrowing statistics (Admin only)
     @GetMapping("/statistics")
     public ResponseEntity<?> getBorrowingStatistics() {
-        try {
-            List<BorrowTransaction> allTransactions = borrowTransactionService.getAllTransactions();
-            List<BorrowTransaction> overdueTransactions = borrowTransactionService.getOverdueTransactions();
-            List<BorrowTransaction> unpaidFines = borrowTransactionService.getTransactionsWithUnpaidFines();
-            List<Object[]> mostBorrowedBooks = borrowTransactionService.getMostBorrowedBooks();
-            
-            // Calculate active borrowings
-            long activeBorrowings = allTransactions.stream()
-                .filter(t -> t.getReturnDate() == null)
-                .count();
-            
-            // Calculate total fines
-            double totalUnpaidFines = unpaidFines.stream()
-                .mapToDouble(t -> t.getFineAmount().doubleValue())
-                .sum();
-            
-            BorrowingStatistics stats = new BorrowingStatistics(
-                allTransactions.size(),
-                (int) activeBorrowings,
-                overdueTransactions.size(),
-                unpaidFines.size(),
-                totalUnpaidFines,
-                mostBorrowedBooks.size() > 0 ? mostBorrowedBooks.subList(0, Math.min(5, mostBorrowedBooks.size())) : mostBorrowedBooks
-            );
-            
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error retrieving statistics: " + e.getMessage());
-        }
+        List<BorrowTransaction> allTransactions = borrowTransactionService.getAllTransactions();
+        List<BorrowTransaction> overdueTransactions = borrowTransactionService.getOverdueTransactions();
+        List<BorrowTransaction> unpaidFines = borrowTransactionService.getTransactionsWithUnpaidFines();
+        List<Object[]> mostBorrowedBooks = borrowTransactionService.getMostBorrowedBooks();
+        
+        // Calculate active borrowings
+        long activeBorrowings = allTransactions.stream()
+            .filter(t -> t.getReturnDate() == null)
+            .count();
+        
+        // Calculate total fines
+        double totalUnpaidFines = unpaidFines.stream()
+            .mapToDouble(t -> t.getFineAmount().doubleValue())
+            .sum();
+        
+        BorrowingStatistics stats = new BorrowingStatistics(
+            allTransactions.size(),
+            (int) activeBorrowings,
+            overdueTransactions.size(),
+            unpaidFines.size(),
+            totalUnpaidFines,
+            mostBorrowedBooks.size() > 0 ? mostBorrowedBooks.subList(0, Math.min(5, mostBorrowedBooks.size())) : mostBorrowedBooks
+        );
+        
+        return ResponseEntity.ok(stats);
     }
     
     // Get most borrowed books
     @GetMapping("/most-borrowed")
     public ResponseEntity<List<Object[]>> getMostBorrowedBooks() {
-        try {
-            List<Object[]> mostBorrowedBooks = borrowTransactionService.getMostBorrowedBooks();
-            return ResponseEntity.ok(mostBorrowedBooks);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Object[]> mostBorrowedBooks = borrowTransactionService.getMostBorrowedBooks();
+        return ResponseEntity.ok(mostBorrowedBooks);
+    }
+    
+    // Get loan summaries (Admin only)
+    @GetMapping("/summaries")
+    @StatementBudget(1)
+    public ResponseEntity<List<LoanSummary>> getLoanSummaries() {
+        List<LoanSummary> summaries = borrowTransactionService.getLoanSummaries();
+        return ResponseEntity.ok(summaries);
+    }
+    
+    // Get summaries of overdue loans
+    @GetMapping("/summaries/overdue")
+    @StatementBudget(1)
+    public ResponseEntity<List<LoanSummary>> getOverdueLoanSummaries() {
+        List<LoanSummary> summaries = borrowTransactionService.getOverdueLoanSummaries();
+        return ResponseEntity.ok(summaries);
+    }
+    
+    // Get summaries of a user's active loans
+    @GetMapping("/summaries/user/{userId}/active")
+    @StatementBudget(1)
+    public ResponseEntity<List<LoanSummary>> getUserActiveLoanSummaries(@PathVariable Long userId) {
+        List<LoanSummary> summaries = borrowTransactionService.getUserActiveLoanSummaries(userId);
+        return ResponseEntity.ok(summaries);
+    }
+    
+    // Get summaries of a user's borrowing history
+    @GetMapping("/summaries/user/{userId}/history")
+    @StatementBudget(2)
+    public ResponseEntity<List<LoanSummary>> getUserLoanHistorySummaries(@PathVariable Long userId) {
+        List<LoanSummary> summaries = borrowTransactionService.getUserLoanHistorySummaries(userId);
+        return ResponseEntity.ok(summaries);
     }
     
     // Inner classes for request/response DTOs
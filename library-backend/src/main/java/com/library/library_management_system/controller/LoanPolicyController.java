@@ -0,0 +1,44 @@
+package com.library.library_management_system.controller;
+
+import com.library.library_management_system.entity.LoanPolicy;
+import com.library.library_management_system.service.LoanPolicyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/loan-policies")
+@CrossOrigin(origins = "http://localhost:3000")
+public class LoanPolicyController {
+    
+    @Autowired
+    private LoanPolicyService loanPolicyService;
+    
+    // List loan policies (Admin only)
+    @GetMapping
+    public ResponseEntity<List<LoanPolicy>> getPolicies() {
+        return ResponseEntity.ok(loanPolicyService.getPolicies());
+    }
+    
+    // Create a loan policy; takes effect once it commits (Admin only)
+    @PostMapping
+    public ResponseEntity<LoanPolicy> createPolicy(@RequestBody LoanPolicy policy) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(loanPolicyService.createPolicy(policy));
+    }
+    
+    // Update a loan policy (Admin only)
+    @PutMapping("/{id}")
+    public ResponseEntity<LoanPolicy> updatePolicy(@PathVariable Long id, @RequestBody LoanPolicy policy) {
+        return ResponseEntity.ok(loanPolicyService.updatePolicy(id, policy));
+    }
+    
+    // Delete a loan policy (Admin only)
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deletePolicy(@PathVariable Long id) {
+        loanPolicyService.deletePolicy(id);
+        return ResponseEntity.ok().body("Loan policy deleted successfully");
+    }
+}
\ No newline at end of file
@@ -1,10 +1,19 @@
 package com.library.library_management_system.controller;
 
+import com.library.library_management_system.config.SingleFlight;
+import com.library.library_management_system.config.StatementBudget;
+import com.library.library_management_system.dto.HoldSummary;
+import com.library.library_management_system.dto.MemberClaims;
 import com.library.library_management_system.entity.Reservation;
+import com.library.library_management_system.event.ReservationQueueChangedEvent;
 import com.library.library_management_system.service.ReservationService;
+import com.library.library_management_system.service.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,227 +27,164 @@ public class ReservationController {
     @Autowired
     private ReservationService reservationService;
     
+    @Autowired
+    private TokenService tokenService;
+    
+    @Autowired
+    private SingleFlight<Long, List<Reservation>> reservationQueueFlight;
+    
     // Create a new reservation
     @PostMapping
-    public ResponseEntity<?> createReservation(@RequestBody ReservationRequest request) {
-        try {
-            Reservation reservation = reservationService.createReservation(
-                request.getUserId(), 
-                request.getBookId()
-            );
-            return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error creating reservation: " + e.getMessage());
-        }
+    public ResponseEntity<?> createReservation(@RequestBody ReservationRequest request, @AuthenticationPrincipal Jwt token) {
+        // A caller acting for themselves is taken from the token claims instead of the users table
+        MemberClaims member = tokenService.claimsFor(token, request.getUserId());
+        Reservation reservation = member != null
+            ? reservationService.createReservation(member, request.getBookId())
+            : reservationService.createReservation(request.getUserId(), request.getBookId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
     }
     
     // Get all reservations (Admin only)
     @GetMapping
+    @StatementBudget(1)
     public ResponseEntity<List<Reservation>> getAllReservations() {
-        try {
-            List<Reservation> reservations = reservationService.getAllReservations();
-            return ResponseEntity.ok(reservations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Reservation> reservations = reservationService.getAllReservations();
+        return ResponseEntity.ok(reservations);
     }
     
     // Get reservation by ID
     @GetMapping("/{id}")
+    @StatementBudget(3)
     public ResponseEntity<?> getReservationById(@PathVariable Long id) {
-        try {
-            Optional<Reservation> reservation = reservationService.findById(id);
-            if (reservation.isPresent()) {
-                return ResponseEntity.ok(reservation.get());
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error retrieving reservation: " + e.getMessage());
+        Optional<Reservation> reservation = reservationService.findById(id);
+        if (reservation.isPresent()) {
+            return ResponseEntity.ok(reservation.get());
+        } else {
+            return ResponseEntity.notFound().build();
         }
     }
     
     // Get user's reservations
     @GetMapping("/user/{userId}")
+    @StatementBudget(2)
     public ResponseEntity<List<Reservation>> getUserReservations(@PathVariable Long userId) {
-        try {
-            List<Reservation> reservations = reservationService.getUserReservations(userId);
-            return ResponseEntity.ok(reservations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Reservation> reservations = reservationService.getUserReservations(userId);
+        return ResponseEntity.ok(reservations);
     }
     
     // Get user's active reservations
     @GetMapping("/user/{userId}/active")
+    @StatementBudget(2)
     public ResponseEntity<List<Reservation>> getUserActiveReservations(@PathVariable Long userId) {
-        try {
-            List<Reservation> reservations = reservationService.getUserActiveReservations(userId);
-            return ResponseEntity.ok(reservations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Reservation> reservations = reservationService.getUserActiveReservations(userId);
+        return ResponseEntity.ok(reservations);
     }
     
     // Get reservations for a specific book
     @GetMapping("/book/{bookId}")
+    @StatementBudget(2)
     public ResponseEntity<List<Reservation>> getBookReservations(@PathVariable Long bookId) {
-        try {
-            List<Reservation> reservations = reservationService.getBookReservations(bookId);
-            return ResponseEntity.ok(reservations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Reservation> reservations = reservationService.getBookReservations(bookId);
+        return ResponseEntity.ok(reservations);
     }
     
     // Get reservations by status
     @GetMapping("/status/{status}")
+    @StatementBudget(1)
     public ResponseEntity<List<Reservation>> getReservationsByStatus(@PathVariable String status) {
-        try {
-            Reservation.ReservationStatus reservationStatus = 
-                Reservation.ReservationStatus.valueOf(status.toUpperCase());
-            List<Reservation> reservations = reservationService.getReservationsByStatus(reservationStatus);
-            return ResponseEntity.ok(reservations);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        Reservation.ReservationStatus reservationStatus = 
+            Reservation.ReservationStatus.valueOf(status.toUpperCase());
+        List<Reservation> reservations = reservationService.getReservationsByStatus(reservationStatus);
+        return ResponseEntity.ok(reservations);
     }
     
     // Cancel a reservation
     @PostMapping("/{id}/cancel")
     public ResponseEntity<?> cancelReservation(@PathVariable Long id) {
-        try {
-            Reservation reservation = reservationService.cancelReservation(id);
-            return ResponseEntity.ok(reservation);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error cancelling reservation: " + e.getMessage());
-        }
+        Reservation reservation = reservationService.cancelReservation(id);
+        return ResponseEntity.ok(reservation);
     }
     
     // Fulfill a reservation (when user picks up the book)
     @PostMapping("/{id}/fulfill")
     public ResponseEntity<?> fulfillReservation(@PathVariable Long id) {
-        try {
-            Reservation reservation = reservationService.fulfillReservation(id);
-            return ResponseEntity.ok(reservation);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error fulfilling reservation: " + e.getMessage());
-        }
+        Reservation reservation = reservationService.fulfillReservation(id);
+        return ResponseEntity.ok(reservation);
     }
     
     // Get expired reservations (Admin only)
     @GetMapping("/expired")
+    @StatementBudget(1)
     public ResponseEntity<List<Reservation>> getExpiredReservations() {
-        try {
-            List<Reservation> reservations = reservationService.getExpiredReservations();
-            return ResponseEntity.ok(reservations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Reservation> reservations = reservationService.getExpiredReservations();
+        return ResponseEntity.ok(reservations);
     }
     
     // Get reservations needing notification (Admin only)
     @GetMapping("/needs-notification")
+    @StatementBudget(1)
     public ResponseEntity<List<Reservation>> getReservationsNeedingNotification() {
-        try {
-            List<Reservation> reservations = reservationService.getReservationsNeedingNotification();
-            return ResponseEntity.ok(reservations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Reservation> reservations = reservationService.getReservationsNeedingNotification();
+        return ResponseEntity.ok(reservations);
     }
     
     // Get reservations expiring soon
     @GetMapping("/expiring-soon")
+    @StatementBudget(1)
     public ResponseEntity<List<Reservation>> getReservationsExpiringSoon(
             @RequestParam(defaultValue = "3") int days) {
-        try {
-            List<Reservation> reservations = reservationService.getReservationsExpiringSoon(days);
-            return ResponseEntity.ok(reservations);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<Reservation> reservations = reservationService.getReservationsExpiringSoon(days);
+        return ResponseEntity.ok(reservations);
     }
     
     // Update expired reservations (Admin only - scheduled task)
     @PostMapping("/update-expired")
     public ResponseEntity<?> updateExpiredReservations() {
-        try {
-            reservationService.updateExpiredReservations();
-            return ResponseEntity.ok().body("Expired reservations updated successfully");
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error updating expired reservations: " + e.getMessage());
-        }
+        reservationService.updateExpiredReservations();
+        return ResponseEntity.ok().body("Expired reservations updated successfully");
     }
     
     // Send pending notifications (Admin only - scheduled task)
     @PostMapping("/send-notifications")
     public ResponseEntity<?> sendPendingNotifications() {
-        try {
-            reservationService.sendPendingNotifications();
-            return ResponseEntity.ok().body("Notifications sent successfully");
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error sending notifications: " + e.getMessage());
-        }
+        reservationService.sendPendingNotifications();
+        return ResponseEntity.ok().body("Notifications sent successfully");
     }
     
-    // Get reservation queue for a book
+    // Get reservation queue for a book (concurrent identical requests share one lookup)
     @GetMapping("/book/{bookId}/queue")
+    @StatementBudget(2)
     public ResponseEntity<?> getReservationQueue(@PathVariable Long bookId) {
-        try {
-            List<Reservation> queue = reservationService.getBookReservations(bookId);
-            
-            // Create a response with queue information
-            ReservationQueueResponse response = new ReservationQueueResponse(
-                bookId,
-                queue.size(),
-                queue
-            );
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error retrieving reservation queue: " + e.getMessage());
-        }
+        List<Reservation> queue = reservationQueueFlight.execute(bookId, () -> reservationService.getBookReservations(bookId));
+        
+        // Create a response with queue information
+        ReservationQueueResponse response = new ReservationQueueResponse(
+            bookId,
+            queue.size(),
+            queue
+        );
+        
+        return ResponseEntity.ok(response);
     }
     
     // Get reservation statistics (Admin only)
     @GetMapping("/statistics")
     public ResponseEntity<?> getReservationStatistics() {
-        try {
-            List<Reservation> allReservations = reservationService.getAllReservations();
-            List<Reservation> activeReservations = reservationService.getReservationsByStatus(Reservation.ReservationStatus.ACTIVE);
-            List<Reservation> availableReservations = reservationService.getReservationsByStatus(Reservation.ReservationStatus.AVAILABLE);
-            List<Reservation> expiredReservations = reservationService.getExpiredReservations();
-            List<Reservation> needingNotification = reservationService.getReservationsNeedingNotification();
-            
-            ReservationStatistics stats = new ReservationStatistics(
-                allReservations.size(),
-                activeReservations.size(),
-                availableReservations.size(),
-                expiredReservations.size(),
-                needingNotification.size()
-            );
-            
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error retrieving statistics: " + e.getMessage());
-        }
+        List<Reservation> allReservations = reservationService.getAllReservations();
+        List<Reservation> activeReservations = reservationService.getReservationsByStatus(Reservation.ReservationStatus.ACTIVE);
+        List<Reservation> availableReservations = reservationService.getReservationsByStatus(Reservation.ReservationStatus.AVAILABLE);
+        List<Reservation> expiredReservations = reservationService.getExpiredReservations();
+        List<Reservation> needingNotification = reservationService.getReservationsNeedingNotification();
+        
+        ReservationStatistics stats = new ReservationStatistics(
+            allReservations.size(),
+            activeReservations.size(),
+            availableReservations.size(),
+            expiredReservations.size(),
+            needingNotification.size()
+        );
+        
+        return ResponseEntity.ok(stats);
     }
     
     // Check if user can reserve a book
@@ -246,21 +192,46 @@ public class ReservationController {
     public ResponseEntity<?> canUserReserveBook(
             @RequestParam Long userId, 
             @RequestParam Long bookId) {
-        try {
-            // This is a simplified check - you might want to implement this in the service
-            List<Reservation> userActiveReservations = reservationService.getUserActiveReservations(userId);
-            boolean canReserve = userActiveReservations.size() < 5; // MAX_RESERVATIONS_PER_USER
-            
-            CanReserveResponse response = new CanReserveResponse(
-                canReserve,
-                canReserve ? "User can reserve this book" : "User has reached maximum reservation limit"
-            );
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error checking reservation eligibility: " + e.getMessage());
-        }
+        // This is a simplified check - you might want to implement this in the service
+        List<Reservation> userActiveReservations = reservationService.getUserActiveReservations(userId);
+        boolean canReserve = userActiveReservations.size() < 5; // MAX_RESERVATIONS_PER_USER
+        
+        CanReserveResponse response = new CanReserveResponse(
+            canReserve,
+            canReserve ? "User can reserve this book" : "User has reached maximum reservation limit"
+        );
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    // Get hold summaries (Admin only)
+    @GetMapping("/summaries")
+    @StatementBudget(1)
+    public ResponseEntity<List<HoldSummary>> getHoldSummaries() {
+        List<HoldSummary> summaries = reservationService.getHoldSummaries();
+        return ResponseEntity.ok(summaries);
+    }
+    
+    // Get summaries of a user's reservations
+    @GetMapping("/summaries/user/{userId}")
+    @StatementBudget(1)
+    public ResponseEntity<List<HoldSummary>> getUserHoldSummaries(@PathVariable Long userId) {
+        List<HoldSummary> summaries = reservationService.getUserHoldSummaries(userId);
+        return ResponseEntity.ok(summaries);
+    }
+    
+    // Get the reservation queue for a book as summaries
+    @GetMapping("/summaries/book/{bookId}/queue")
+    @StatementBudget(1)
+    public ResponseEntity<List<HoldSummary>> getHoldQueueSummaries(@PathVariable Long bookId) {
+        List<HoldSummary> summaries = reservationService.getHoldQueueSummaries(bookId);
+        return ResponseEntity.ok(summaries);
+    }
+    
+    // Reserves, cancellations, pickups and expiries change the queue, so a coalesced queue for the book is stale
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueueChanged(ReservationQueueChangedEvent event) {
+        reservationQueueFlight.forget(event.bookId());
     }
     
     // Inner classes for request/response DTOs
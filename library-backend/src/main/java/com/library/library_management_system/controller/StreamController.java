@@ -0,0 +1,43 @@
+package com.library.library_management_system.controller;
+
+import com.library.library_management_system.dto.MemberClaims;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.LibraryException;
+import com.library.library_management_system.service.LiveUpdateService;
+import com.library.library_management_system.service.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "http://localhost:3000")
+public class StreamController {
+    
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+    
+    @Autowired
+    private TokenService tokenService;
+    
+    // Live availableCopies changes for every book
+    @GetMapping(value = "/books", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamBooks() {
+        return ResponseEntity.ok(liveUpdateService.subscribeToBooks());
+    }
+    
+    // Live loan, hold-ready and queue-position events for one member, only to that member or an admin
+    @GetMapping(value = "/users/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamUser(@PathVariable Long userId, @AuthenticationPrincipal Jwt token) {
+        MemberClaims caller = tokenService.claims(token);
+        if (caller.role() != User.Role.ADMIN && !caller.userId().equals(userId)) {
+            throw new LibraryException(ErrorCode.ACCESS_DENIED);
+        }
+        return ResponseEntity.ok(liveUpdateService.subscribeToUser(userId));
+    }
+}
\ No newline at end of file
@@ -1,13 +1,26 @@
 package com.library.library_management_system.controller;
 
+import com.library.library_management_system.dto.MemberClaims;
+import com.library.library_management_system.dto.MemberDashboard;
 import com.library.library_management_system.entity.User;
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.LibraryException;
+import com.library.library_management_system.service.LoginThrottle;
+import com.library.library_management_system.service.MemberDashboardService;
+import com.library.library_management_system.service.MembershipService;
+import com.library.library_management_system.service.TokenService;
 import com.library.library_management_system.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -18,176 +31,153 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private TokenService tokenService;
+    
+    @Autowired
+    private LoginThrottle loginThrottle;
+    
+    @Autowired
+    private MemberDashboardService memberDashboardService;
+    
+    @Autowired
+    private MembershipService membershipService;
+    
     // Register new user
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody User user) {
-        try {
-            User createdUser = userService.createUser(user);
-            // Don't return password in response
-            createdUser.setPassword(null);
-            return ResponseEntity.ok(createdUser);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+        User createdUser = userService.createUser(user);
+        // Don't return password in response
+        createdUser.setPassword(null);
+        return ResponseEntity.ok(createdUser);
     }
     
     // Login user
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@RequestBody LoginRequest loginRequest) {
-        try {
-            Optional<User> user = userService.authenticateUser(
-                loginRequest.getUsername(), 
-                loginRequest.getPassword()
-            );
-            
-            if (user.isPresent()) {
-                User authenticatedUser = user.get();
-                // Don't return password in response
-                authenticatedUser.setPassword(null);
-                return ResponseEntity.ok(authenticatedUser);
-            } else {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("Invalid username or password");
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Login failed: " + e.getMessage());
+    public ResponseEntity<?> loginUser(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        loginThrottle.acquire(loginRequest.getUsername(), request.getRemoteAddr());
+        Optional<User> user = userService.authenticateUser(
+            loginRequest.getUsername(), 
+            loginRequest.getPassword()
+        );
+        
+        if (user.isPresent()) {
+            User authenticatedUser = user.get();
+            TokenService.IssuedToken token = tokenService.issueToken(authenticatedUser);
+            // Don't return password in response
+            authenticatedUser.setPassword(null);
+            return ResponseEntity.ok(new LoginResponse(token.value(), token.expiresAt(), authenticatedUser));
+        } else {
+            throw new LibraryException(ErrorCode.INVALID_CREDENTIALS);
         }
     }
     
     // Get all members (Admin only)
     @GetMapping("/members")
     public ResponseEntity<List<User>> getAllMembers() {
-        try {
-            List<User> members = userService.getAllMembers();
-            // Remove passwords from response
-            members.forEach(user -> user.setPassword(null));
-            return ResponseEntity.ok(members);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<User> members = userService.getAllMembers();
+        // Remove passwords from response
+        members.forEach(user -> user.setPassword(null));
+        return ResponseEntity.ok(members);
     }
     
     // Get user by ID
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserById(@PathVariable Long id) {
-        try {
-            Optional<User> user = userService.findById(id);
-            if (user.isPresent()) {
-                User foundUser = user.get();
-                foundUser.setPassword(null);
-                return ResponseEntity.ok(foundUser);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error retrieving user: " + e.getMessage());
+        Optional<User> user = userService.findById(id);
+        if (user.isPresent()) {
+            User foundUser = user.get();
+            foundUser.setPassword(null);
+            return ResponseEntity.ok(foundUser);
+        } else {
+            return ResponseEntity.notFound().build();
         }
     }
     
     // Get user by username
     @GetMapping("/username/{username}")
     public ResponseEntity<?> getUserByUsername(@PathVariable String username) {
-        try {
-            Optional<User> user = userService.findByUsername(username);
-            if (user.isPresent()) {
-                User foundUser = user.get();
-                foundUser.setPassword(null);
-                return ResponseEntity.ok(foundUser);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error retrieving user: " + e.getMessage());
+        Optional<User> user = userService.findByUsername(username);
+        if (user.isPresent()) {
+            User foundUser = user.get();
+            foundUser.setPassword(null);
+            return ResponseEntity.ok(foundUser);
+        } else {
+            return ResponseEntity.notFound().build();
         }
     }
     
-    // Search users
+    // Search users by name, username, email, phone or id; ranked and paged, total in X-Total-Count
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam String searchTerm) {
-        try {
-            List<User> users = userService.searchUsers(searchTerm);
-            // Remove passwords from response
-            users.forEach(user -> user.setPassword(null));
-            return ResponseEntity.ok(users);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    public ResponseEntity<List<User>> searchUsers(@RequestParam String searchTerm,
+                                                  @RequestParam(required = false) User.Role role,
+                                                  @RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        Page<User> users = userService.searchUsers(searchTerm, role, Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+        // Remove passwords from response
+        users.forEach(user -> user.setPassword(null));
+        return ResponseEntity.ok()
+            .header("X-Total-Count", String.valueOf(users.getTotalElements()))
+            .body(users.getContent());
+    }
+    
+    // Member dashboard in one call: active loans, holds with live queue rank, fines, membership.
+    // Members may only load their own; admins may load anyone's.
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<MemberDashboard> getDashboard(@PathVariable Long id, @AuthenticationPrincipal Jwt token) {
+        MemberClaims caller = tokenService.claims(token);
+        if (caller.role() != User.Role.ADMIN && !caller.userId().equals(id)) {
+            throw new LibraryException(ErrorCode.ACCESS_DENIED);
         }
+        return ResponseEntity.ok(memberDashboardService.getDashboard(id));
     }
     
     // Update user
     @PutMapping("/{id}")
     public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody User userDetails) {
-        try {
-            User updatedUser = userService.updateUser(id, userDetails);
-            updatedUser.setPassword(null);
-            return ResponseEntity.ok(updatedUser);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error updating user: " + e.getMessage());
-        }
+        User updatedUser = userService.updateUser(id, userDetails);
+        updatedUser.setPassword(null);
+        return ResponseEntity.ok(updatedUser);
     }
     
     // Delete user
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
-        try {
-            userService.deleteUser(id);
-            return ResponseEntity.ok().body("User deleted successfully");
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error deleting user: " + e.getMessage());
-        }
+        userService.deleteUser(id);
+        return ResponseEntity.ok().body("User deleted successfully");
     }
     
     // Check membership validity
     @GetMapping("/{id}/membership/valid")
     public ResponseEntity<?> checkMembershipValidity(@PathVariable Long id) {
-        try {
-            Optional<User> userOpt = userService.findById(id);
-            if (userOpt.isPresent()) {
-                boolean isValid = userService.isMembershipValid(userOpt.get());
-                return ResponseEntity.ok().body(new MembershipValidityResponse(isValid));
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error checking membership: " + e.getMessage());
-        }
+        boolean isValid = userService.isMembershipValid(id);
+        return ResponseEntity.ok().body(new MembershipValidityResponse(isValid));
     }
     
     // Extend membership
     @PostMapping("/{id}/membership/extend")
     public ResponseEntity<?> extendMembership(@PathVariable Long id, @RequestBody ExtendMembershipRequest request) {
-        try {
-            User updatedUser = userService.extendMembership(id, request.getMonths());
-            updatedUser.setPassword(null);
-            return ResponseEntity.ok(updatedUser);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Error extending membership: " + e.getMessage());
+        User updatedUser = userService.extendMembership(id, request.getMonths());
+        updatedUser.setPassword(null);
+        return ResponseEntity.ok(updatedUser);
+    }
+    
+    // Extend many memberships at once (renewal campaigns)
+    @PostMapping("/membership/extend")
+    public ResponseEntity<?> extendMemberships(@RequestBody BulkExtendMembershipRequest request) {
+        if (request.getUserIds() == null || request.getMonths() <= 0) {
+            throw new LibraryException(ErrorCode.INVALID_REQUEST, "userIds and a positive number of months are required");
         }
+        int extended = membershipService.extendMemberships(request.getUserIds(), request.getMonths());
+        return ResponseEntity.ok(Map.of("extended", extended));
     }
     
     // Get users with expired memberships
     @GetMapping("/expired-memberships")
     public ResponseEntity<List<User>> getUsersWithExpiredMembership() {
-        try {
-            List<User> users = userService.getUsersWithExpiredMembership();
-            users.forEach(user -> user.setPassword(null));
-            return ResponseEntity.ok(users);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<User> users = userService.getUsersWithExpiredMembership();
+        users.forEach(user -> user.setPassword(null));
+        return ResponseEntity.ok(users);
     }
     
     // Inner classes for request/response DTOs
@@ -202,6 +192,24 @@ public class UserController {
         public void setPassword(String password) { this.password = password; }
     }
     
+    public static class LoginResponse {
+        private String accessToken;
+        private String tokenType = "Bearer";
+        private Instant expiresAt;
+        private User user;
+        
+        public LoginResponse(String accessToken, Instant expiresAt, User user) {
+            this.accessToken = accessToken;
+            this.expiresAt = expiresAt;
+            this.user = user;
+        }
+        
+        public String getAccessToken() { return accessToken; }
+        public String getTokenType() { return tokenType; }
+        public Instant getExpiresAt() { return expiresAt; }
+        public User getUser() { return user; }
+    }
+    
     public static class MembershipValidityResponse {
         private boolean valid;
         
@@ -219,4 +227,14 @@ public class UserController {
         public int getMonths() { return months; }
         public void setMonths(int months) { this.months = months; }
     }
+    
+    public static class BulkExtendMembershipRequest {
+        private List<Long> userIds;
+        private int months;
+        
+        public List<Long> getUserIds() { return userIds; }
+        public void setUserIds(List<Long> userIds) { this.userIds = userIds; }
+        public int getMonths() { return months; }
+        public void setMonths(int months) { this.months = months; }
+    }
 }
\ No newline at end of file
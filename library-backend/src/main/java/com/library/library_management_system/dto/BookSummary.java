@@ -0,0 +1,67 @@
+package com.library.library_management_system.dto;
+
+import com.library.library_management_system.entity.Book;
+
+// Catalogue row for list views: everything but the description and audit columns
+public class BookSummary {
+    
+    private final Long id;
+    private final String isbn;
+    private final String title;
+    private final String author;
+    private final String category;
+    private final Integer publicationYear;
+    private final Integer totalCopies;
+    private final Integer availableCopies;
+    private final Book.BookStatus status;
+    
+    public BookSummary(Long id, String isbn, String title, String author, String category,
+                       Integer publicationYear, Integer totalCopies, Integer availableCopies,
+                       Book.BookStatus status) {
+        this.id = id;
+        this.isbn = isbn;
+        this.title = title;
+        this.author = author;
+        this.category = category;
+        this.publicationYear = publicationYear;
+        this.totalCopies = totalCopies;
+        this.availableCopies = availableCopies;
+        this.status = status;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getIsbn() {
+        return isbn;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public String getAuthor() {
+        return author;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public Integer getPublicationYear() {
+        return publicationYear;
+    }
+    
+    public Integer getTotalCopies() {
+        return totalCopies;
+    }
+    
+    public Integer getAvailableCopies() {
+        return availableCopies;
+    }
+    
+    public Book.BookStatus getStatus() {
+        return status;
+    }
+}
\ No newline at end of file
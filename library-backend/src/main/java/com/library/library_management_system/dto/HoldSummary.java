@@ -0,0 +1,68 @@
+package com.library.library_management_system.dto;
+
+import com.library.library_management_system.entity.Reservation;
+import java.time.LocalDate;
+
+// Reservation for list views, with the book title and the member's username inlined
+public class HoldSummary {
+    
+    private final Long id;
+    private final Long bookId;
+    private final String bookTitle;
+    private final Long userId;
+    private final String username;
+    private final LocalDate reservationDate;
+    private final LocalDate expiryDate;
+    private final Reservation.ReservationStatus status;
+    private final Integer queuePosition;
+    
+    public HoldSummary(Long id, Long bookId, String bookTitle, Long userId, String username,
+                       LocalDate reservationDate, LocalDate expiryDate, Reservation.ReservationStatus status,
+                       Integer queuePosition) {
+        this.id = id;
+        this.bookId = bookId;
+        this.bookTitle = bookTitle;
+        this.userId = userId;
+        this.username = username;
+        this.reservationDate = reservationDate;
+        this.expiryDate = expiryDate;
+        this.status = status;
+        this.queuePosition = queuePosition;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getBookId() {
+        return bookId;
+    }
+    
+    public String getBookTitle() {
+        return bookTitle;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public LocalDate getReservationDate() {
+        return reservationDate;
+    }
+    
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+    
+    public Reservation.ReservationStatus getStatus() {
+        return status;
+    }
+    
+    public Integer getQueuePosition() {
+        return queuePosition;
+    }
+}
\ No newline at end of file
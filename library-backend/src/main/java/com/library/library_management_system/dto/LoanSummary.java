@@ -0,0 +1,87 @@
+package com.library.library_management_system.dto;
+
+import com.library.library_management_system.entity.BorrowTransaction;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Borrow transaction for list views, with the book title and the borrower's username inlined
+public class LoanSummary {
+    
+    private final Long id;
+    private final Long bookId;
+    private final String bookTitle;
+    private final String bookAuthor;
+    private final Long userId;
+    private final String username;
+    private final LocalDate borrowDate;
+    private final LocalDate dueDate;
+    private final LocalDate returnDate;
+    private final BorrowTransaction.TransactionStatus status;
+    private final BigDecimal fineAmount;
+    private final Boolean finePaid;
+    
+    public LoanSummary(Long id, Long bookId, String bookTitle, String bookAuthor, Long userId,
+                       String username, LocalDate borrowDate, LocalDate dueDate, LocalDate returnDate,
+                       BorrowTransaction.TransactionStatus status, BigDecimal fineAmount, Boolean finePaid) {
+        this.id = id;
+        this.bookId = bookId;
+        this.bookTitle = bookTitle;
+        this.bookAuthor = bookAuthor;
+        this.userId = userId;
+        this.username = username;
+        this.borrowDate = borrowDate;
+        this.dueDate = dueDate;
+        this.returnDate = returnDate;
+        this.status = status;
+        this.fineAmount = fineAmount;
+        this.finePaid = finePaid;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getBookId() {
+        return bookId;
+    }
+    
+    public String getBookTitle() {
+        return bookTitle;
+    }
+    
+    public String getBookAuthor() {
+        return bookAuthor;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public LocalDate getBorrowDate() {
+        return borrowDate;
+    }
+    
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+    
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+    
+    public BorrowTransaction.TransactionStatus getStatus() {
+        return status;
+    }
+    
+    public BigDecimal getFineAmount() {
+        return fineAmount;
+    }
+    
+    public Boolean getFinePaid() {
+        return finePaid;
+    }
+}
\ No newline at end of file
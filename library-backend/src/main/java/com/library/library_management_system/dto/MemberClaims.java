@@ -0,0 +1,19 @@
+package com.library.library_management_system.dto;
+
+import com.library.library_management_system.entity.User;
+
+import java.time.LocalDateTime;
+
+// The caller as described by a verified access token; enough to apply the lending rules
+// without loading the user row
+public record MemberClaims(Long userId, String username, User.Role role, User.MembershipType membershipType,
+                           LocalDateTime membershipEndDate) {
+    
+    // Same rule as UserService.isMembershipValid, evaluated against the token's expiry claim
+    public boolean isMembershipValid() {
+        if (role == User.Role.ADMIN) {
+            return true;
+        }
+        return membershipEndDate != null && membershipEndDate.isAfter(LocalDateTime.now());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.library.library_management_system.dto;
+
+import com.library.library_management_system.entity.User;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Everything the member dashboard shows, gathered in one response
+public class MemberDashboard {
+    
+    private final Long userId;
+    private final User.MembershipType membershipType;
+    private final LocalDateTime membershipEndDate;
+    private final boolean membershipValid;
+    private final List<LoanSummary> activeLoans;
+    private final long overdueLoans;
+    private final List<HoldSummary> holds;
+    private final BigDecimal unpaidFines;
+    
+    public MemberDashboard(Long userId, User.MembershipType membershipType, LocalDateTime membershipEndDate,
+                           boolean membershipValid, List<LoanSummary> activeLoans, long overdueLoans,
+                           List<HoldSummary> holds, BigDecimal unpaidFines) {
+        this.userId = userId;
+        this.membershipType = membershipType;
+        this.membershipEndDate = membershipEndDate;
+        this.membershipValid = membershipValid;
+        this.activeLoans = activeLoans;
+        this.overdueLoans = overdueLoans;
+        this.holds = holds;
+        this.unpaidFines = unpaidFines;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public User.MembershipType getMembershipType() {
+        return membershipType;
+    }
+    
+    public LocalDateTime getMembershipEndDate() {
+        return membershipEndDate;
+    }
+    
+    public boolean isMembershipValid() {
+        return membershipValid;
+    }
+    
+    public List<LoanSummary> getActiveLoans() {
+        return activeLoans;
+    }
+    
+    public long getOverdueLoans() {
+        return overdueLoans;
+    }
+    
+    // Open holds; queuePosition is the live place in line (0 once the copy is ready for pickup)
+    public List<HoldSummary> getHolds() {
+        return holds;
+    }
+    
+    public BigDecimal getUnpaidFines() {
+        return unpaidFines;
+    }
+}
\ No newline at end of file
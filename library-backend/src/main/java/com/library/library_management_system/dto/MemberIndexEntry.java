@@ -0,0 +1,15 @@
+package com.library.library_management_system.dto;
+
+import com.library.library_management_system.entity.User;
+
+import java.time.LocalDateTime;
+
+// The fields of one user kept in the in-memory member search and membership indexes
+public record MemberIndexEntry(Long id, String username, String fullName, String email, String phone, User.Role role,
+                               User.MembershipType membershipType, LocalDateTime membershipEndDate) {
+    
+    public static MemberIndexEntry of(User user) {
+        return new MemberIndexEntry(user.getId(), user.getUsername(), user.getFullName(), user.getEmail(),
+            user.getPhone(), user.getRole(), user.getMembershipType(), user.getMembershipEndDate());
+    }
+}
\ No newline at end of file
@@ -24,6 +24,14 @@ public class BorrowTransaction {
     @JoinColumn(name = "book_id", nullable = false)
     private Book book;
     
+    // Read-only copies of the foreign keys, so queries can filter on them without joining
+    // the users and books tables, whose soft-delete restriction would defeat the indexes
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Long userId;
+    
+    @Column(name = "book_id", insertable = false, updatable = false)
+    private Long bookId;
+    
     @Column(name = "borrow_date", nullable = false)
     private LocalDate borrowDate;
     
@@ -40,21 +48,12 @@ public class BorrowTransaction {
     @Column(name = "renewal_count")
     private Integer renewalCount = 0;
     
-    @Column(name = "max_renewals")
-    private Integer maxRenewals = 2; // Default max 2 renewals
-    
     @Column(name = "fine_amount", precision = 10, scale = 2)
     private BigDecimal fineAmount = BigDecimal.ZERO;
     
     @Column(name = "fine_paid")
     private Boolean finePaid = false;
     
-    @Column(name = "daily_fine_rate", precision = 5, scale = 2)
-    private BigDecimal dailyFineRate = new BigDecimal("0.50"); // $0.50 per day
-    
-    @Column(name = "max_fine_amount", precision = 10, scale = 2)
-    private BigDecimal maxFineAmount = new BigDecimal("20.00"); // Max $20 fine
-    
     @Column(length = 500)
     private String notes;
     
@@ -150,14 +149,6 @@ public class BorrowTransaction {
         this.renewalCount = renewalCount;
     }
     
-    public Integer getMaxRenewals() {
-        return maxRenewals;
-    }
-    
-    public void setMaxRenewals(Integer maxRenewals) {
-        this.maxRenewals = maxRenewals;
-    }
-    
     public BigDecimal getFineAmount() {
         return fineAmount;
     }
@@ -174,22 +165,6 @@ public class BorrowTransaction {
         this.finePaid = finePaid;
     }
     
-    public BigDecimal getDailyFineRate() {
-        return dailyFineRate;
-    }
-    
-    public void setDailyFineRate(BigDecimal dailyFineRate) {
-        this.dailyFineRate = dailyFineRate;
-    }
-    
-    public BigDecimal getMaxFineAmount() {
-        return maxFineAmount;
-    }
-    
-    public void setMaxFineAmount(BigDecimal maxFineAmount) {
-        this.maxFineAmount = maxFineAmount;
-    }
-    
     public String getNotes() {
         return notes;
     }
@@ -226,51 +201,46 @@ public class BorrowTransaction {
         return ChronoUnit.DAYS.between(dueDate, LocalDate.now());
     }
     
-    public boolean canRenew() {
-        return renewalCount < maxRenewals && !isOverdue() && returnDate == null;
+    // Renewal limit and extension come from the loan policy of the member and the book's category
+    public boolean canRenew(LoanPolicy.Rule rule) {
+        return renewalCount < rule.maxRenewals() && !isOverdue() && returnDate == null;
     }
     
-    public void renewTransaction() {
-        if (canRenew()) {
+    public void renewTransaction(LoanPolicy.Rule rule) {
+        if (canRenew(rule)) {
             this.renewalCount++;
-            this.dueDate = this.dueDate.plusDays(14); // Extend by 14 days
+            this.dueDate = this.dueDate.plusDays(rule.renewalDays());
             this.status = TransactionStatus.RENEWED;
             this.updatedAt = LocalDateTime.now();
         }
     }
     
-    public BigDecimal calculateFine() {
+    public BigDecimal calculateFine(LoanPolicy.Rule rule) {
         if (!isOverdue()) {
             return BigDecimal.ZERO;
         }
         
-        long daysOverdue = getDaysOverdue();
-        BigDecimal calculatedFine = dailyFineRate.multiply(BigDecimal.valueOf(daysOverdue));
-        
-        // Cap the fine at maximum amount
-        if (calculatedFine.compareTo(maxFineAmount) > 0) {
-            calculatedFine = maxFineAmount;
-        }
-        
+        // Daily rate and cap come from the loan policy
+        BigDecimal calculatedFine = rule.fineFor(getDaysOverdue());
         this.fineAmount = calculatedFine;
         return calculatedFine;
     }
     
-    public void returnBook() {
+    public void returnBook(LoanPolicy.Rule rule) {
         this.returnDate = LocalDate.now();
         this.status = TransactionStatus.RETURNED;
         this.updatedAt = LocalDateTime.now();
         
         // Calculate final fine if overdue
         if (isOverdue()) {
-            calculateFine();
+            calculateFine(rule);
         }
     }
     
-    public void markOverdue() {
+    public void markOverdue(LoanPolicy.Rule rule) {
         if (isOverdue() && status != TransactionStatus.RETURNED) {
             this.status = TransactionStatus.OVERDUE;
-            calculateFine();
+            calculateFine(rule);
             this.updatedAt = LocalDateTime.now();
         }
     }
@@ -295,10 +265,9 @@ public class BorrowTransaction {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
         
-        // Auto-update status if overdue
+        // Auto-update status if overdue; the fine follows with the next overdue sweep or the return
         if (isOverdue() && status == TransactionStatus.BORROWED) {
             status = TransactionStatus.OVERDUE;
-            calculateFine();
         }
     }
 }
\ No newline at end of file
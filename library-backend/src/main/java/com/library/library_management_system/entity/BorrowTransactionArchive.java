@@ -0,0 +1,153 @@
+package com.library.library_management_system.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "borrow_transactions_archive")
+public class BorrowTransactionArchive {
+    
+    // Keeps the id of the original borrow transaction
+    @Id
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+    
+    // Read-only associations so archived rows serialize like live ones
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false,
+                foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private User user;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", insertable = false, updatable = false,
+                foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Book book;
+    
+    @Column(name = "borrow_date", nullable = false)
+    private LocalDate borrowDate;
+    
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+    
+    @Column(name = "return_date", nullable = false)
+    private LocalDate returnDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BorrowTransaction.TransactionStatus status;
+    
+    @Column(name = "renewal_count")
+    private Integer renewalCount;
+    
+    @Column(name = "fine_amount", precision = 10, scale = 2)
+    private BigDecimal fineAmount;
+    
+    @Column(name = "fine_paid")
+    private Boolean finePaid;
+    
+    @Column(length = 500)
+    private String notes;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    // Constructors
+    public BorrowTransactionArchive() {}
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public Long getBookId() {
+        return bookId;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public Book getBook() {
+        return book;
+    }
+    
+    public LocalDate getBorrowDate() {
+        return borrowDate;
+    }
+    
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+    
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+    
+    public BorrowTransaction.TransactionStatus getStatus() {
+        return status;
+    }
+    
+    public Integer getRenewalCount() {
+        return renewalCount;
+    }
+    
+    public BigDecimal getFineAmount() {
+        return fineAmount;
+    }
+    
+    public Boolean getFinePaid() {
+        return finePaid;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+    
+    // Rebuild a detached transaction so history views can mix hot and archived rows
+    public BorrowTransaction toBorrowTransaction() {
+        BorrowTransaction transaction = new BorrowTransaction();
+        transaction.setId(id);
+        transaction.setUser(user);
+        transaction.setBook(book);
+        transaction.setBorrowDate(borrowDate);
+        transaction.setDueDate(dueDate);
+        transaction.setReturnDate(returnDate);
+        transaction.setStatus(status);
+        transaction.setRenewalCount(renewalCount);
+        transaction.setFineAmount(fineAmount);
+        transaction.setFinePaid(finePaid);
+        transaction.setNotes(notes);
+        transaction.setCreatedAt(createdAt);
+        transaction.setUpdatedAt(updatedAt);
+        return transaction;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.library.library_management_system.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.LocalDateTime;
+
+// The stored outcome of a request sent with an Idempotency-Key. The key is scoped to the
+// caller; completedAt stays null while the first attempt is still running.
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+    
+    // Fixed-width SHA-256 hex, stored as char(64)
+    @Column(name = "request_hash", nullable = false, length = 64)
+    @JdbcTypeCode(SqlTypes.CHAR)
+    private String requestHash;
+    
+    @Column(name = "response_status")
+    private Integer responseStatus;
+    
+    @Column(name = "content_type")
+    private String contentType;
+    
+    // mediumtext on MySQL, CLOB on H2; the validator accepts either by name or by type code
+    @Column(name = "response_body", columnDefinition = "mediumtext")
+    @JdbcTypeCode(SqlTypes.CLOB)
+    private String responseBody;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public IdempotencyRecord() {}
+    
+    // Getters
+    public String getKey() {
+        return key;
+    }
+    
+    public String getRequestHash() {
+        return requestHash;
+    }
+    
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public String getResponseBody() {
+        return responseBody;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+}
\ No newline at end of file
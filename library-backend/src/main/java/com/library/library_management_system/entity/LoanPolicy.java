@@ -0,0 +1,158 @@
+package com.library.library_management_system.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One row of lending rules. A null membership type or category matches any, so the row with
+// both null is the library-wide default. LoanPolicyService compiles the table into Rules.
+@Entity
+@Table(name = "loan_policies")
+public class LoanPolicy {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "membership_type")
+    private User.MembershipType membershipType;
+    
+    private String category;
+    
+    @Column(name = "max_loans", nullable = false)
+    private Integer maxLoans;
+    
+    @Column(name = "loan_period_days", nullable = false)
+    private Integer loanPeriodDays;
+    
+    @Column(name = "max_renewals", nullable = false)
+    private Integer maxRenewals;
+    
+    @Column(name = "renewal_days", nullable = false)
+    private Integer renewalDays;
+    
+    @Column(name = "max_reservations", nullable = false)
+    private Integer maxReservations;
+    
+    @Column(name = "daily_fine_rate", nullable = false, precision = 5, scale = 2)
+    private BigDecimal dailyFineRate;
+    
+    @Column(name = "max_fine_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal maxFineAmount;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Immutable, compiled form of a policy row that borrow, renew, reserve and fines evaluate
+    public record Rule(int maxLoans, int loanPeriodDays, int maxRenewals, int renewalDays, int maxReservations,
+                       BigDecimal dailyFineRate, BigDecimal maxFineAmount) {
+        
+        // Daily rate times days overdue, capped at the maximum fine
+        public BigDecimal fineFor(long daysOverdue) {
+            if (daysOverdue <= 0) {
+                return BigDecimal.ZERO;
+            }
+            return dailyFineRate.multiply(BigDecimal.valueOf(daysOverdue)).min(maxFineAmount);
+        }
+    }
+    
+    // Constructors
+    public LoanPolicy() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public User.MembershipType getMembershipType() {
+        return membershipType;
+    }
+    
+    public void setMembershipType(User.MembershipType membershipType) {
+        this.membershipType = membershipType;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public Integer getMaxLoans() {
+        return maxLoans;
+    }
+    
+    public void setMaxLoans(Integer maxLoans) {
+        this.maxLoans = maxLoans;
+    }
+    
+    public Integer getLoanPeriodDays() {
+        return loanPeriodDays;
+    }
+    
+    public void setLoanPeriodDays(Integer loanPeriodDays) {
+        this.loanPeriodDays = loanPeriodDays;
+    }
+    
+    public Integer getMaxRenewals() {
+        return maxRenewals;
+    }
+    
+    public void setMaxRenewals(Integer maxRenewals) {
+        this.maxRenewals = maxRenewals;
+    }
+    
+    public Integer getRenewalDays() {
+        return renewalDays;
+    }
+    
+    public void setRenewalDays(Integer renewalDays) {
+        this.renewalDays = renewalDays;
+    }
+    
+    public Integer getMaxReservations() {
+        return maxReservations;
+    }
+    
+    public void setMaxReservations(Integer maxReservations) {
+        this.maxReservations = maxReservations;
+    }
+    
+    public BigDecimal getDailyFineRate() {
+        return dailyFineRate;
+    }
+    
+    public void setDailyFineRate(BigDecimal dailyFineRate) {
+        this.dailyFineRate = dailyFineRate;
+    }
+    
+    public BigDecimal getMaxFineAmount() {
+        return maxFineAmount;
+    }
+    
+    public void setMaxFineAmount(BigDecimal maxFineAmount) {
+        this.maxFineAmount = maxFineAmount;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public Rule toRule() {
+        return new Rule(maxLoans, loanPeriodDays, maxRenewals, renewalDays, maxReservations, dailyFineRate, maxFineAmount);
+    }
+    
+    // Lifecycle callbacks
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
\ No newline at end of file
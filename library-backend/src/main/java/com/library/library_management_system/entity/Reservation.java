@@ -22,6 +22,14 @@ public class Reservation {
     @JoinColumn(name = "book_id", nullable = false)
     private Book book;
     
+    // Read-only copies of the foreign keys, so queries can filter on them without joining
+    // the users and books tables, whose soft-delete restriction would defeat the indexes
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Long userId;
+    
+    @Column(name = "book_id", insertable = false, updatable = false)
+    private Long bookId;
+    
     @Column(name = "reservation_date", nullable = false)
     private LocalDate reservationDate;
     
@@ -2,18 +2,28 @@
 package com.library.library_management_system.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SQLRestriction;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
+@SQLRestriction("deleted_at IS NULL")
 public class User {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String username;
     
@@ -43,20 +53,29 @@ public class User {
     @Column(name = "membership_end_date")
     private LocalDateTime membershipEndDate;
     
+    // Set by the scheduled expiry job once membershipEndDate has passed; cleared on renewal
+    @Column(name = "membership_expired", nullable = false)
+    private boolean membershipExpired;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Tombstone set on delete; tombstoned rows are filtered out and purged in the background
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+    
     // One user can have many borrow transactions
     @JsonIgnore
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
     private List<BorrowTransaction> borrowTransactions;
     
     // One user can have many reservations
     @JsonIgnore
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
     private List<Reservation> reservations;
     
     // Enums
@@ -170,6 +189,14 @@ public class User {
         this.membershipEndDate = membershipEndDate;
     }
     
+    public boolean isMembershipExpired() {
+        return membershipExpired;
+    }
+    
+    public void setMembershipExpired(boolean membershipExpired) {
+        this.membershipExpired = membershipExpired;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -186,6 +213,10 @@ public class User {
         this.updatedAt = updatedAt;
     }
     
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
     public List<BorrowTransaction> getBorrowTransactions() {
         return borrowTransactions;
     }
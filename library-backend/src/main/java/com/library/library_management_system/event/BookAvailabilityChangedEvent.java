@@ -0,0 +1,5 @@
+package com.library.library_management_system.event;
+
+// Published when a book's copy counts change (borrow, return, admin edits)
+public record BookAvailabilityChangedEvent(Long bookId, int availableCopies, int totalCopies) {
+}
\ No newline at end of file
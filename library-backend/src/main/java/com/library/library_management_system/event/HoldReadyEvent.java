@@ -0,0 +1,7 @@
+package com.library.library_management_system.event;
+
+import java.time.LocalDate;
+
+// Published when a reserved copy is set aside for the member to pick up
+public record HoldReadyEvent(Long userId, Long reservationId, Long bookId, String bookTitle, LocalDate expiryDate) {
+}
\ No newline at end of file
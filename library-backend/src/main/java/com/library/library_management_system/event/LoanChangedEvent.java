@@ -0,0 +1,10 @@
+package com.library.library_management_system.event;
+
+import com.library.library_management_system.entity.BorrowTransaction;
+
+import java.time.LocalDate;
+
+// Published when a member's loan is created, returned or renewed
+public record LoanChangedEvent(Long userId, Long transactionId, Long bookId,
+                               BorrowTransaction.TransactionStatus status, LocalDate dueDate) {
+}
\ No newline at end of file
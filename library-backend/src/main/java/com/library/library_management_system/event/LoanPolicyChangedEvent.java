@@ -0,0 +1,5 @@
+package com.library.library_management_system.event;
+
+// Published when a loan policy row is created, updated or deleted
+public record LoanPolicyChangedEvent(Long policyId) {
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.library.library_management_system.event;
+
+import com.library.library_management_system.dto.MemberIndexEntry;
+
+// Published when a user is created, edited or deleted; member is null after a delete
+public record MemberChangedEvent(Long userId, MemberIndexEntry member) {
+}
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.library.library_management_system.event;
+
+// Published when a reservation moves up the queue after a cancellation or expiry
+public record QueuePositionChangedEvent(Long userId, Long reservationId, Long bookId, int queuePosition) {
+}
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.library.library_management_system.event;
+
+// Published when a book's reservation queue changes (reserve, cancel, fulfil, expiry, a hold becoming available)
+public record ReservationQueueChangedEvent(Long bookId) {
+}
\ No newline at end of file
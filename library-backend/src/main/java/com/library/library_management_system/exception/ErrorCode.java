@@ -0,0 +1,55 @@
+package com.library.library_management_system.exception;
+
+import org.springframework.http.HttpStatus;
+
+// Machine-readable reasons a request was turned away, with the status they map to
+public enum ErrorCode {
+    BOOK_NOT_FOUND(HttpStatus.NOT_FOUND, "Book not found"),
+    USER_NOT_FOUND(HttpStatus.NOT_FOUND, "User not found"),
+    TRANSACTION_NOT_FOUND(HttpStatus.NOT_FOUND, "Transaction not found"),
+    RESERVATION_NOT_FOUND(HttpStatus.NOT_FOUND, "Reservation not found"),
+    LOAN_POLICY_NOT_FOUND(HttpStatus.NOT_FOUND, "Loan policy not found"),
+    
+    DUPLICATE_ISBN(HttpStatus.CONFLICT, "Book with this ISBN already exists"),
+    USERNAME_TAKEN(HttpStatus.CONFLICT, "Username already exists"),
+    EMAIL_TAKEN(HttpStatus.CONFLICT, "Email already exists"),
+    LOAN_POLICY_EXISTS(HttpStatus.CONFLICT, "A loan policy for this membership type and category already exists"),
+    
+    MEMBERSHIP_EXPIRED(HttpStatus.CONFLICT, "User membership has expired"),
+    BORROW_LIMIT_REACHED(HttpStatus.CONFLICT, "User has reached maximum borrowing limit"),
+    BOOK_UNAVAILABLE(HttpStatus.CONFLICT, "Book is not available for borrowing"),
+    ALREADY_BORROWED(HttpStatus.CONFLICT, "User has already borrowed this book"),
+    ALREADY_RETURNED(HttpStatus.CONFLICT, "Book has already been returned"),
+    RENEWAL_NOT_ALLOWED(HttpStatus.CONFLICT, "Book cannot be renewed. Maximum renewals reached or book is overdue."),
+    RESERVATION_LIMIT_REACHED(HttpStatus.CONFLICT, "User has reached maximum reservation limit"),
+    ALREADY_RESERVED(HttpStatus.CONFLICT, "User has already reserved this book"),
+    BOOK_AVAILABLE(HttpStatus.CONFLICT, "Book is currently available. Please borrow it directly."),
+    RESERVATION_NOT_READY(HttpStatus.CONFLICT, "Reservation is not available for pickup"),
+    
+    INVALID_COPIES(HttpStatus.BAD_REQUEST, "Available copies cannot exceed total copies"),
+    INVALID_REQUEST(HttpStatus.BAD_REQUEST, "Invalid request"),
+    INVALID_CREDENTIALS(HttpStatus.UNAUTHORIZED, "Invalid username or password"),
+    TOO_MANY_LOGIN_ATTEMPTS(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts. Please wait and try again."),
+    AUTHENTICATION_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "Sign-in is busy. Please try again shortly."),
+    ACCESS_DENIED(HttpStatus.FORBIDDEN, "Not allowed to access this member's data"),
+    DASHBOARD_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "Dashboard is temporarily unavailable"),
+    STREAM_CAPACITY_REACHED(HttpStatus.SERVICE_UNAVAILABLE, "Too many live update subscribers"),
+    INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected server error");
+    
+    private final HttpStatus status;
+    
+    private final String defaultMessage;
+    
+    ErrorCode(HttpStatus status, String defaultMessage) {
+        this.status = status;
+        this.defaultMessage = defaultMessage;
+    }
+    
+    public HttpStatus getStatus() {
+        return status;
+    }
+    
+    public String getDefaultMessage() {
+        return defaultMessage;
+    }
+}
\ No newline at end of file
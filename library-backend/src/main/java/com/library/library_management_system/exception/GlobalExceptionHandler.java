@@ -0,0 +1,52 @@
+package com.library.library_management_system.exception;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+import java.net.URI;
+
+// Maps every exception leaving a controller to an RFC 9457 problem response carrying a
+// "code" property, so clients branch on the code instead of parsing message strings.
+// Spring MVC's own exceptions keep their standard handling from the base class.
+@RestControllerAdvice
+public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
+    
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    
+    // Domain rejections: expected, so nothing is logged
+    @ExceptionHandler(LibraryException.class)
+    public ResponseEntity<ProblemDetail> handleLibraryException(LibraryException e, HttpServletRequest request) {
+        return problem(e.getCode(), e.getMessage(), request);
+    }
+    
+    // Bad enum names and similar argument errors from the controllers. Their messages can come
+    // from deep inside a library and name classes or values, so only the generic detail goes out.
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ProblemDetail> handleIllegalArgument(IllegalArgumentException e, HttpServletRequest request) {
+        log.debug("Invalid request on {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        return problem(ErrorCode.INVALID_REQUEST, ErrorCode.INVALID_REQUEST.getDefaultMessage(), request);
+    }
+    
+    // Anything else is a bug: log it with its stack trace, keep the details out of the response
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ProblemDetail> handleUnexpected(Exception e, HttpServletRequest request) {
+        log.error("Unhandled error on {} {}", request.getMethod(), request.getRequestURI(), e);
+        return problem(ErrorCode.INTERNAL_ERROR, ErrorCode.INTERNAL_ERROR.getDefaultMessage(), request);
+    }
+    
+    private static ResponseEntity<ProblemDetail> problem(ErrorCode code, String message, HttpServletRequest request) {
+        HttpStatus status = code.getStatus();
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, message);
+        problem.setTitle(status.getReasonPhrase());
+        problem.setInstance(URI.create(request.getRequestURI()));
+        problem.setProperty("code", code.name());
+        return ResponseEntity.status(status).body(problem);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.library.library_management_system.exception;
+
+// Base of the domain exceptions. Rejections are expected outcomes, not bugs, so no stack
+// trace is captured: under load a refused borrow costs an allocation rather than a stack walk.
+public class LibraryException extends RuntimeException {
+    
+    private final ErrorCode code;
+    
+    public LibraryException(ErrorCode code) {
+        this(code, code.getDefaultMessage());
+    }
+    
+    public LibraryException(ErrorCode code, String message) {
+        super(message, null, false, false);
+        this.code = code;
+    }
+    
+    public ErrorCode getCode() {
+        return code;
+    }
+}
\ No newline at end of file
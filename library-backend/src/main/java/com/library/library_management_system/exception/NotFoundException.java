@@ -0,0 +1,9 @@
+package com.library.library_management_system.exception;
+
+// A referenced book, user, transaction or reservation does not exist
+public class NotFoundException extends LibraryException {
+    
+    public NotFoundException(ErrorCode code) {
+        super(code);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.library.library_management_system.exception;
+
+// A lending rule refused the request (limits, availability, membership, duplicates)
+public class RuleViolationException extends LibraryException {
+    
+    public RuleViolationException(ErrorCode code) {
+        super(code);
+    }
+}
\ No newline at end of file
@@ -1,23 +1,37 @@
 // BookRepository.java
 package com.library.library_management_system.repository;
 
+import com.library.library_management_system.dto.BookSummary;
 import com.library.library_management_system.entity.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
     
-    // Find book by ISBN
-    Optional<Book> findByIsbn(String isbn);
+    // Constructor expression shared by the list-view queries (no description column)
+    String BOOK_SUMMARY = "SELECT new com.library.library_management_system.dto.BookSummary(" +
+                          "b.id, b.isbn, b.title, b.author, b.category, b.publicationYear, " +
+                          "b.totalCopies, b.availableCopies, b.status) FROM Book b ";
     
-    // Check if ISBN exists
-    boolean existsByIsbn(String isbn);
+    // Check if ISBN exists; deleted books keep theirs until they are purged
+    default boolean existsByIsbn(String isbn) {
+        return countByIsbnIncludingDeleted(isbn) > 0;
+    }
+    
+    // Native so the deleted_at filter on Book doesn't hide tombstoned rows
+    @Query(value = "SELECT COUNT(*) FROM books WHERE isbn = :isbn", nativeQuery = true)
+    long countByIsbnIncludingDeleted(@Param("isbn") String isbn);
     
     // Find books by title (case insensitive)
     List<Book> findByTitleContainingIgnoreCase(String title);
@@ -47,10 +61,48 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     List<Book> findBooksWithLowAvailability(@Param("threshold") Integer threshold);
     
     // Get all distinct categories
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     @Query("SELECT DISTINCT b.category FROM Book b WHERE b.category IS NOT NULL ORDER BY b.category")
     List<String> findAllCategories();
     
     // Get all distinct authors
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     @Query("SELECT DISTINCT b.author FROM Book b ORDER BY b.author")
     List<String> findAllAuthors();
+    
+    // Book summaries for list views
+    @Query(BOOK_SUMMARY + "ORDER BY b.title")
+    List<BookSummary> findAllSummaries();
+    
+    @Query(BOOK_SUMMARY + "WHERE b.title LIKE %:searchTerm% OR b.author LIKE %:searchTerm% OR b.isbn LIKE %:searchTerm%")
+    List<BookSummary> searchSummaries(@Param("searchTerm") String searchTerm);
+    
+    @Query(BOOK_SUMMARY + "WHERE b.availableCopies > 0 AND b.status = 'ACTIVE'")
+    List<BookSummary> findAvailableSummaries();
+    
+    @Query(BOOK_SUMMARY + "WHERE b.category = :category")
+    List<BookSummary> findSummariesByCategory(@Param("category") String category);
+    
+    // Tombstone a book; as a bulk update it also evicts the cached Book entries
+    @Modifying
+    @Query("UPDATE Book b SET b.deletedAt = :deletedAt WHERE b.id = :id AND b.deletedAt IS NULL")
+    int markDeleted(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    // Tombstoned books waiting for the purge job, oldest first along idx_books_deleted_at
+    @Query(value = "SELECT id FROM books WHERE deleted_at <= :deletedBefore ORDER BY deleted_at", nativeQuery = true)
+    List<Long> findDeletedIds(@Param("deletedBefore") LocalDateTime deletedBefore, Pageable pageable);
+    
+    // A book even when tombstoned, to settle the loans it still has; kept out of the second-level cache
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.query.native.spaces", value = "books"),
+        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "BYPASS")
+    })
+    @Query(value = "SELECT * FROM books WHERE id = :id", nativeQuery = true)
+    Optional<Book> findByIdIncludingDeleted(@Param("id") Long id);
+    
+    // Remove a tombstoned book once its loans and reservations are gone
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "books"))
+    @Query(value = "DELETE FROM books WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeleted(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.library.library_management_system.repository;
+
+import com.library.library_management_system.entity.Book;
+
+import java.util.Optional;
+
+public interface BookRepositoryCustom {
+    
+    // Find book by ISBN through the natural-id cache
+    Optional<Book> findByIsbn(String isbn);
+}
\ No newline at end of file
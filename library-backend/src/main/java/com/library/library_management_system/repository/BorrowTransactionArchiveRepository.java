@@ -0,0 +1,49 @@
+package com.library.library_management_system.repository;
+
+import com.library.library_management_system.dto.LoanSummary;
+import com.library.library_management_system.entity.BorrowTransactionArchive;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BorrowTransactionArchiveRepository extends JpaRepository<BorrowTransactionArchive, Long> {
+    
+    // Get archived borrowing history for a user
+    @EntityGraph(attributePaths = {"user", "book"})
+    List<BorrowTransactionArchive> findByUserIdOrderByBorrowDateDesc(Long userId);
+    
+    // Find archived transactions by date range
+    @EntityGraph(attributePaths = {"user", "book"})
+    List<BorrowTransactionArchive> findByBorrowDateBetween(LocalDate startDate, LocalDate endDate);
+    
+    // Archived loan summaries for a user's history view
+    @Query("SELECT new com.library.library_management_system.dto.LoanSummary(" +
+           "a.id, a.bookId, b.title, b.author, a.userId, u.username, a.borrowDate, a.dueDate, " +
+           "a.returnDate, a.status, a.fineAmount, a.finePaid) " +
+           "FROM BorrowTransactionArchive a LEFT JOIN a.book b LEFT JOIN a.user u " +
+           "WHERE a.userId = :userId ORDER BY a.borrowDate DESC")
+    List<LoanSummary> findLoanSummariesByUserId(@Param("userId") Long userId);
+    
+    // Copy the returned transactions of a batch into the archive table; unreturned ones are skipped.
+    // The query space hint keeps Hibernate from evicting every second-level cache region.
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "borrow_transactions_archive"))
+    @Query(value = "INSERT INTO borrow_transactions_archive " +
+                   "(id, user_id, book_id, borrow_date, due_date, return_date, status, renewal_count, " +
+                   "fine_amount, fine_paid, notes, created_at, updated_at, archived_at) " +
+                   "SELECT id, user_id, book_id, borrow_date, due_date, return_date, status, renewal_count, " +
+                   "fine_amount, fine_paid, notes, created_at, updated_at, :archivedAt " +
+                   "FROM borrow_transactions WHERE id IN (:ids) AND return_date IS NOT NULL",
+           nativeQuery = true)
+    int copyFromBorrowTransactions(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
\ No newline at end of file
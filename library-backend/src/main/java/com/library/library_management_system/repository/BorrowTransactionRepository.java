@@ -1,30 +1,50 @@
 // BorrowTransactionRepository.java
 package com.library.library_management_system.repository;
 
+import com.library.library_management_system.dto.LoanSummary;
 import com.library.library_management_system.entity.BorrowTransaction;
 import com.library.library_management_system.entity.User;
 import com.library.library_management_system.entity.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface BorrowTransactionRepository extends JpaRepository<BorrowTransaction, Long> {
     
+    // Constructor expression shared by the list-view queries (book title and username in one statement).
+    // Filters use the mapped foreign key columns, not the soft-delete-restricted joins.
+    String LOAN_SUMMARY = "SELECT new com.library.library_management_system.dto.LoanSummary(" +
+                          "bt.id, b.id, b.title, b.author, u.id, u.username, bt.borrowDate, bt.dueDate, " +
+                          "bt.returnDate, bt.status, bt.fineAmount, bt.finePaid) " +
+                          "FROM BorrowTransaction bt LEFT JOIN bt.book b LEFT JOIN bt.user u ";
+    
+    // Find all transactions with their user and book in one query
+    @Override
+    @EntityGraph(attributePaths = {"user", "book"})
+    List<BorrowTransaction> findAll();
+    
     // Find transactions by user
+    @EntityGraph(attributePaths = {"user", "book"})
     List<BorrowTransaction> findByUser(User user);
     
     // Find transactions by book
+    @EntityGraph(attributePaths = {"user", "book"})
     List<BorrowTransaction> findByBook(Book book);
     
     // Find transactions by status
+    @EntityGraph(attributePaths = {"user", "book"})
     List<BorrowTransaction> findByStatus(BorrowTransaction.TransactionStatus status);
     
     // Find active borrowings by user (not returned)
+    @EntityGraph(attributePaths = {"user", "book"})
     @Query("SELECT bt FROM BorrowTransaction bt WHERE bt.user = :user AND bt.returnDate IS NULL")
     List<BorrowTransaction> findActiveBorrowingsByUser(@Param("user") User user);
     
@@ -33,21 +53,31 @@ public interface BorrowTransactionRepository extends JpaRepository<BorrowTransac
     Long countActiveBorrowingsByUser(@Param("user") User user);
     
     // Find overdue transactions
+    @EntityGraph(attributePaths = {"user", "book"})
     @Query("SELECT bt FROM BorrowTransaction bt WHERE bt.dueDate < :currentDate AND bt.returnDate IS NULL")
     List<BorrowTransaction> findOverdueTransactions(@Param("currentDate") LocalDate currentDate);
     
+    // Overdue transactions for the fine sweep. No fetch joins: the inner joins would drop loans
+    // whose user or book is tombstoned, and those still accrue fines until they are purged.
+    @Query("SELECT bt FROM BorrowTransaction bt WHERE bt.dueDate < :currentDate AND bt.returnDate IS NULL")
+    List<BorrowTransaction> findOverdueTransactionsForSweep(@Param("currentDate") LocalDate currentDate);
+    
     // Find transactions due soon (within specified days)
+    @EntityGraph(attributePaths = {"user", "book"})
     @Query("SELECT bt FROM BorrowTransaction bt WHERE bt.dueDate BETWEEN :startDate AND :endDate AND bt.returnDate IS NULL")
     List<BorrowTransaction> findTransactionsDueSoon(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     // Find transactions by date range
+    @EntityGraph(attributePaths = {"user", "book"})
     List<BorrowTransaction> findByBorrowDateBetween(LocalDate startDate, LocalDate endDate);
     
     // Find transactions with unpaid fines
+    @EntityGraph(attributePaths = {"user", "book"})
     @Query("SELECT bt FROM BorrowTransaction bt WHERE bt.fineAmount > 0 AND bt.finePaid = false")
     List<BorrowTransaction> findTransactionsWithUnpaidFines();
     
     // Get borrowing history for a user (all transactions)
+    @EntityGraph(attributePaths = {"user", "book"})
     @Query("SELECT bt FROM BorrowTransaction bt WHERE bt.user = :user ORDER BY bt.borrowDate DESC")
     List<BorrowTransaction> findBorrowingHistoryByUser(@Param("user") User user);
     
@@ -60,6 +90,42 @@ public interface BorrowTransactionRepository extends JpaRepository<BorrowTransac
     List<Object[]> findMostBorrowedBooks();
     
     // Find transactions by user ID for easier API queries
+    @EntityGraph(attributePaths = {"user", "book"})
     @Query("SELECT bt FROM BorrowTransaction bt WHERE bt.user.id = :userId")
     List<BorrowTransaction> findByUserId(@Param("userId") Long userId);
+    
+    // Find settled, returned transactions that are old enough to archive
+    @Query("SELECT bt.id FROM BorrowTransaction bt WHERE bt.returnDate IS NOT NULL AND bt.returnDate < :cutoff " +
+           "AND bt.status = 'RETURNED' AND (bt.fineAmount IS NULL OR bt.fineAmount = 0 OR bt.finePaid = true) " +
+           "ORDER BY bt.id")
+    List<Long> findArchivableTransactionIds(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+    
+    // Loans of a deleted user or book, one purge batch at a time
+    @Query("SELECT bt.id FROM BorrowTransaction bt WHERE bt.user.id = :userId ORDER BY bt.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT bt.id FROM BorrowTransaction bt WHERE bt.book.id = :bookId ORDER BY bt.id")
+    List<Long> findIdsByBookId(@Param("bookId") Long bookId, Pageable pageable);
+    
+    // Book of every still-open loan among the given ids, once per loan
+    @Query("SELECT bt.bookId FROM BorrowTransaction bt WHERE bt.id IN :ids AND bt.returnDate IS NULL")
+    List<Long> findOpenLoanBookIds(@Param("ids") List<Long> ids);
+    
+    // Loan summaries for list views
+    @Query(LOAN_SUMMARY + "ORDER BY bt.borrowDate DESC")
+    List<LoanSummary> findAllLoanSummaries();
+    
+    @Query(LOAN_SUMMARY + "WHERE bt.dueDate < :currentDate AND bt.returnDate IS NULL")
+    List<LoanSummary> findOverdueLoanSummaries(@Param("currentDate") LocalDate currentDate);
+    
+    @Query(LOAN_SUMMARY + "WHERE bt.userId = :userId AND bt.returnDate IS NULL")
+    List<LoanSummary> findActiveLoanSummariesByUserId(@Param("userId") Long userId);
+    
+    @Query(LOAN_SUMMARY + "WHERE bt.userId = :userId ORDER BY bt.borrowDate DESC")
+    List<LoanSummary> findLoanSummariesByUserId(@Param("userId") Long userId);
+    
+    // Outstanding fine balance for a user
+    @Query("SELECT COALESCE(SUM(bt.fineAmount), 0) FROM BorrowTransaction bt " +
+           "WHERE bt.user.id = :userId AND bt.fineAmount > 0 AND bt.finePaid = false")
+    BigDecimal sumUnpaidFinesByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.library.library_management_system.repository;
+
+import com.library.library_management_system.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // Claim a key for a first attempt; a second claim fails on the primary key
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at) " +
+                   "VALUES (:key, :requestHash, :createdAt)", nativeQuery = true)
+    int insertPending(@Param("key") String key, @Param("requestHash") String requestHash,
+                      @Param("createdAt") LocalDateTime createdAt);
+    
+    // Store the response of the attempt that claimed the key
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.responseStatus = :status, r.contentType = :contentType, " +
+           "r.responseBody = :body, r.completedAt = :completedAt WHERE r.key = :key AND r.completedAt IS NULL")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("contentType") String contentType,
+                 @Param("body") String body, @Param("completedAt") LocalDateTime completedAt);
+    
+    // Give a key back when its attempt failed, so a retry runs again
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.completedAt IS NULL")
+    int release(@Param("key") String key);
+    
+    // Give up on an attempt that has held its key past the lease
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.completedAt IS NULL AND r.createdAt < :cutoff")
+    int releaseAbandoned(@Param("key") String key, @Param("cutoff") LocalDateTime cutoff);
+    
+    // Drop keys older than the retention window
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
\ No newline at end of file
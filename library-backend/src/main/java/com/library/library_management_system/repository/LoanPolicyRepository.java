@@ -0,0 +1,15 @@
+package com.library.library_management_system.repository;
+
+import com.library.library_management_system.entity.LoanPolicy;
+import com.library.library_management_system.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LoanPolicyRepository extends JpaRepository<LoanPolicy, Long> {
+    
+    // The row for exactly this scope; a null argument matches a null column
+    Optional<LoanPolicy> findByMembershipTypeAndCategory(User.MembershipType membershipType, String category);
+}
\ No newline at end of file
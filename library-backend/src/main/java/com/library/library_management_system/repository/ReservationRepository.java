@@ -2,9 +2,12 @@
 // ReservationRepository.java
 package com.library.library_management_system.repository;
 
+import com.library.library_management_system.dto.HoldSummary;
 import com.library.library_management_system.entity.Reservation;
 import com.library.library_management_system.entity.User;
 import com.library.library_management_system.entity.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,20 +19,37 @@ import java.util.List;
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
     
+    // Constructor expression shared by the list-view queries (book title and username in one statement).
+    // Filters use the mapped foreign key columns, not the soft-delete-restricted joins.
+    String HOLD_SUMMARY = "SELECT new com.library.library_management_system.dto.HoldSummary(" +
+                          "r.id, b.id, b.title, u.id, u.username, r.reservationDate, r.expiryDate, " +
+                          "r.status, r.queuePosition) " +
+                          "FROM Reservation r LEFT JOIN r.book b LEFT JOIN r.user u ";
+    
+    // Find all reservations with their user and book in one query
+    @Override
+    @EntityGraph(attributePaths = {"user", "book"})
+    List<Reservation> findAll();
+    
     // Find reservations by user
+    @EntityGraph(attributePaths = {"user", "book"})
     List<Reservation> findByUser(User user);
     
     // Find reservations by book
+    @EntityGraph(attributePaths = {"user", "book"})
     List<Reservation> findByBook(Book book);
     
     // Find reservations by status
+    @EntityGraph(attributePaths = {"user", "book"})
     List<Reservation> findByStatus(Reservation.ReservationStatus status);
     
     // Find active reservations by user
+    @EntityGraph(attributePaths = {"user", "book"})
     @Query("SELECT r FROM Reservation r WHERE r.user = :user AND r.status = 'ACTIVE'")
     List<Reservation> findActiveReservationsByUser(@Param("user") User user);
     
     // Find active reservations for a book (ordered by queue position)
+    @EntityGraph(attributePaths = {"user", "book"})
     @Query("SELECT r FROM Reservation r WHERE r.book = :book AND r.status = 'ACTIVE' ORDER BY r.queuePosition ASC")
     List<Reservation> findActiveReservationsByBook(@Param("book") Book book);
     
@@ -38,15 +58,18 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     Long countActiveReservationsByUser(@Param("user") User user);
     
     // Find expired reservations
+    @EntityGraph(attributePaths = {"user", "book"})
     @Query("SELECT r FROM Reservation r WHERE r.expiryDate < :currentDate AND (r.status = 'ACTIVE' OR r.status = 'AVAILABLE')")
     List<Reservation> findExpiredReservations(@Param("currentDate") LocalDate currentDate);
     
     // Find reservations that need notification (book became available)
+    @EntityGraph(attributePaths = {"user", "book"})
     @Query("SELECT r FROM Reservation r WHERE r.status = 'AVAILABLE' AND r.notificationSent = false")
     List<Reservation> findReservationsNeedingNotification();
     
-    // Find next reservation in queue for a book
-    @Query("SELECT r FROM Reservation r WHERE r.book = :book AND r.status = 'ACTIVE' ORDER BY r.queuePosition ASC LIMIT 1")
+    // Find next reservation in queue for a book; the join skips holds of deleted users
+    @Query("SELECT r FROM Reservation r JOIN r.user u WHERE r.book = :book AND r.status = 'ACTIVE' " +
+           "AND u.deletedAt IS NULL ORDER BY r.queuePosition ASC LIMIT 1")
     Reservation findNextReservationInQueue(@Param("book") Book book);
     
     // Check if user has already reserved a book
@@ -54,10 +77,38 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     boolean hasUserReservedBook(@Param("user") User user, @Param("book") Book book);
     
     // Find reservations expiring soon
+    @EntityGraph(attributePaths = {"user", "book"})
     @Query("SELECT r FROM Reservation r WHERE r.expiryDate BETWEEN :startDate AND :endDate AND (r.status = 'ACTIVE' OR r.status = 'AVAILABLE')")
     List<Reservation> findReservationsExpiringSoon(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     // Get queue position for a specific reservation
     @Query("SELECT COUNT(r) + 1 FROM Reservation r WHERE r.book = :book AND r.status = 'ACTIVE' AND r.reservationDate < :reservationDate")
     Integer calculateQueuePosition(@Param("book") Book book, @Param("reservationDate") LocalDate reservationDate);
+    
+    // Hold summaries for list views
+    @Query(HOLD_SUMMARY + "ORDER BY r.reservationDate DESC")
+    List<HoldSummary> findAllHoldSummaries();
+    
+    @Query(HOLD_SUMMARY + "WHERE r.userId = :userId ORDER BY r.reservationDate DESC")
+    List<HoldSummary> findHoldSummariesByUserId(@Param("userId") Long userId);
+    
+    @Query(HOLD_SUMMARY + "WHERE r.bookId = :bookId AND r.status = 'ACTIVE' ORDER BY r.queuePosition ASC")
+    List<HoldSummary> findActiveHoldSummariesByBookId(@Param("bookId") Long bookId);
+    
+    // A member's open holds with their live place in line (0 once the copy is ready for pickup)
+    @Query("SELECT new com.library.library_management_system.dto.HoldSummary(" +
+           "r.id, b.id, b.title, u.id, u.username, r.reservationDate, r.expiryDate, r.status, " +
+           "CASE WHEN r.status = 'ACTIVE' THEN CAST((SELECT COUNT(q) FROM Reservation q " +
+           "WHERE q.book = r.book AND q.status = 'ACTIVE' AND q.queuePosition < r.queuePosition) + 1 AS Integer) " +
+           "ELSE 0 END) " +
+           "FROM Reservation r LEFT JOIN r.book b LEFT JOIN r.user u " +
+           "WHERE r.user.id = :userId AND r.status IN ('ACTIVE', 'AVAILABLE') ORDER BY r.reservationDate ASC")
+    List<HoldSummary> findOpenHoldSummariesWithRankByUserId(@Param("userId") Long userId);
+    
+    // Reservations of a deleted user or book, one purge batch at a time
+    @Query("SELECT r.id FROM Reservation r WHERE r.user.id = :userId ORDER BY r.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT r.id FROM Reservation r WHERE r.book.id = :bookId ORDER BY r.id")
+    List<Long> findIdsByBookId(@Param("bookId") Long bookId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,29 +1,44 @@
 // UserRepository.java
 package com.library.library_management_system.repository;
 
+import com.library.library_management_system.dto.MemberIndexEntry;
 import com.library.library_management_system.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    
-    // Find user by username
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
     // Find user by email
     Optional<User> findByEmail(String email);
     
-    // Check if username exists
-    boolean existsByUsername(String username);
+    // Check if username exists; deleted users keep theirs until they are purged
+    default boolean existsByUsername(String username) {
+        return countByUsernameIncludingDeleted(username) > 0;
+    }
+    
+    // Check if email exists; deleted users keep theirs until they are purged
+    default boolean existsByEmail(String email) {
+        return countByEmailIncludingDeleted(email) > 0;
+    }
+    
+    // Native so the deleted_at filter on User doesn't hide tombstoned rows
+    @Query(value = "SELECT COUNT(*) FROM users WHERE username = :username", nativeQuery = true)
+    long countByUsernameIncludingDeleted(@Param("username") String username);
     
-    // Check if email exists
-    boolean existsByEmail(String email);
+    @Query(value = "SELECT COUNT(*) FROM users WHERE email = :email", nativeQuery = true)
+    long countByEmailIncludingDeleted(@Param("email") String email);
     
     // Find users by role
     List<User> findByRole(User.Role role);
@@ -36,10 +51,56 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByFullNameContainingOrUsernameContaining(@Param("searchTerm") String searchTerm);
     
     // Find members only (exclude admins)
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     @Query("SELECT u FROM User u WHERE u.role = 'MEMBER'")
     List<User> findAllMembers();
     
-    // Find users with expired memberships
-    @Query("SELECT u FROM User u WHERE u.membershipEndDate < CURRENT_DATE AND u.role = 'MEMBER'")
+    // Member index rows in id order, one batch after another
+    @Query("SELECT new com.library.library_management_system.dto.MemberIndexEntry(" +
+           "u.id, u.username, u.fullName, u.email, u.phone, u.role, u.membershipType, u.membershipEndDate) " +
+           "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<MemberIndexEntry> findIndexEntriesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Replace a stored password hash without loading the user
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+    
+    // Find users with expired memberships, as flagged by the scheduled expiry job
+    @Query("SELECT u FROM User u WHERE u.role = 'MEMBER' AND u.membershipExpired = true")
     List<User> findUsersWithExpiredMembership();
+    
+    // Members whose membership has run out but who are not flagged yet
+    @Query("SELECT u.id FROM User u WHERE u.role = 'MEMBER' AND u.membershipEndDate < :now " +
+           "AND u.membershipExpired = false ORDER BY u.membershipEndDate")
+    List<Long> findNewlyExpiredMemberIds(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Flag a batch of memberships as expired
+    @Modifying
+    @Query("UPDATE User u SET u.membershipExpired = true WHERE u.id IN :ids")
+    int flagMembershipsExpired(@Param("ids") List<Long> ids);
+    
+    // Tombstone a user; as a bulk update it also evicts the cached User entries
+    @Modifying
+    @Query("UPDATE User u SET u.deletedAt = :deletedAt WHERE u.id = :id AND u.deletedAt IS NULL")
+    int markDeleted(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    // Tombstoned users waiting for the purge job, oldest first along idx_users_deleted_at
+    @Query(value = "SELECT id FROM users WHERE deleted_at <= :deletedBefore ORDER BY deleted_at", nativeQuery = true)
+    List<Long> findDeletedIds(@Param("deletedBefore") LocalDateTime deletedBefore, Pageable pageable);
+    
+    // A user even when tombstoned, to settle the loans it still has; kept out of the second-level cache
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.query.native.spaces", value = "users"),
+        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "BYPASS")
+    })
+    @Query(value = "SELECT * FROM users WHERE id = :id", nativeQuery = true)
+    Optional<User> findByIdIncludingDeleted(@Param("id") Long id);
+    
+    // Remove a tombstoned user once its loans and reservations are gone
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "users"))
+    @Query(value = "DELETE FROM users WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeleted(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.library.library_management_system.repository;
+
+import com.library.library_management_system.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    
+    // Find user by username through the natural-id cache
+    Optional<User> findByUsername(String username);
+}
\ No newline at end of file
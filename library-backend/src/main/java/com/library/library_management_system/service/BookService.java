@@ -1,47 +1,70 @@
 package com.library.library_management_system.service;
 
+import com.library.library_management_system.dto.BookSummary;
 import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.event.BookAvailabilityChangedEvent;
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.LibraryException;
+import com.library.library_management_system.exception.NotFoundException;
+import com.library.library_management_system.exception.RuleViolationException;
 import com.library.library_management_system.repository.BookRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("library.service")
 @Transactional
 public class BookService {
     
     @Autowired
     private BookRepository bookRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     // Create new book
     public Book createBook(Book book) {
         // Check if ISBN already exists
         if (bookRepository.existsByIsbn(book.getIsbn())) {
-            throw new RuntimeException("Book with this ISBN already exists");
+            throw new RuleViolationException(ErrorCode.DUPLICATE_ISBN);
         }
         
         return bookRepository.save(book);
     }
     
     // Get all books
+    @Transactional(readOnly = true)
     public List<Book> getAllBooks() {
         return bookRepository.findAll();
     }
     
     // Find book by ID
+    @Transactional(readOnly = true)
     public Optional<Book> findById(Long id) {
         return bookRepository.findById(id);
     }
     
+    // Find a book even when it is tombstoned and waiting for the purge job
+    @Transactional(readOnly = true)
+    public Optional<Book> findByIdIncludingDeleted(Long id) {
+        return bookRepository.findByIdIncludingDeleted(id);
+    }
+    
     // Find book by ISBN
+    @Transactional(readOnly = true)
     public Optional<Book> findByIsbn(String isbn) {
         return bookRepository.findByIsbn(isbn);
     }
     
     // Search books
+    @Transactional(readOnly = true)
     public List<Book> searchBooks(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllBooks();
@@ -50,21 +73,25 @@ public class BookService {
     }
     
     // Get available books
+    @Transactional(readOnly = true)
     public List<Book> getAvailableBooks() {
         return bookRepository.findAvailableBooks();
     }
     
     // Get books by category
+    @Transactional(readOnly = true)
     public List<Book> getBooksByCategory(String category) {
         return bookRepository.findByCategory(category);
     }
     
     // Get all categories
+    @Transactional(readOnly = true)
     public List<String> getAllCategories() {
         return bookRepository.findAllCategories();
     }
     
     // Get all authors
+    @Transactional(readOnly = true)
     public List<String> getAllAuthors() {
         return bookRepository.findAllAuthors();
     }
@@ -72,7 +99,7 @@ public class BookService {
     // Update book
     public Book updateBook(Long id, Book bookDetails) {
         Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.BOOK_NOT_FOUND));
         
         book.setTitle(bookDetails.getTitle());
         book.setAuthor(bookDetails.getAuthor());
@@ -89,18 +116,19 @@ public class BookService {
             book.setAvailableCopies(bookDetails.getTotalCopies());
         }
         
+        publishAvailability(book);
         return bookRepository.save(book);
     }
     
-    // Delete book
+    // Delete book (tombstone only; DeletionPurgeService removes its loans and reservations later)
     public void deleteBook(Long id) {
-        if (!bookRepository.existsById(id)) {
-            throw new RuntimeException("Book not found");
+        if (bookRepository.markDeleted(id, LocalDateTime.now()) == 0) {
+            throw new NotFoundException(ErrorCode.BOOK_NOT_FOUND);
         }
-        bookRepository.deleteById(id);
     }
     
     // Check if book is available for borrowing
+    @Transactional(readOnly = true)
     public boolean isBookAvailable(Long bookId) {
         Optional<Book> book = bookRepository.findById(bookId);
         return book.isPresent() && book.get().isAvailable();
@@ -109,26 +137,29 @@ public class BookService {
     // Borrow a copy (decrease available count)
     public Book borrowBook(Long bookId) {
         Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.BOOK_NOT_FOUND));
         
         if (!book.isAvailable()) {
-            throw new RuntimeException("Book is not available for borrowing");
+            throw new RuleViolationException(ErrorCode.BOOK_UNAVAILABLE);
         }
         
         book.borrowCopy();
+        publishAvailability(book);
         return bookRepository.save(book);
     }
     
     // Return a copy (increase available count)
     public Book returnBook(Long bookId) {
         Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.BOOK_NOT_FOUND));
         
         book.returnCopy();
+        publishAvailability(book);
         return bookRepository.save(book);
     }
     
     // Get books with low availability
+    @Transactional(readOnly = true)
     public List<Book> getBooksWithLowAvailability(int threshold) {
         return bookRepository.findBooksWithLowAvailability(threshold);
     }
@@ -136,15 +167,49 @@ public class BookService {
     // Update book copies
     public Book updateBookCopies(Long bookId, int totalCopies, int availableCopies) {
         Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.BOOK_NOT_FOUND));
         
         if (availableCopies > totalCopies) {
-            throw new RuntimeException("Available copies cannot exceed total copies");
+            throw new LibraryException(ErrorCode.INVALID_COPIES);
         }
         
         book.setTotalCopies(totalCopies);
         book.setAvailableCopies(availableCopies);
         
+        publishAvailability(book);
         return bookRepository.save(book);
     }
+    
+    // Tell live subscribers about the new copy counts once the transaction commits
+    private void publishAvailability(Book book) {
+        eventPublisher.publishEvent(
+            new BookAvailabilityChangedEvent(book.getId(), book.getAvailableCopies(), book.getTotalCopies()));
+    }
+    
+    // Get book summaries for list views
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBookSummaries() {
+        return bookRepository.findAllSummaries();
+    }
+    
+    // Search book summaries by title, author, or ISBN
+    @Transactional(readOnly = true)
+    public List<BookSummary> searchBookSummaries(String searchTerm) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return getBookSummaries();
+        }
+        return bookRepository.searchSummaries(searchTerm);
+    }
+    
+    // Get summaries of available books
+    @Transactional(readOnly = true)
+    public List<BookSummary> getAvailableBookSummaries() {
+        return bookRepository.findAvailableSummaries();
+    }
+    
+    // Get book summaries by category
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBookSummariesByCategory(String category) {
+        return bookRepository.findSummariesByCategory(category);
+    }
 }
\ No newline at end of file
@@ -1,132 +1,232 @@
 package com.library.library_management_system.service;
 
+import com.library.library_management_system.dto.LoanSummary;
+import com.library.library_management_system.dto.MemberClaims;
 import com.library.library_management_system.entity.BorrowTransaction;
 import com.library.library_management_system.entity.User;
 import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.BorrowTransactionArchive;
+import com.library.library_management_system.entity.LoanPolicy;
+import com.library.library_management_system.event.LoanChangedEvent;
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.NotFoundException;
+import com.library.library_management_system.exception.RuleViolationException;
+import com.library.library_management_system.repository.BorrowTransactionArchiveRepository;
 import com.library.library_management_system.repository.BorrowTransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("library.service")
 @Transactional
 public class BorrowTransactionService {
     
     @Autowired
     private BorrowTransactionRepository borrowTransactionRepository;
     
+    @Autowired
+    private BorrowTransactionArchiveRepository borrowTransactionArchiveRepository;
+    
     @Autowired
     private BookService bookService;
     
     @Autowired
     private UserService userService;
     
-    private static final int MAX_BOOKS_PER_USER = 3;
-    private static final int LOAN_PERIOD_DAYS = 14;
+    @Autowired
+    private MembershipIndex membershipIndex;
+    
+    @Autowired
+    private LoanPolicyService loanPolicyService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     // Borrow a book
     public BorrowTransaction borrowBook(Long userId, Long bookId) {
+        // Known users are checked against the membership index without loading the row
+        if (membershipIndex.contains(userId)) {
+            return borrowBook(userService.getReference(userId), membershipIndex.isValid(userId),
+                membershipIndex.membershipType(userId), bookId);
+        }
         User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
         
+        return borrowBook(user, userService.isMembershipValid(user), user.getMembershipType(), bookId);
+    }
+    
+    // Borrow a book for the member in a verified access token, without reloading the user
+    public BorrowTransaction borrowBook(MemberClaims member, Long bookId) {
+        return borrowBook(userService.getReference(member.userId()), userService.isMembershipValid(member),
+            userService.getMembershipType(member), bookId);
+    }
+    
+    private BorrowTransaction borrowBook(User user, boolean membershipValid, User.MembershipType membershipType,
+                                         Long bookId) {
         Book book = bookService.findById(bookId)
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.BOOK_NOT_FOUND));
+        LoanPolicy.Rule rule = loanPolicyService.rule(membershipType, book.getCategory());
         
         // Check if user membership is valid
-        if (!userService.isMembershipValid(user)) {
-            throw new RuntimeException("User membership has expired");
+        if (!membershipValid) {
+            throw rejectBorrow("expired", ErrorCode.MEMBERSHIP_EXPIRED);
         }
         
         // Check if user has reached borrowing limit
         Long activeBorrowings = borrowTransactionRepository.countActiveBorrowingsByUser(user);
-        if (activeBorrowings >= MAX_BOOKS_PER_USER) {
-            throw new RuntimeException("User has reached maximum borrowing limit");
+        if (activeBorrowings >= rule.maxLoans()) {
+            throw rejectBorrow("limit", ErrorCode.BORROW_LIMIT_REACHED);
         }
         
         // Check if book is available
         if (!bookService.isBookAvailable(bookId)) {
-            throw new RuntimeException("Book is not available for borrowing");
+            throw rejectBorrow("unavailable", ErrorCode.BOOK_UNAVAILABLE);
         }
         
         // Check if user has already borrowed this book
         if (borrowTransactionRepository.hasUserBorrowedBook(user, book)) {
-            throw new RuntimeException("User has already borrowed this book");
+            throw rejectBorrow("duplicate", ErrorCode.ALREADY_BORROWED);
         }
         
         // Create transaction
         LocalDate borrowDate = LocalDate.now();
-        LocalDate dueDate = borrowDate.plusDays(LOAN_PERIOD_DAYS);
+        LocalDate dueDate = borrowDate.plusDays(rule.loanPeriodDays());
         
         BorrowTransaction transaction = new BorrowTransaction(user, book, borrowDate, dueDate);
         
         // Update book availability
         bookService.borrowBook(bookId);
         
-        return borrowTransactionRepository.save(transaction);
+        return publishLoanChange(borrowTransactionRepository.save(transaction));
+    }
+    
+    // Count a rejected borrow by reason (library.borrow.rejected)
+    private RuleViolationException rejectBorrow(String reason, ErrorCode code) {
+        meterRegistry.counter("library.borrow.rejected", "reason", reason).increment();
+        return new RuleViolationException(code);
     }
     
     // Return a book
     public BorrowTransaction returnBook(Long transactionId) {
         BorrowTransaction transaction = borrowTransactionRepository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+                .map(this::withOwners)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TRANSACTION_NOT_FOUND));
         
         if (transaction.getReturnDate() != null) {
-            throw new RuntimeException("Book has already been returned");
+            throw new RuleViolationException(ErrorCode.ALREADY_RETURNED);
         }
         
         // Mark as returned
-        transaction.returnBook();
+        transaction.returnBook(ruleFor(transaction));
         
-        // Update book availability
-        bookService.returnBook(transaction.getBook().getId());
+        // Update book availability; a deleted book has no copies left to count
+        if (transaction.getBook().getDeletedAt() == null) {
+            bookService.returnBook(transaction.getBook().getId());
+        }
         
-        return borrowTransactionRepository.save(transaction);
+        return publishLoanChange(borrowTransactionRepository.save(transaction));
     }
     
     // Renew a book
     public BorrowTransaction renewBook(Long transactionId) {
         BorrowTransaction transaction = borrowTransactionRepository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+                .map(this::withOwners)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TRANSACTION_NOT_FOUND));
         
-        if (!transaction.canRenew()) {
-            throw new RuntimeException("Book cannot be renewed. Maximum renewals reached or book is overdue.");
+        // Loans of a deleted user or book can only be returned
+        LoanPolicy.Rule rule = ruleFor(transaction);
+        if (transaction.getUser().getDeletedAt() != null || transaction.getBook().getDeletedAt() != null
+                || !transaction.canRenew(rule)) {
+            throw new RuleViolationException(ErrorCode.RENEWAL_NOT_ALLOWED);
         }
         
-        transaction.renewTransaction();
-        return borrowTransactionRepository.save(transaction);
+        transaction.renewTransaction(rule);
+        return publishLoanChange(borrowTransactionRepository.save(transaction));
+    }
+    
+    // A loan can outlive its user or book until the purge job runs, and tombstoned rows are
+    // hidden from normal loads. Load them explicitly so the loan can still be settled and shown.
+    private BorrowTransaction withOwners(BorrowTransaction transaction) {
+        if (!Hibernate.isInitialized(transaction.getBook())) {
+            Long bookId = transaction.getBook().getId();
+            if (bookService.findById(bookId).isEmpty()) {
+                bookService.findByIdIncludingDeleted(bookId);
+            }
+        }
+        if (!Hibernate.isInitialized(transaction.getUser())) {
+            Long userId = transaction.getUser().getId();
+            if (userService.findById(userId).isEmpty()) {
+                userService.findByIdIncludingDeleted(userId);
+            }
+        }
+        return transaction;
     }
     
-    // Get user's borrowing history
+    // Loan policy for an existing loan, from the member's type and the book's category
+    private LoanPolicy.Rule ruleFor(BorrowTransaction transaction) {
+        return loanPolicyService.rule(userService.getMembershipType(transaction.getUser().getId()),
+            transaction.getBook().getCategory());
+    }
+    
+    // Tell the member's live stream about the loan once the transaction commits
+    private BorrowTransaction publishLoanChange(BorrowTransaction transaction) {
+        eventPublisher.publishEvent(new LoanChangedEvent(transaction.getUser().getId(), transaction.getId(),
+            transaction.getBook().getId(), transaction.getStatus(), transaction.getDueDate()));
+        return transaction;
+    }
+    
+    // Get user's borrowing history (live and archived transactions)
+    @Transactional(readOnly = true)
     public List<BorrowTransaction> getUserBorrowingHistory(Long userId) {
         User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
+        
+        List<BorrowTransaction> history = new ArrayList<>(borrowTransactionRepository.findBorrowingHistoryByUser(user));
+        for (BorrowTransactionArchive archived : borrowTransactionArchiveRepository.findByUserIdOrderByBorrowDateDesc(userId)) {
+            history.add(archived.toBorrowTransaction());
+        }
         
-        return borrowTransactionRepository.findBorrowingHistoryByUser(user);
+        history.sort(Comparator.comparing(BorrowTransaction::getBorrowDate).reversed());
+        return history;
     }
     
     // Get user's active borrowings
+    @Transactional(readOnly = true)
     public List<BorrowTransaction> getUserActiveBorrowings(Long userId) {
         User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
         
         return borrowTransactionRepository.findActiveBorrowingsByUser(user);
     }
     
     // Get all transactions
+    @Transactional(readOnly = true)
     public List<BorrowTransaction> getAllTransactions() {
         return borrowTransactionRepository.findAll();
     }
     
     // Get overdue transactions
+    @Transactional(readOnly = true)
     public List<BorrowTransaction> getOverdueTransactions() {
         return borrowTransactionRepository.findOverdueTransactions(LocalDate.now());
     }
     
     // Get transactions due soon
+    @Transactional(readOnly = true)
     public List<BorrowTransaction> getTransactionsDueSoon(int days) {
         LocalDate today = LocalDate.now();
         LocalDate endDate = today.plusDays(days);
@@ -134,16 +234,18 @@ public class BorrowTransactionService {
     }
     
     // Get transactions with unpaid fines
+    @Transactional(readOnly = true)
     public List<BorrowTransaction> getTransactionsWithUnpaidFines() {
         return borrowTransactionRepository.findTransactionsWithUnpaidFines();
     }
     
     // Update overdue transactions and calculate fines
     public void updateOverdueTransactions() {
-        List<BorrowTransaction> overdueTransactions = getOverdueTransactions();
+        List<BorrowTransaction> overdueTransactions =
+                borrowTransactionRepository.findOverdueTransactionsForSweep(LocalDate.now());
         
         for (BorrowTransaction transaction : overdueTransactions) {
-            transaction.markOverdue();
+            transaction.markOverdue(ruleFor(withOwners(transaction)));
             borrowTransactionRepository.save(transaction);
         }
     }
@@ -151,7 +253,8 @@ public class BorrowTransactionService {
     // Pay fine
     public BorrowTransaction payFine(Long transactionId) {
         BorrowTransaction transaction = borrowTransactionRepository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+                .map(this::withOwners)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TRANSACTION_NOT_FOUND));
         
         transaction.setFinePaid(true);
         return borrowTransactionRepository.save(transaction);
@@ -160,7 +263,8 @@ public class BorrowTransactionService {
     // Waive fine
     public BorrowTransaction waiveFine(Long transactionId) {
         BorrowTransaction transaction = borrowTransactionRepository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+                .map(this::withOwners)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TRANSACTION_NOT_FOUND));
         
         transaction.setFineAmount(java.math.BigDecimal.ZERO);
         transaction.setFinePaid(true);
@@ -168,22 +272,59 @@ public class BorrowTransactionService {
     }
     
     // Get borrowing statistics
+    @Transactional(readOnly = true)
     public List<Object[]> getMostBorrowedBooks() {
         return borrowTransactionRepository.findMostBorrowedBooks();
     }
     
-    // Find transaction by ID
+    // Find transaction by ID, falling back to the archive
+    @Transactional(readOnly = true)
     public Optional<BorrowTransaction> findById(Long id) {
-        return borrowTransactionRepository.findById(id);
+        return borrowTransactionRepository.findById(id)
+                .or(() -> borrowTransactionArchiveRepository.findById(id)
+                        .map(BorrowTransactionArchive::toBorrowTransaction));
     }
     
     // Get transactions by status
+    @Transactional(readOnly = true)
     public List<BorrowTransaction> getTransactionsByStatus(BorrowTransaction.TransactionStatus status) {
         return borrowTransactionRepository.findByStatus(status);
     }
     
-    // Get transactions by date range
+    // Get transactions by date range (live and archived transactions)
+    @Transactional(readOnly = true)
     public List<BorrowTransaction> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return borrowTransactionRepository.findByBorrowDateBetween(startDate, endDate);
+        List<BorrowTransaction> transactions = new ArrayList<>(borrowTransactionRepository.findByBorrowDateBetween(startDate, endDate));
+        for (BorrowTransactionArchive archived : borrowTransactionArchiveRepository.findByBorrowDateBetween(startDate, endDate)) {
+            transactions.add(archived.toBorrowTransaction());
+        }
+        return transactions;
+    }
+    
+    // Get loan summaries for list views
+    @Transactional(readOnly = true)
+    public List<LoanSummary> getLoanSummaries() {
+        return borrowTransactionRepository.findAllLoanSummaries();
+    }
+    
+    // Get summaries of overdue loans
+    @Transactional(readOnly = true)
+    public List<LoanSummary> getOverdueLoanSummaries() {
+        return borrowTransactionRepository.findOverdueLoanSummaries(LocalDate.now());
+    }
+    
+    // Get summaries of a user's active loans
+    @Transactional(readOnly = true)
+    public List<LoanSummary> getUserActiveLoanSummaries(Long userId) {
+        return borrowTransactionRepository.findActiveLoanSummariesByUserId(userId);
+    }
+    
+    // Get summaries of a user's borrowing history (live and archived loans)
+    @Transactional(readOnly = true)
+    public List<LoanSummary> getUserLoanHistorySummaries(Long userId) {
+        List<LoanSummary> history = new ArrayList<>(borrowTransactionRepository.findLoanSummariesByUserId(userId));
+        history.addAll(borrowTransactionArchiveRepository.findLoanSummariesByUserId(userId));
+        history.sort(Comparator.comparing(LoanSummary::getBorrowDate).reversed());
+        return history;
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.config.Bulkhead;
+import com.library.library_management_system.repository.BookRepository;
+import com.library.library_management_system.repository.BorrowTransactionArchiveRepository;
+import com.library.library_management_system.repository.BorrowTransactionRepository;
+import com.library.library_management_system.repository.ReservationRepository;
+import com.library.library_management_system.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+// Deleting a user or book only sets its tombstone. This job finishes the delete in the
+// background: a purged user's holds are released and the copies on their open loans go
+// back to the books, returned loans go to the archive, then loans and reservations are
+// removed, a batch per transaction, and the tombstoned row goes last.
+@Service
+@Timed("library.service")
+public class DeletionPurgeService {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private BookRepository bookRepository;
+    
+    @Autowired
+    private BorrowTransactionRepository borrowTransactionRepository;
+    
+    @Autowired
+    private BorrowTransactionArchiveRepository borrowTransactionArchiveRepository;
+    
+    @Autowired
+    private ReservationRepository reservationRepository;
+    
+    @Autowired
+    private BookService bookService;
+    
+    @Autowired
+    private ReservationService reservationService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${library.purge.batch-size:500}")
+    private int batchSize;
+    
+    // Periodic purge run, on the reporting bulkhead's connection pool
+    @Scheduled(cron = "${library.purge.cron:0 */5 * * * *}")
+    public void scheduledPurge() {
+        Bulkhead.REPORTING.run(this::purgeDeleted);
+    }
+    
+    // Purge every user and book tombstoned before this run; returns how many rows were removed
+    public int purgeDeleted() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDateTime cutoff = LocalDateTime.now();
+        int purged = purgeAll(transactionTemplate, batch -> userRepository.findDeletedIds(cutoff, batch),
+                borrowTransactionRepository::findIdsByUserId, reservationRepository::findIdsByUserId,
+                this::returnOpenLoans, this::releaseHolds, userRepository::purgeDeleted);
+        // A deleted book's copies and queue go with it, so there is nothing to hand back
+        purged += purgeAll(transactionTemplate, batch -> bookRepository.findDeletedIds(cutoff, batch),
+                borrowTransactionRepository::findIdsByBookId, reservationRepository::findIdsByBookId,
+                ids -> { }, ids -> { }, bookRepository::purgeDeleted);
+        return purged;
+    }
+    
+    private int purgeAll(TransactionTemplate transactionTemplate, Function<Pageable, List<Long>> deletedIds,
+                         ChildIds loanIds, ChildIds reservationIds, Consumer<List<Long>> releaseLoans,
+                         Consumer<List<Long>> releaseReservations, ToIntFunction<Long> deleteRow) {
+        Pageable batch = PageRequest.of(0, batchSize);
+        int purged = 0;
+        while (true) {
+            List<Long> ownerIds = deletedIds.apply(batch);
+            for (Long ownerId : ownerIds) {
+                // Holds first, so copies coming back from the loans skip the owner's own holds
+                drain(transactionTemplate, () -> reservationIds.find(ownerId, batch), ids -> {
+                    releaseReservations.accept(ids);
+                    reservationRepository.deleteAllByIdInBatch(ids);
+                });
+                drain(transactionTemplate, () -> loanIds.find(ownerId, batch), ids -> {
+                    releaseLoans.accept(ids);
+                    borrowTransactionArchiveRepository.copyFromBorrowTransactions(ids, LocalDateTime.now());
+                    borrowTransactionRepository.deleteAllByIdInBatch(ids);
+                });
+                Integer deleted = transactionTemplate.execute(status -> deleteRow.applyAsInt(ownerId));
+                purged += deleted == null ? 0 : deleted;
+            }
+            if (ownerIds.size() < batchSize) {
+                return purged;
+            }
+        }
+    }
+    
+    // Copies still out on a purged user's open loans go back to their books, or to the next hold
+    private void returnOpenLoans(List<Long> loanIds) {
+        for (Long bookId : borrowTransactionRepository.findOpenLoanBookIds(loanIds)) {
+            if (bookService.findById(bookId).isPresent()) {
+                bookService.returnBook(bookId);
+                reservationService.processBookReturn(bookId);
+            }
+        }
+    }
+    
+    // A purged user's open holds give up their place in each queue
+    private void releaseHolds(List<Long> reservationIds) {
+        reservationIds.forEach(reservationService::releaseReservation);
+    }
+    
+    // Remove child rows one committed batch at a time, so locks are only held for one batch
+    private void drain(TransactionTemplate transactionTemplate, Supplier<List<Long>> nextBatch,
+                       Consumer<List<Long>> remove) {
+        while (true) {
+            Integer removed = transactionTemplate.execute(status -> {
+                List<Long> ids = nextBatch.get();
+                if (!ids.isEmpty()) {
+                    remove.accept(ids);
+                }
+                return ids.size();
+            });
+            if (removed == null || removed < batchSize) {
+                return;
+            }
+        }
+    }
+    
+    // Child ids of one owner, a page at a time
+    @FunctionalInterface
+    private interface ChildIds {
+        List<Long> find(Long ownerId, Pageable pageable);
+    }
+}
\ No newline at end of file
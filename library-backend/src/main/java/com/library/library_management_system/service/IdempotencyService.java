@@ -0,0 +1,143 @@
+package com.library.library_management_system.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.library_management_system.config.Bulkhead;
+import com.library.library_management_system.entity.IdempotencyRecord;
+import com.library.library_management_system.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+
+// Idempotency keys for the lending and payment endpoints. The first request with a key claims
+// it with an insert, so concurrent retries across instances cannot both run. Completed
+// responses are kept in a bounded cache in front of the table, so replays skip the database.
+@Service
+public class IdempotencyService {
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${library.idempotency.retention:PT24H}")
+    private Duration retention;
+    
+    @Value("${library.idempotency.lease:PT30S}")
+    private Duration lease;
+    
+    @Value("${library.idempotency.cache-size:10000}")
+    private long cacheSize;
+    
+    private Cache<String, StoredResponse> completed;
+    
+    // What happened to a key: run the request, replay a response, or refuse the request
+    public enum Decision { PROCEED, REPLAY, IN_PROGRESS, KEY_REUSED }
+    
+    public record Outcome(Decision decision, StoredResponse response) {
+        
+        static Outcome of(Decision decision) {
+            return new Outcome(decision, null);
+        }
+    }
+    
+    // A response as it is replayed, with the hash of the request that produced it
+    public record StoredResponse(String requestHash, int status, String contentType, String body) {
+        
+        static StoredResponse of(IdempotencyRecord record) {
+            return new StoredResponse(record.getRequestHash(), record.getResponseStatus(),
+                record.getContentType(), record.getResponseBody());
+        }
+    }
+    
+    @PostConstruct
+    void start() {
+        completed = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(retention)
+            .build();
+    }
+    
+    // Claim a key for this request, or say why the request must not run
+    public Outcome begin(String key, String requestHash) {
+        Outcome outcome = decide(key, requestHash);
+        meterRegistry.counter("library.idempotency.requests", "outcome", outcome.decision().name().toLowerCase(Locale.ROOT))
+            .increment();
+        return outcome;
+    }
+    
+    private Outcome decide(String key, String requestHash) {
+        StoredResponse cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return replayOrReject(cached, requestHash);
+        }
+        
+        // A key released or taken over between the insert and the lookup is claimed again
+        for (int attempt = 0; attempt < 3; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                idempotencyRecordRepository.insertPending(key, requestHash, now);
+                return Outcome.of(Decision.PROCEED);
+            } catch (DataIntegrityViolationException e) {
+                Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(key);
+                if (existing.isEmpty()) {
+                    continue;
+                }
+                
+                IdempotencyRecord record = existing.get();
+                if (!record.getRequestHash().equals(requestHash)) {
+                    return Outcome.of(Decision.KEY_REUSED);
+                }
+                if (record.isCompleted()) {
+                    StoredResponse response = StoredResponse.of(record);
+                    completed.put(key, response);
+                    return new Outcome(Decision.REPLAY, response);
+                }
+                if (idempotencyRecordRepository.releaseAbandoned(key, now.minus(lease)) == 0) {
+                    return Outcome.of(Decision.IN_PROGRESS);
+                }
+            }
+        }
+        return Outcome.of(Decision.IN_PROGRESS);
+    }
+    
+    private static Outcome replayOrReject(StoredResponse response, String requestHash) {
+        return response.requestHash().equals(requestHash)
+            ? new Outcome(Decision.REPLAY, response)
+            : Outcome.of(Decision.KEY_REUSED);
+    }
+    
+    // Store the response of a request that claimed its key
+    public void complete(String key, StoredResponse response) {
+        int updated = idempotencyRecordRepository.complete(key, response.status(), response.contentType(),
+            response.body(), LocalDateTime.now());
+        if (updated > 0) {
+            completed.put(key, response);
+        }
+    }
+    
+    // Free a key whose request failed, so the client's retry runs the request again
+    public void release(String key) {
+        idempotencyRecordRepository.release(key);
+    }
+    
+    // Hourly cleanup of keys past the retention window, on the reporting bulkhead's pool
+    @Scheduled(cron = "${library.idempotency.cleanup-cron:0 15 * * * *}")
+    public void scheduledCleanup() {
+        Bulkhead.REPORTING.run(this::deleteExpired);
+    }
+    
+    public int deleteExpired() {
+        return idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+    }
+}
\ No newline at end of file
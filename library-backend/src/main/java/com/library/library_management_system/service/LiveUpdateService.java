@@ -0,0 +1,188 @@
+package com.library.library_management_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.library_management_system.event.BookAvailabilityChangedEvent;
+import com.library.library_management_system.event.HoldReadyEvent;
+import com.library.library_management_system.event.LoanChangedEvent;
+import com.library.library_management_system.event.QueuePositionChangedEvent;
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.LibraryException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Server-Sent Events fan-out. Subscribers are async requests, so an idle stream holds a socket
+// and an emitter but no thread. Each event is serialized once after its transaction commits
+// and written to every subscriber from one fan-out thread, so slow clients never hold up the
+// request that made the change. A periodic comment keeps proxies open and finds dead clients.
+@Service
+public class LiveUpdateService {
+    
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateService.class);
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${library.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+    
+    @Value("${library.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+    
+    private final Set<SseEmitter> bookSubscribers = ConcurrentHashMap.newKeySet();
+    
+    private final ConcurrentMap<Long, Set<SseEmitter>> userSubscribers = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    
+    private final ThreadPoolExecutor fanOut = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(10_000), runnable -> {
+            Thread thread = new Thread(runnable, "sse-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardOldestPolicy());
+    
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("library.stream.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("library.stream.pending", fanOut, executor -> executor.getQueue().size()).register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        fanOut.shutdownNow();
+        bookSubscribers.forEach(SseEmitter::complete);
+        userSubscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+    
+    // Open a stream of availability changes for all books
+    public SseEmitter subscribeToBooks() {
+        SseEmitter emitter = newEmitter();
+        bookSubscribers.add(emitter);
+        onClose(emitter, () -> bookSubscribers.remove(emitter));
+        return connected(emitter);
+    }
+    
+    // Open a stream of loan, hold-ready and queue-position events for one member
+    public SseEmitter subscribeToUser(Long userId) {
+        SseEmitter emitter = newEmitter();
+        userSubscribers.compute(userId, (id, emitters) -> {
+            Set<SseEmitter> subscribers = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            subscribers.add(emitter);
+            return subscribers;
+        });
+        onClose(emitter, () -> userSubscribers.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        }));
+        return connected(emitter);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookAvailabilityChanged(BookAvailabilityChangedEvent event) {
+        broadcast(bookSubscribers, "availability", event);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanChanged(LoanChangedEvent event) {
+        broadcast(userSubscribers.get(event.userId()), "loan", event);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldReady(HoldReadyEvent event) {
+        broadcast(userSubscribers.get(event.userId()), "hold-ready", event);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueuePositionChanged(QueuePositionChangedEvent event) {
+        broadcast(userSubscribers.get(event.userId()), "queue-position", event);
+    }
+    
+    // Keep idle streams alive through proxies and drop the ones whose client has gone
+    @Scheduled(fixedDelayString = "${library.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        fanOut.execute(() -> {
+            bookSubscribers.forEach(emitter -> send(emitter, ping));
+            userSubscribers.values().forEach(emitters -> emitters.forEach(emitter -> send(emitter, ping)));
+        });
+    }
+    
+    private SseEmitter newEmitter() {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new LibraryException(ErrorCode.STREAM_CAPACITY_REACHED);
+        }
+        return new SseEmitter(timeoutMillis);
+    }
+    
+    private void onClose(SseEmitter emitter, Runnable unregister) {
+        AtomicInteger closed = new AtomicInteger();
+        Runnable cleanup = () -> {
+            if (closed.getAndIncrement() == 0) {
+                unregister.run();
+                subscriberCount.decrementAndGet();
+            }
+        };
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
+        emitter.onError(error -> cleanup.run());
+    }
+    
+    // Flush the headers right away and tell the browser how soon to reconnect
+    private SseEmitter connected(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().comment("connected").reconnectTime(3000));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+    
+    private void broadcast(Set<SseEmitter> subscribers, String name, Object event) {
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        
+        Set<ResponseBodyEmitter.DataWithMediaType> message;
+        try {
+            message = SseEmitter.event().name(name).data(objectMapper.writeValueAsString(event)).build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} event: {}", name, e.getMessage());
+            return;
+        }
+        fanOut.execute(() -> subscribers.forEach(emitter -> send(emitter, message)));
+    }
+    
+    private void send(SseEmitter emitter, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        try {
+            emitter.send(message);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; completing triggers the cleanup callbacks
+            emitter.complete();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.entity.LoanPolicy;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.event.LoanPolicyChangedEvent;
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.LibraryException;
+import com.library.library_management_system.exception.NotFoundException;
+import com.library.library_management_system.exception.RuleViolationException;
+import com.library.library_management_system.repository.LoanPolicyRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Lending rules per membership type and book category. The loan_policies table is compiled
+// into an immutable rule set that is swapped in whole, so borrow, renew, reserve and fines
+// look their rule up in memory. Recompiled after every policy change commits, and
+// periodically to pick up changes made by other instances or directly in the table.
+@Service
+@Timed("library.service")
+public class LoanPolicyService {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoanPolicyService.class);
+    
+    // Used when the table has no default row; the limits that were hard-coded before
+    private static final LoanPolicy.Rule BUILT_IN_DEFAULT =
+        new LoanPolicy.Rule(3, 14, 2, 14, 5, new BigDecimal("0.50"), new BigDecimal("20.00"));
+    
+    @Autowired
+    private LoanPolicyRepository loanPolicyRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private volatile RuleSet rules = RuleSet.compile(List.of());
+    
+    @PostConstruct
+    void init() {
+        reload();
+    }
+    
+    // The rule for a member of this type borrowing or reserving a book in this category.
+    // Most specific row wins: type and category, then category, then type, then the default.
+    public LoanPolicy.Rule rule(User.MembershipType membershipType, String category) {
+        return rules.lookup(membershipType, category);
+    }
+    
+    // Compile the table and swap the result in; readers see the old or the new set, never a mix
+    public synchronized void reload() {
+        List<LoanPolicy> policies = loanPolicyRepository.findAll();
+        rules = RuleSet.compile(policies);
+        log.debug("Loan policies compiled from {} rows", policies.size());
+    }
+    
+    // Periodic recompile for edits made elsewhere
+    @Scheduled(fixedDelayString = "${library.loan-policy.refresh-ms:60000}",
+               initialDelayString = "${library.loan-policy.refresh-ms:60000}")
+    public void scheduledRefresh() {
+        reload();
+    }
+    
+    // Recompile once a policy change has committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyChanged(LoanPolicyChangedEvent event) {
+        reload();
+    }
+    
+    // All policy rows, as stored
+    @Transactional(readOnly = true)
+    public List<LoanPolicy> getPolicies() {
+        return loanPolicyRepository.findAll();
+    }
+    
+    // Add a policy for a scope that has none yet
+    @Transactional
+    public LoanPolicy createPolicy(LoanPolicy policy) {
+        validate(policy);
+        if (loanPolicyRepository.findByMembershipTypeAndCategory(policy.getMembershipType(), policy.getCategory()).isPresent()) {
+            throw new RuleViolationException(ErrorCode.LOAN_POLICY_EXISTS);
+        }
+        policy.setId(null);
+        return publishPolicyChange(loanPolicyRepository.save(policy));
+    }
+    
+    // Replace a policy's scope and limits
+    @Transactional
+    public LoanPolicy updatePolicy(Long id, LoanPolicy details) {
+        LoanPolicy policy = loanPolicyRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.LOAN_POLICY_NOT_FOUND));
+        validate(details);
+        loanPolicyRepository.findByMembershipTypeAndCategory(details.getMembershipType(), details.getCategory())
+                .filter(other -> !other.getId().equals(id))
+                .ifPresent(other -> {
+                    throw new RuleViolationException(ErrorCode.LOAN_POLICY_EXISTS);
+                });
+        
+        policy.setMembershipType(details.getMembershipType());
+        policy.setCategory(details.getCategory());
+        policy.setMaxLoans(details.getMaxLoans());
+        policy.setLoanPeriodDays(details.getLoanPeriodDays());
+        policy.setMaxRenewals(details.getMaxRenewals());
+        policy.setRenewalDays(details.getRenewalDays());
+        policy.setMaxReservations(details.getMaxReservations());
+        policy.setDailyFineRate(details.getDailyFineRate());
+        policy.setMaxFineAmount(details.getMaxFineAmount());
+        return publishPolicyChange(loanPolicyRepository.save(policy));
+    }
+    
+    // Remove a policy; its scope falls back to the next less specific rule
+    @Transactional
+    public void deletePolicy(Long id) {
+        if (!loanPolicyRepository.existsById(id)) {
+            throw new NotFoundException(ErrorCode.LOAN_POLICY_NOT_FOUND);
+        }
+        loanPolicyRepository.deleteById(id);
+        eventPublisher.publishEvent(new LoanPolicyChangedEvent(id));
+    }
+    
+    private LoanPolicy publishPolicyChange(LoanPolicy policy) {
+        eventPublisher.publishEvent(new LoanPolicyChangedEvent(policy.getId()));
+        return policy;
+    }
+    
+    // Reject incomplete policies and negative limits
+    private static void validate(LoanPolicy policy) {
+        boolean complete = policy.getMaxLoans() != null && policy.getLoanPeriodDays() != null
+            && policy.getMaxRenewals() != null && policy.getRenewalDays() != null
+            && policy.getMaxReservations() != null && policy.getDailyFineRate() != null
+            && policy.getMaxFineAmount() != null;
+        if (!complete || policy.getMaxLoans() < 0 || policy.getLoanPeriodDays() < 1 || policy.getMaxRenewals() < 0
+                || policy.getRenewalDays() < 1 || policy.getMaxReservations() < 0
+                || policy.getDailyFineRate().signum() < 0 || policy.getMaxFineAmount().signum() < 0) {
+            throw new LibraryException(ErrorCode.INVALID_REQUEST,
+                "Every limit is required; periods must be positive and the other values non-negative");
+        }
+    }
+    
+    // Compiled rules: one slot per membership type plus one for members without a type. Each slot
+    // holds the resolved rule for every category named in the table and a fallback for the rest.
+    private record RuleSet(List<TypeRules> slots) {
+        
+        LoanPolicy.Rule lookup(User.MembershipType membershipType, String category) {
+            TypeRules typeRules = slots.get(membershipType == null ? 0 : membershipType.ordinal() + 1);
+            if (category == null) {
+                return typeRules.fallback();
+            }
+            return typeRules.byCategory().getOrDefault(category, typeRules.fallback());
+        }
+        
+        static RuleSet compile(List<LoanPolicy> policies) {
+            Map<Scope, LoanPolicy.Rule> rows = new HashMap<>();
+            Set<String> categories = new HashSet<>();
+            for (LoanPolicy policy : policies) {
+                rows.put(new Scope(policy.getMembershipType(), policy.getCategory()), policy.toRule());
+                if (policy.getCategory() != null) {
+                    categories.add(policy.getCategory());
+                }
+            }
+            LoanPolicy.Rule libraryDefault = rows.getOrDefault(new Scope(null, null), BUILT_IN_DEFAULT);
+            
+            List<TypeRules> slots = new ArrayList<>();
+            List<User.MembershipType> types = new ArrayList<>();
+            types.add(null);
+            types.addAll(List.of(User.MembershipType.values()));
+            for (User.MembershipType type : types) {
+                LoanPolicy.Rule typeDefault = rows.getOrDefault(new Scope(type, null), libraryDefault);
+                Map<String, LoanPolicy.Rule> byCategory = new HashMap<>();
+                for (String category : categories) {
+                    LoanPolicy.Rule rule = rows.get(new Scope(type, category));
+                    if (rule == null) {
+                        rule = rows.getOrDefault(new Scope(null, category), typeDefault);
+                    }
+                    byCategory.put(category, rule);
+                }
+                slots.add(new TypeRules(Map.copyOf(byCategory), typeDefault));
+            }
+            return new RuleSet(List.copyOf(slots));
+        }
+    }
+    
+    private record TypeRules(Map<String, LoanPolicy.Rule> byCategory, LoanPolicy.Rule fallback) {
+    }
+    
+    private record Scope(User.MembershipType membershipType, String category) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.config.ClientRateLimiter;
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.LibraryException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+// Token buckets per account and per client address, checked before a login reaches the
+// hashing pool. Guessing one account and spraying many accounts from one address are both
+// cut off with a 429. Idle buckets expire, so memory follows the active clients only.
+@Service
+public class LoginThrottle {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${library.security.login-throttle.account.capacity:10}")
+    private int accountCapacity;
+    
+    @Value("${library.security.login-throttle.account.refill-per-minute:10}")
+    private double accountRefillPerMinute;
+    
+    @Value("${library.security.login-throttle.address.capacity:60}")
+    private int addressCapacity;
+    
+    @Value("${library.security.login-throttle.address.refill-per-minute:120}")
+    private double addressRefillPerMinute;
+    
+    @Value("${library.security.login-throttle.max-tracked:100000}")
+    private long maxTracked;
+    
+    private ClientRateLimiter accountLimiter;
+    
+    private ClientRateLimiter addressLimiter;
+    
+    private Counter rejectedAccount;
+    
+    private Counter rejectedAddress;
+    
+    @PostConstruct
+    void start() {
+        accountLimiter = new ClientRateLimiter(accountCapacity, accountRefillPerMinute, maxTracked);
+        addressLimiter = new ClientRateLimiter(addressCapacity, addressRefillPerMinute, maxTracked);
+        rejectedAccount = Counter.builder("library.login.throttled").tag("key", "account").register(meterRegistry);
+        rejectedAddress = Counter.builder("library.login.throttled").tag("key", "address").register(meterRegistry);
+    }
+    
+    // Take a login attempt from both buckets or refuse it
+    public void acquire(String username, String clientAddress) {
+        if (clientAddress != null && !addressLimiter.tryAcquire(clientAddress)) {
+            rejectedAddress.increment();
+            throw new LibraryException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        }
+        if (username != null && !accountLimiter.tryAcquire(username.toLowerCase(Locale.ROOT))) {
+            rejectedAccount.increment();
+            throw new LibraryException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        }
+    }
+}
\ No newline at end of file
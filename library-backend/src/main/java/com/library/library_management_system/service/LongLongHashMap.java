@@ -0,0 +1,182 @@
+package com.library.library_management_system.service;
+
+import java.util.concurrent.locks.StampedLock;
+
+// Open-addressing long -> long map on two primitive arrays: about 16 bytes per entry at the
+// default load factor instead of ~80 for a HashMap<Long, Long>. Reads are lock-free unless a
+// write overlaps them; writes are serialized. Key 0 marks an empty slot and cannot be stored.
+public class LongLongHashMap {
+    
+    private static final float LOAD_FACTOR = 0.6f;
+    
+    private final StampedLock lock = new StampedLock();
+    
+    private volatile Table table;
+    
+    private int size;
+    
+    public LongLongHashMap(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+    
+    // Value for the key, or missingValue when it is not present
+    public long get(long key, long missingValue) {
+        long stamp = lock.tryOptimisticRead();
+        long value = table.get(key, missingValue);
+        if (lock.validate(stamp)) {
+            return value;
+        }
+        stamp = lock.readLock();
+        try {
+            return table.get(key, missingValue);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    public boolean containsKey(long key) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = table.indexOf(key) >= 0;
+        if (lock.validate(stamp)) {
+            return found;
+        }
+        stamp = lock.readLock();
+        try {
+            return table.indexOf(key) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    public void put(long key, long value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (table.put(key, value)) {
+                size++;
+                if (size > table.keys.length * LOAD_FACTOR) {
+                    table = table.resize(table.keys.length * 2);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public void remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            if (table.remove(key)) {
+                size--;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+    
+    // Keys and values swap together on resize, so a reader always sees a matching pair of arrays
+    private static final class Table {
+        
+        private final long[] keys;
+        
+        private final long[] values;
+        
+        private final int mask;
+        
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+            this.mask = capacity - 1;
+        }
+        
+        long get(long key, long missingValue) {
+            int slot = indexOf(key);
+            return slot >= 0 ? values[slot] : missingValue;
+        }
+        
+        int indexOf(long key) {
+            if (key == 0) {
+                return -1;
+            }
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                long current = keys[slot];
+                if (current == key) {
+                    return slot;
+                }
+                if (current == 0) {
+                    return -1;
+                }
+            }
+        }
+        
+        // True when the key was not present before
+        boolean put(long key, long value) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                long current = keys[slot];
+                if (current == key) {
+                    values[slot] = value;
+                    return false;
+                }
+                if (current == 0) {
+                    values[slot] = value;
+                    keys[slot] = key;
+                    return true;
+                }
+            }
+        }
+        
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        boolean remove(long key) {
+            int gap = indexOf(key);
+            if (gap < 0) {
+                return false;
+            }
+            for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+                int home = slot(keys[next]);
+                // Move the entry back if its home slot is not between the gap and its position
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = 0;
+            values[gap] = 0;
+            return true;
+        }
+        
+        Table resize(int capacity) {
+            Table resized = new Table(capacity);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    resized.put(keys[i], values[i]);
+                }
+            }
+            return resized;
+        }
+        
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.dto.HoldSummary;
+import com.library.library_management_system.dto.LoanSummary;
+import com.library.library_management_system.dto.MemberDashboard;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.LibraryException;
+import com.library.library_management_system.exception.NotFoundException;
+import com.library.library_management_system.repository.BorrowTransactionRepository;
+import com.library.library_management_system.repository.ReservationRepository;
+import com.library.library_management_system.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Builds the member dashboard in one call. Loans, holds and the fine balance are independent
+// queries, so they run side by side on the application task executor (virtual threads under
+// the virtual-threads profile), each in its own read-only transaction. The user itself
+// normally comes from the second-level cache. Off-thread statements are not counted by
+// StatementCountFilter, and one dashboard briefly holds up to three connections.
+@Service
+@Timed("library.service")
+public class MemberDashboardService {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private BorrowTransactionRepository borrowTransactionRepository;
+    
+    @Autowired
+    private ReservationRepository reservationRepository;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+    
+    @Value("${library.dashboard.timeout-ms:5000}")
+    private long timeoutMillis;
+    
+    private TransactionTemplate readOnly;
+    
+    @PostConstruct
+    void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+    
+    public MemberDashboard getDashboard(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
+        
+        CompletableFuture<List<LoanSummary>> loans =
+            query(() -> borrowTransactionRepository.findActiveLoanSummariesByUserId(userId));
+        CompletableFuture<List<HoldSummary>> holds =
+            query(() -> reservationRepository.findOpenHoldSummariesWithRankByUserId(userId));
+        CompletableFuture<BigDecimal> fines =
+            query(() -> borrowTransactionRepository.sumUnpaidFinesByUserId(userId));
+        await(CompletableFuture.allOf(loans, holds, fines), loans, holds, fines);
+        
+        LocalDate today = LocalDate.now();
+        List<LoanSummary> activeLoans = loans.join();
+        long overdue = activeLoans.stream().filter(loan -> loan.getDueDate().isBefore(today)).count();
+        return new MemberDashboard(user.getId(), user.getMembershipType(), user.getMembershipEndDate(),
+            userService.isMembershipValid(user), activeLoans, overdue, holds.join(), fines.join());
+    }
+    
+    private <T> CompletableFuture<T> query(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnly.execute(status -> query.get()), taskExecutor);
+    }
+    
+    // Wait for every part; a slow database fails the dashboard instead of pinning the request
+    private void await(CompletableFuture<Void> all, CompletableFuture<?>... parts) {
+        try {
+            all.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancel(parts);
+            throw new LibraryException(ErrorCode.DASHBOARD_UNAVAILABLE);
+        } catch (InterruptedException e) {
+            cancel(parts);
+            Thread.currentThread().interrupt();
+            throw new LibraryException(ErrorCode.DASHBOARD_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            cancel(parts);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    private static void cancel(CompletableFuture<?>... parts) {
+        for (CompletableFuture<?> part : parts) {
+            part.cancel(true);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,359 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.config.Bulkhead;
+import com.library.library_management_system.dto.MemberIndexEntry;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.event.MemberChangedEvent;
+import com.library.library_management_system.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// In-memory search over username, full name, email and phone for the member management
+// screen. Terms of three or more characters are looked up through trigram postings and
+// match anywhere in a field; shorter terms match word prefixes through a sorted token map.
+// Every term of a query has to match. Results are ranked: exact username or id first,
+// then prefix matches, then substring matches, with name and username above email and phone.
+// Built from the users table on startup and kept current from MemberChangedEvent after commit.
+@Service
+public class MemberSearchIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(MemberSearchIndex.class);
+    
+    private static final int GRAM = 3;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${library.member-search.batch-size:5000}")
+    private int batchSize;
+    
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    
+    private final Map<String, Set<Long>> grams = new ConcurrentHashMap<>();
+    
+    private final NavigableMap<String, Set<Long>> tokens = new ConcurrentSkipListMap<>();
+    
+    private volatile boolean ready;
+    
+    private volatile Set<Long> changedDuringRebuild;
+    
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("library.member_search.documents", documents, Map::size).register(meterRegistry);
+    }
+    
+    // Load the index once the application is up, on the reporting pool so it can't hold up traffic
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Bulkhead.REPORTING.run(this::rebuild);
+    }
+    
+    // Reload every user in id order, one read-only batch at a time, then drop entries for
+    // rows that are gone. Users changed by events during the reload keep the event's version.
+    public void rebuild() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        
+        long started = System.nanoTime();
+        long afterId = 0;
+        Set<Long> seen = new HashSet<>();
+        changedDuringRebuild = ConcurrentHashMap.newKeySet();
+        while (true) {
+            long cursor = afterId;
+            List<MemberIndexEntry> batch = transactionTemplate.execute(status ->
+                userRepository.findIndexEntriesAfter(cursor, PageRequest.of(0, batchSize)));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            for (MemberIndexEntry entry : batch) {
+                seen.add(entry.id());
+                putUnlessChanged(entry);
+            }
+            afterId = batch.get(batch.size() - 1).id();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        Set<Long> changed = changedDuringRebuild;
+        changedDuringRebuild = null;
+        documents.keySet().stream()
+            .filter(id -> !seen.contains(id) && !changed.contains(id))
+            .toList()
+            .forEach(this::remove);
+        ready = true;
+        log.info("Member search index loaded {} users in {} ms", seen.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        Set<Long> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.add(event.userId());
+        }
+        if (event.member() != null) {
+            put(event.member());
+        } else {
+            remove(event.userId());
+        }
+    }
+    
+    // Ranked ids of the users matching every term, optionally limited to one role
+    public List<Long> search(String query, User.Role role) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        
+        Set<Long> candidates = null;
+        for (String term : terms) {
+            Set<Long> matches = new HashSet<>(term.length() >= GRAM ? gramCandidates(term) : prefixCandidates(term));
+            // Ids are not in the postings; a term naming a member id matches that member at any length
+            Document byId = isDigits(term) ? documents.get(Long.valueOf(term)) : null;
+            if (byId != null) {
+                matches.add(byId.id());
+            }
+            if (candidates == null) {
+                candidates = matches;
+            } else {
+                candidates.retainAll(matches);
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+        }
+        
+        // Postings only narrow the field; score each candidate against the real text
+        List<Hit> hits = new ArrayList<>();
+        for (Long id : candidates) {
+            Document document = documents.get(id);
+            if (document == null || (role != null && document.role() != role)) {
+                continue;
+            }
+            int score = 0;
+            for (String term : terms) {
+                int termScore = document.score(term);
+                if (termScore == 0) {
+                    score = 0;
+                    break;
+                }
+                score += termScore;
+            }
+            if (score > 0) {
+                hits.add(new Hit(document, score));
+            }
+        }
+        hits.sort(Comparator.comparingInt(Hit::score).reversed()
+            .thenComparing(hit -> hit.document().username()));
+        return hits.stream().map(hit -> hit.document().id()).toList();
+    }
+    
+    private synchronized void put(MemberIndexEntry entry) {
+        remove(entry.id());
+        Document document = Document.of(entry);
+        documents.put(document.id(), document);
+        for (String gram : document.grams()) {
+            grams.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(document.id());
+        }
+        for (String token : document.tokens()) {
+            tokens.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(document.id());
+        }
+    }
+    
+    private synchronized void putUnlessChanged(MemberIndexEntry entry) {
+        Set<Long> changed = changedDuringRebuild;
+        if (changed == null || !changed.contains(entry.id())) {
+            put(entry);
+        }
+    }
+    
+    private synchronized void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            unlink(grams, gram, id);
+        }
+        for (String token : document.tokens()) {
+            unlink(tokens, token, id);
+        }
+    }
+    
+    private static void unlink(Map<String, Set<Long>> postings, String key, Long id) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+    
+    // Intersect the postings of every trigram in the term, smallest first
+    private Set<Long> gramCandidates(String term) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : gramsOf(term)) {
+            Set<Long> ids = grams.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+    
+    // Union of the ids behind every token starting with the term
+    private Set<Long> prefixCandidates(String term) {
+        Set<Long> result = new HashSet<>();
+        tokens.subMap(term, true, term + Character.MAX_VALUE, false).values().forEach(result::addAll);
+        return result;
+    }
+    
+    private static List<String> terms(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : normalize(query).split("\\s+")) {
+            // Phone numbers are indexed as bare digits
+            if (term.matches("[0-9()+.-]*[0-9][0-9()+.-]*")) {
+                term = term.replaceAll("\\D", "");
+            }
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+    
+    private static Set<String> gramsOf(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+        return result;
+    }
+    
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static boolean isDigits(String text) {
+        return text.length() <= 18 && text.chars().allMatch(Character::isDigit);
+    }
+    
+    private record Hit(Document document, int score) {
+    }
+    
+    // Normalized copy of one user's searchable fields
+    private record Document(Long id, String idText, String username, String fullName, String email, String phone,
+                            User.Role role) {
+        
+        static Document of(MemberIndexEntry entry) {
+            String phoneDigits = entry.phone() == null ? "" : entry.phone().replaceAll("\\D", "");
+            return new Document(entry.id(), String.valueOf(entry.id()), normalize(entry.username()),
+                normalize(entry.fullName()), normalize(entry.email()), phoneDigits, entry.role());
+        }
+        
+        Set<String> grams() {
+            Set<String> result = new HashSet<>();
+            for (String field : List.of(username, fullName, email, phone)) {
+                result.addAll(gramsOf(field));
+            }
+            return result;
+        }
+        
+        // Words of the name and username, the email address and its local-part pieces, the phone digits
+        Set<String> tokens() {
+            Set<String> result = new HashSet<>();
+            for (String field : List.of(username, fullName, email)) {
+                for (String token : field.split("[^\\p{L}\\p{N}]+")) {
+                    if (!token.isEmpty()) {
+                        result.add(token);
+                    }
+                }
+            }
+            result.add(username);
+            result.add(email);
+            if (!phone.isEmpty()) {
+                result.add(phone);
+            }
+            return result;
+        }
+        
+        int score(String term) {
+            if (username.equals(term) || idText.equals(term)) {
+                return 100;
+            }
+            if (username.startsWith(term)) {
+                return 60;
+            }
+            if (wordStartsWith(fullName, term)) {
+                return 50;
+            }
+            if (email.startsWith(term) || (!phone.isEmpty() && phone.startsWith(term))) {
+                return 40;
+            }
+            if (wordStartsWith(username, term) || wordStartsWith(email, term)) {
+                return 30;
+            }
+            if (term.length() < GRAM) {
+                return 0;
+            }
+            if (username.contains(term) || fullName.contains(term)) {
+                return 20;
+            }
+            if (email.contains(term) || phone.contains(term)) {
+                return 10;
+            }
+            return 0;
+        }
+        
+        private static boolean wordStartsWith(String field, String term) {
+            for (String word : field.split("[^\\p{L}\\p{N}]+")) {
+                if (word.startsWith(term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
\ No newline at end of file
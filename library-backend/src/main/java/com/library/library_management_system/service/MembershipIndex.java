@@ -0,0 +1,171 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.config.Bulkhead;
+import com.library.library_management_system.dto.MemberIndexEntry;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.event.MemberChangedEvent;
+import com.library.library_management_system.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Membership end date and type of every user in primitive user id -> long maps, so borrow
+// and reserve check validity and pick the loan policy in O(1) without loading the user row.
+// Admins never expire.
+// Built from the users table on startup and kept current from MemberChangedEvent after commit.
+@Service
+public class MembershipIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(MembershipIndex.class);
+    
+    private static final long NO_END_DATE = Long.MIN_VALUE;
+    
+    private static final long NEVER_EXPIRES = Long.MAX_VALUE;
+    
+    private static final long NO_MEMBERSHIP_TYPE = -1;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${library.membership.index.batch-size:10000}")
+    private int batchSize;
+    
+    @Value("${library.membership.index.expected-users:100000}")
+    private int expectedUsers;
+    
+    private LongLongHashMap endDates;
+    
+    private LongLongHashMap membershipTypes;
+    
+    private volatile boolean ready;
+    
+    private volatile Set<Long> changedDuringRebuild;
+    
+    @PostConstruct
+    void init() {
+        endDates = new LongLongHashMap(expectedUsers);
+        membershipTypes = new LongLongHashMap(expectedUsers);
+        Gauge.builder("library.membership_index.users", endDates, LongLongHashMap::size).register(meterRegistry);
+    }
+    
+    // Load the index once the application is up, on the reporting pool so it can't hold up traffic
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Bulkhead.REPORTING.run(this::rebuild);
+    }
+    
+    // Reload every user in id order, one read-only batch at a time. Users changed by events
+    // during the reload keep the event's version.
+    public void rebuild() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        
+        long started = System.nanoTime();
+        long afterId = 0;
+        int loaded = 0;
+        changedDuringRebuild = ConcurrentHashMap.newKeySet();
+        while (true) {
+            long cursor = afterId;
+            List<MemberIndexEntry> batch = transactionTemplate.execute(status ->
+                userRepository.findIndexEntriesAfter(cursor, PageRequest.of(0, batchSize)));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            for (MemberIndexEntry entry : batch) {
+                putUnlessChanged(entry);
+            }
+            loaded += batch.size();
+            afterId = batch.get(batch.size() - 1).id();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        changedDuringRebuild = null;
+        ready = true;
+        log.info("Membership index loaded {} users in {} ms", loaded, (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        Set<Long> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.add(event.userId());
+        }
+        if (event.member() != null) {
+            put(event.member());
+        } else {
+            endDates.remove(event.userId());
+            membershipTypes.remove(event.userId());
+        }
+    }
+    
+    // True once the startup load has finished
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // True once loaded and the user is known, i.e. isValid can answer for them
+    public boolean contains(Long userId) {
+        return ready && userId != null && endDates.containsKey(userId);
+    }
+    
+    // Same rule as UserService.isMembershipValid(User); only meaningful when contains(userId)
+    public boolean isValid(Long userId) {
+        long end = endDates.get(userId, NO_END_DATE);
+        return end != NO_END_DATE && end > System.currentTimeMillis();
+    }
+    
+    // Only meaningful when contains(userId); null for users without a membership type
+    public User.MembershipType membershipType(Long userId) {
+        long ordinal = membershipTypes.get(userId, NO_MEMBERSHIP_TYPE);
+        return ordinal == NO_MEMBERSHIP_TYPE ? null : User.MembershipType.values()[(int) ordinal];
+    }
+    
+    private synchronized void putUnlessChanged(MemberIndexEntry entry) {
+        Set<Long> changed = changedDuringRebuild;
+        if (changed == null || !changed.contains(entry.id())) {
+            put(entry);
+        }
+    }
+    
+    private synchronized void put(MemberIndexEntry entry) {
+        membershipTypes.put(entry.id(), entry.membershipType() == null ? NO_MEMBERSHIP_TYPE : entry.membershipType().ordinal());
+        endDates.put(entry.id(), endMillis(entry.role(), entry.membershipEndDate()));
+    }
+    
+    private static long endMillis(User.Role role, LocalDateTime membershipEndDate) {
+        if (role == User.Role.ADMIN) {
+            return NEVER_EXPIRES;
+        }
+        if (membershipEndDate == null) {
+            return NO_END_DATE;
+        }
+        return membershipEndDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
\ No newline at end of file
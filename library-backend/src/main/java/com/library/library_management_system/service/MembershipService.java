@@ -0,0 +1,98 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.config.Bulkhead;
+import com.library.library_management_system.dto.MemberIndexEntry;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.event.MemberChangedEvent;
+import com.library.library_management_system.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Membership work over many members at once: the scheduled expiry flagging and bulk renewal
+// campaigns. Both run in batches that commit on their own, like the transaction archiver.
+@Service
+@Timed("library.service")
+public class MembershipService {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${library.membership.batch-size:500}")
+    private int batchSize;
+    
+    // Periodic expiry run, on the reporting bulkhead's connection pool
+    @Scheduled(cron = "${library.membership.expiry-cron:0 */15 * * * *}")
+    public void scheduledExpiry() {
+        Bulkhead.REPORTING.run(this::flagExpiredMemberships);
+    }
+    
+    // Flag every member whose end date has passed since the last run
+    public int flagExpiredMemberships() {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        int flagged = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Long> ids = userRepository.findNewlyExpiredMemberIds(now, PageRequest.of(0, batchSize));
+                return ids.isEmpty() ? 0 : userRepository.flagMembershipsExpired(ids);
+            });
+            if (batch == null || batch == 0) {
+                break;
+            }
+            flagged += batch;
+            if (batch < batchSize) {
+                break;
+            }
+        }
+        return flagged;
+    }
+    
+    // Extend many memberships by the same number of months; unknown ids are skipped.
+    // Updates go out as JDBC batches and each chunk commits on its own.
+    public int extendMemberships(List<Long> userIds, int months) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        int extended = 0;
+        for (int from = 0; from < userIds.size(); from += batchSize) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + batchSize, userIds.size()));
+            Integer count = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<User> users = userRepository.findAllById(chunk);
+                for (User user : users) {
+                    extend(user, months, now);
+                    eventPublisher.publishEvent(new MemberChangedEvent(user.getId(), MemberIndexEntry.of(user)));
+                }
+                return users.size();
+            });
+            extended += count == null ? 0 : count;
+        }
+        return extended;
+    }
+    
+    // Push the end date out from where it is now (or from today when there is none)
+    static void extend(User user, int months, LocalDateTime now) {
+        if (user.getMembershipEndDate() != null) {
+            user.setMembershipEndDate(user.getMembershipEndDate().plusMonths(months));
+        } else {
+            user.setMembershipEndDate(now.plusMonths(months));
+        }
+        user.setMembershipExpired(!user.getMembershipEndDate().isAfter(now));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.LibraryException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs password hashing on a small dedicated pool. A bcrypt check costs tens of milliseconds
+// of CPU, so a login storm on request threads would starve checkouts; here it waits in a
+// bounded queue instead, and once that is full or a hash waits too long the login gets a 503.
+@Service
+public class PasswordHashingService {
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${library.security.hashing.threads:4}")
+    private int threads;
+    
+    @Value("${library.security.hashing.max-queued:64}")
+    private int maxQueued;
+    
+    @Value("${library.security.hashing.max-wait-ms:2000}")
+    private long maxWaitMillis;
+    
+    private ThreadPoolExecutor executor;
+    
+    private String unknownUserHash;
+    
+    private Counter rejectedQueueFull;
+    
+    private Counter rejectedTimeout;
+    
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueued), runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        unknownUserHash = passwordEncoder.encode("unknown-user");
+        
+        Gauge.builder("library.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("library.hashing.queued", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        rejectedQueueFull = Counter.builder("library.hashing.rejected")
+            .tag("reason", "queue_full").register(meterRegistry);
+        rejectedTimeout = Counter.builder("library.hashing.rejected")
+            .tag("reason", "timeout").register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    // Hash a new password
+    public String encode(String rawPassword) {
+        return call(() -> passwordEncoder.encode(rawPassword));
+    }
+    
+    // Check a password against its stored hash (or legacy plaintext)
+    public boolean matches(String rawPassword, String storedPassword) {
+        return call(() -> passwordEncoder.matches(rawPassword, storedPassword));
+    }
+    
+    // Spend the time of a real check when the username does not exist, so it doesn't stand out
+    public boolean matchesUnknownUser(String rawPassword) {
+        matches(rawPassword, unknownUserHash);
+        return false;
+    }
+    
+    // Plaintext rows and hashes weaker than the current settings get rehashed on login
+    public boolean needsUpgrade(String storedPassword) {
+        return passwordEncoder.upgradeEncoding(storedPassword);
+    }
+    
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.increment();
+            throw new LibraryException(ErrorCode.AUTHENTICATION_BUSY);
+        }
+        
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedTimeout.increment();
+            throw new LibraryException(ErrorCode.AUTHENTICATION_BUSY);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LibraryException(ErrorCode.AUTHENTICATION_BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
\ No newline at end of file
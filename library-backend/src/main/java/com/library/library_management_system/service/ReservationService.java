@@ -1,10 +1,22 @@
 package com.library.library_management_system.service;
 
+import com.library.library_management_system.dto.HoldSummary;
+import com.library.library_management_system.dto.MemberClaims;
 import com.library.library_management_system.entity.Reservation;
 import com.library.library_management_system.entity.User;
 import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.LoanPolicy;
+import com.library.library_management_system.event.HoldReadyEvent;
+import com.library.library_management_system.event.QueuePositionChangedEvent;
+import com.library.library_management_system.event.ReservationQueueChangedEvent;
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.NotFoundException;
+import com.library.library_management_system.exception.RuleViolationException;
 import com.library.library_management_system.repository.ReservationRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,6 +25,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("library.service")
 @Transactional
 public class ReservationService {
     
@@ -22,38 +35,65 @@ public class ReservationService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private MembershipIndex membershipIndex;
+    
+    @Autowired
+    private LoanPolicyService loanPolicyService;
+    
     @Autowired
     private BookService bookService;
     
-    private static final int MAX_RESERVATIONS_PER_USER = 5;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     // Create a reservation
     public Reservation createReservation(Long userId, Long bookId) {
+        // Known users are checked against the membership index without loading the row
+        if (membershipIndex.contains(userId)) {
+            return createReservation(userService.getReference(userId), membershipIndex.isValid(userId),
+                membershipIndex.membershipType(userId), bookId);
+        }
         User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
         
+        return createReservation(user, userService.isMembershipValid(user), user.getMembershipType(), bookId);
+    }
+    
+    // Create a reservation for the member in a verified access token, without reloading the user
+    public Reservation createReservation(MemberClaims member, Long bookId) {
+        return createReservation(userService.getReference(member.userId()), userService.isMembershipValid(member),
+            userService.getMembershipType(member), bookId);
+    }
+    
+    private Reservation createReservation(User user, boolean membershipValid, User.MembershipType membershipType,
+                                          Long bookId) {
         Book book = bookService.findById(bookId)
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.BOOK_NOT_FOUND));
+        LoanPolicy.Rule rule = loanPolicyService.rule(membershipType, book.getCategory());
         
         // Check if user membership is valid
-        if (!userService.isMembershipValid(user)) {
-            throw new RuntimeException("User membership has expired");
+        if (!membershipValid) {
+            throw rejectReservation("expired", ErrorCode.MEMBERSHIP_EXPIRED);
         }
         
         // Check if user has reached reservation limit
         Long activeReservations = reservationRepository.countActiveReservationsByUser(user);
-        if (activeReservations >= MAX_RESERVATIONS_PER_USER) {
-            throw new RuntimeException("User has reached maximum reservation limit");
+        if (activeReservations >= rule.maxReservations()) {
+            throw rejectReservation("limit", ErrorCode.RESERVATION_LIMIT_REACHED);
         }
         
         // Check if user has already reserved this book
         if (reservationRepository.hasUserReservedBook(user, book)) {
-            throw new RuntimeException("User has already reserved this book");
+            throw rejectReservation("duplicate", ErrorCode.ALREADY_RESERVED);
         }
         
         // Check if book is currently available (shouldn't reserve available books)
         if (bookService.isBookAvailable(bookId)) {
-            throw new RuntimeException("Book is currently available. Please borrow it directly.");
+            throw rejectReservation("available", ErrorCode.BOOK_AVAILABLE);
         }
         
         // Create reservation
@@ -64,60 +104,90 @@ public class ReservationService {
         Integer queuePosition = reservationRepository.calculateQueuePosition(book, reservationDate);
         reservation.setQueuePosition(queuePosition);
         
-        return reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+        eventPublisher.publishEvent(new ReservationQueueChangedEvent(book.getId()));
+        return saved;
+    }
+    
+    // Count a rejected reservation by reason (library.reservation.rejected)
+    private RuleViolationException rejectReservation(String reason, ErrorCode code) {
+        meterRegistry.counter("library.reservation.rejected", "reason", reason).increment();
+        return new RuleViolationException(code);
     }
     
     // Cancel a reservation
     public Reservation cancelReservation(Long reservationId) {
         Reservation reservation = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new RuntimeException("Reservation not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.RESERVATION_NOT_FOUND));
         
         reservation.cancel();
         
         // Update queue positions for remaining reservations
         updateQueuePositionsAfterCancellation(reservation.getBook(), reservation.getQueuePosition());
+        eventPublisher.publishEvent(new ReservationQueueChangedEvent(reservation.getBook().getId()));
         
         return reservationRepository.save(reservation);
     }
     
+    // Give up an open hold of a deleted user: later holds move up, and a copy that was
+    // waiting for pickup goes to the next member in line
+    public void releaseReservation(Long reservationId) {
+        Reservation reservation = reservationRepository.findById(reservationId).orElse(null);
+        if (reservation == null || (reservation.getStatus() != Reservation.ReservationStatus.ACTIVE
+                && reservation.getStatus() != Reservation.ReservationStatus.AVAILABLE)) {
+            return;
+        }
+        boolean heldCopy = reservation.getStatus() == Reservation.ReservationStatus.AVAILABLE;
+        Long bookId = reservation.getBook().getId();
+        cancelReservation(reservationId);
+        if (heldCopy && bookService.findById(bookId).isPresent()) {
+            processBookReturn(bookId);
+        }
+    }
+    
     // Fulfill a reservation (when user picks up the book)
     public Reservation fulfillReservation(Long reservationId) {
         Reservation reservation = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new RuntimeException("Reservation not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.RESERVATION_NOT_FOUND));
         
         if (reservation.getStatus() != Reservation.ReservationStatus.AVAILABLE) {
-            throw new RuntimeException("Reservation is not available for pickup");
+            throw new RuleViolationException(ErrorCode.RESERVATION_NOT_READY);
         }
         
         reservation.markAsFulfilled();
+        eventPublisher.publishEvent(new ReservationQueueChangedEvent(reservation.getBook().getId()));
         return reservationRepository.save(reservation);
     }
     
     // Get user's reservations
+    @Transactional(readOnly = true)
     public List<Reservation> getUserReservations(Long userId) {
         User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
         
         return reservationRepository.findByUser(user);
     }
     
     // Get user's active reservations
+    @Transactional(readOnly = true)
     public List<Reservation> getUserActiveReservations(Long userId) {
         User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
         
         return reservationRepository.findActiveReservationsByUser(user);
     }
     
     // Get all reservations
+    @Transactional(readOnly = true)
     public List<Reservation> getAllReservations() {
         return reservationRepository.findAll();
     }
     
     // Get reservations for a specific book
+    @Transactional(readOnly = true)
     public List<Reservation> getBookReservations(Long bookId) {
         Book book = bookService.findById(bookId)
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.BOOK_NOT_FOUND));
         
         return reservationRepository.findActiveReservationsByBook(book);
     }
@@ -125,7 +195,7 @@ public class ReservationService {
     // Process book return and notify next reservation
     public void processBookReturn(Long bookId) {
         Book book = bookService.findById(bookId)
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.BOOK_NOT_FOUND));
         
         // Find next reservation in queue
         Reservation nextReservation = reservationRepository.findNextReservationInQueue(book);
@@ -134,6 +204,9 @@ public class ReservationService {
             // Mark reservation as available for pickup
             nextReservation.markAsAvailable();
             reservationRepository.save(nextReservation);
+            eventPublisher.publishEvent(new ReservationQueueChangedEvent(book.getId()));
+            eventPublisher.publishEvent(new HoldReadyEvent(nextReservation.getUser().getId(), nextReservation.getId(),
+                book.getId(), book.getTitle(), nextReservation.getExpiryDate()));
             
             // Send notification (you can implement email/SMS service here)
             sendNotification(nextReservation);
@@ -151,11 +224,13 @@ public class ReservationService {
     }
     
     // Get expired reservations
+    @Transactional(readOnly = true)
     public List<Reservation> getExpiredReservations() {
         return reservationRepository.findExpiredReservations(LocalDate.now());
     }
     
     // Get reservations needing notification
+    @Transactional(readOnly = true)
     public List<Reservation> getReservationsNeedingNotification() {
         return reservationRepository.findReservationsNeedingNotification();
     }
@@ -170,6 +245,7 @@ public class ReservationService {
             
             // Update queue positions for remaining reservations
             updateQueuePositionsAfterCancellation(reservation.getBook(), reservation.getQueuePosition());
+            eventPublisher.publishEvent(new ReservationQueueChangedEvent(reservation.getBook().getId()));
         }
     }
     
@@ -181,6 +257,8 @@ public class ReservationService {
             if (reservation.getQueuePosition() > removedPosition) {
                 reservation.setQueuePosition(reservation.getQueuePosition() - 1);
                 reservationRepository.save(reservation);
+                eventPublisher.publishEvent(new QueuePositionChangedEvent(reservation.getUser().getId(),
+                    reservation.getId(), book.getId(), reservation.getQueuePosition()));
             }
         }
     }
@@ -195,6 +273,7 @@ public class ReservationService {
     }
     
     // Get reservations expiring soon
+    @Transactional(readOnly = true)
     public List<Reservation> getReservationsExpiringSoon(int days) {
         LocalDate today = LocalDate.now();
         LocalDate endDate = today.plusDays(days);
@@ -202,12 +281,32 @@ public class ReservationService {
     }
     
     // Find reservation by ID
+    @Transactional(readOnly = true)
     public Optional<Reservation> findById(Long id) {
         return reservationRepository.findById(id);
     }
     
     // Get reservations by status
+    @Transactional(readOnly = true)
     public List<Reservation> getReservationsByStatus(Reservation.ReservationStatus status) {
         return reservationRepository.findByStatus(status);
     }
+    
+    // Get hold summaries for list views
+    @Transactional(readOnly = true)
+    public List<HoldSummary> getHoldSummaries() {
+        return reservationRepository.findAllHoldSummaries();
+    }
+    
+    // Get summaries of a user's reservations
+    @Transactional(readOnly = true)
+    public List<HoldSummary> getUserHoldSummaries(Long userId) {
+        return reservationRepository.findHoldSummariesByUserId(userId);
+    }
+    
+    // Get the reservation queue for a book as summaries
+    @Transactional(readOnly = true)
+    public List<HoldSummary> getHoldQueueSummaries(Long bookId) {
+        return reservationRepository.findActiveHoldSummariesByBookId(bookId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.dto.MemberClaims;
+import com.library.library_management_system.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+// Issues and reads the HMAC-signed access tokens handed out at login. A token carries the
+// user id (subject), username, role and membership expiry, so later requests are checked
+// and authorized without touching the users table. Claims are fixed at issue time: a
+// membership extension shows up in the next token.
+@Service
+public class TokenService {
+    
+    public static final String ISSUER = "library-management-system";
+    
+    @Autowired
+    private JwtEncoder jwtEncoder;
+    
+    @Value("${library.security.token.ttl:PT1H}")
+    private Duration ttl;
+    
+    // Sign a token for a freshly authenticated user
+    public IssuedToken issueToken(User user) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
+            .issuer(ISSUER)
+            .issuedAt(now)
+            .expiresAt(expiresAt)
+            .subject(String.valueOf(user.getId()))
+            .claim("username", user.getUsername())
+            .claim("role", user.getRole().name());
+        if (user.getMembershipType() != null) {
+            claims.claim("membership_type", user.getMembershipType().name());
+        }
+        if (user.getMembershipEndDate() != null) {
+            claims.claim("membership_end", user.getMembershipEndDate().toString());
+        }
+        
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        String value = jwtEncoder.encode(JwtEncoderParameters.from(header, claims.build())).getTokenValue();
+        return new IssuedToken(value, expiresAt);
+    }
+    
+    // Read the member claims back out of a token the resource server has already verified
+    public MemberClaims claims(Jwt token) {
+        String membershipType = token.getClaimAsString("membership_type");
+        String membershipEnd = token.getClaimAsString("membership_end");
+        return new MemberClaims(
+            Long.valueOf(token.getSubject()),
+            token.getClaimAsString("username"),
+            User.Role.valueOf(token.getClaimAsString("role")),
+            membershipType != null ? User.MembershipType.valueOf(membershipType) : null,
+            membershipEnd != null ? LocalDateTime.parse(membershipEnd) : null);
+    }
+    
+    // Claims of the caller when they act for themselves; null for anonymous calls and for
+    // staff acting on behalf of another member, which fall back to loading that member
+    public MemberClaims claimsFor(Jwt token, Long requestedUserId) {
+        if (token == null) {
+            return null;
+        }
+        MemberClaims claims = claims(token);
+        return requestedUserId == null || requestedUserId.equals(claims.userId()) ? claims : null;
+    }
+    
+    public record IssuedToken(String value, Instant expiresAt) {
+    }
+}
\ No newline at end of file
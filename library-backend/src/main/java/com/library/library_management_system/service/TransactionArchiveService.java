@@ -0,0 +1,74 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.config.Bulkhead;
+import com.library.library_management_system.repository.BorrowTransactionArchiveRepository;
+import com.library.library_management_system.repository.BorrowTransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Timed("library.service")
+public class TransactionArchiveService {
+    
+    @Autowired
+    private BorrowTransactionRepository borrowTransactionRepository;
+    
+    @Autowired
+    private BorrowTransactionArchiveRepository borrowTransactionArchiveRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${library.archive.retention-days:365}")
+    private int retentionDays;
+    
+    @Value("${library.archive.batch-size:500}")
+    private int batchSize;
+    
+    // Nightly archival run, on the reporting bulkhead's connection pool
+    @Scheduled(cron = "${library.archive.cron:0 30 2 * * *}")
+    public void scheduledArchive() {
+        Bulkhead.REPORTING.run(this::archiveReturnedTransactions);
+    }
+    
+    // Move settled, returned transactions older than the retention window into the archive.
+    // Each batch commits on its own so row locks are only held for one batch at a time.
+    public int archiveReturnedTransactions() {
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        int archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        return archived;
+    }
+    
+    private int archiveBatch(LocalDate cutoff) {
+        List<Long> ids = borrowTransactionRepository.findArchivableTransactionIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        
+        borrowTransactionArchiveRepository.copyFromBorrowTransactions(ids, LocalDateTime.now());
+        borrowTransactionRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+}
\ No newline at end of file
@@ -1,29 +1,61 @@
 package com.library.library_management_system.service;
 
+import com.library.library_management_system.dto.MemberClaims;
+import com.library.library_management_system.dto.MemberIndexEntry;
 import com.library.library_management_system.entity.User;
+import com.library.library_management_system.event.MemberChangedEvent;
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.NotFoundException;
+import com.library.library_management_system.exception.RuleViolationException;
 import com.library.library_management_system.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("library.service")
 @Transactional
 public class UserService {
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    private MemberSearchIndex memberSearchIndex;
+    
+    @Autowired
+    private MembershipIndex membershipIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public User createUser(User user) {
+        // Hash before the first query so no connection is held while bcrypt runs
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
+        
         if (userRepository.existsByUsername(user.getUsername())) {
-            throw new RuntimeException("Username already exists");
+            throw new RuleViolationException(ErrorCode.USERNAME_TAKEN);
         }
         
         if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email already exists");
+            throw new RuleViolationException(ErrorCode.EMAIL_TAKEN);
         }
         
         if (user.getRole() == User.Role.MEMBER) {
@@ -31,36 +63,88 @@ public class UserService {
             user.setMembershipEndDate(LocalDateTime.now().plusYears(1));
         }
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        publishMemberChange(saved);
+        return saved;
     }
     
+    // Runs outside a transaction so no connection is held while the hash is checked. A
+    // plaintext or outdated hash is replaced once the password has been verified.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<User> authenticateUser(String username, String password) {
         Optional<User> user = userRepository.findByUsername(username);
-        if (user.isPresent() && password.equals(user.get().getPassword())) {
-            return user;
+        if (user.isEmpty()) {
+            passwordHashingService.matchesUnknownUser(password);
+            return Optional.empty();
         }
-        return Optional.empty();
+        
+        String storedPassword = user.get().getPassword();
+        if (!passwordHashingService.matches(password, storedPassword)) {
+            return Optional.empty();
+        }
+        if (passwordHashingService.needsUpgrade(storedPassword)) {
+            String upgraded = passwordHashingService.encode(password);
+            userRepository.updatePassword(user.get().getId(), upgraded);
+            user.get().setPassword(upgraded);
+        }
+        return user;
     }
     
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
     
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
     
+    // Find a user even when it is tombstoned and waiting for the purge job
+    @Transactional(readOnly = true)
+    public Optional<User> findByIdIncludingDeleted(Long id) {
+        return userRepository.findByIdIncludingDeleted(id);
+    }
+    
+    // A lazy reference for callers that already know the user from verified token claims
+    public User getReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+    
+    @Transactional(readOnly = true)
     public List<User> getAllMembers() {
         return userRepository.findAllMembers();
     }
     
-    public List<User> searchUsers(String searchTerm) {
-        return userRepository.findByFullNameContainingOrUsernameContaining(searchTerm);
+    // Ranked page of matches from the in-memory index; falls back to a LIKE scan while the
+    // index is still loading after startup
+    @Transactional(readOnly = true)
+    public Page<User> searchUsers(String searchTerm, User.Role role, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        if (!memberSearchIndex.isReady()) {
+            List<User> matches = userRepository.findByFullNameContainingOrUsernameContaining(searchTerm).stream()
+                .filter(user -> role == null || user.getRole() == role)
+                .toList();
+            int from = Math.min((int) pageRequest.getOffset(), matches.size());
+            int to = Math.min(from + size, matches.size());
+            return new PageImpl<>(matches.subList(from, to), pageRequest, matches.size());
+        }
+        
+        List<Long> ranked = memberSearchIndex.search(searchTerm, role);
+        int from = Math.min((int) pageRequest.getOffset(), ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        List<Long> ids = ranked.subList(from, to);
+        
+        // Rows come back in id order from the (second-level cached) lookup; restore the ranking
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<User> content = ids.stream().map(users::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(content, pageRequest, ranked.size());
     }
     
     public User updateUser(Long id, User userDetails) {
         User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
         
         user.setFullName(userDetails.getFullName());
         user.setEmail(userDetails.getEmail());
@@ -68,14 +152,60 @@ public class UserService {
         user.setAddress(userDetails.getAddress());
         user.setMembershipType(userDetails.getMembershipType());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        publishMemberChange(saved);
+        return saved;
     }
     
+    // Tombstone the user; DeletionPurgeService removes their loans and reservations later
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found");
+        if (userRepository.markDeleted(id, LocalDateTime.now()) == 0) {
+            throw new NotFoundException(ErrorCode.USER_NOT_FOUND);
+        }
+        eventPublisher.publishEvent(new MemberChangedEvent(id, null));
+    }
+    
+    // O(1) from the membership index when it knows the user, otherwise from the row
+    @Transactional(readOnly = true)
+    public boolean isMembershipValid(Long userId) {
+        if (membershipIndex.contains(userId)) {
+            return membershipIndex.isValid(userId);
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
+        return isMembershipValid(user);
+    }
+    
+    // Token claims carry the end date from when the token was issued; the index also sees renewals since
+    public boolean isMembershipValid(MemberClaims member) {
+        if (membershipIndex.contains(member.userId())) {
+            return membershipIndex.isValid(member.userId());
+        }
+        // A loaded index knows every live user, so a miss means the user was deleted after the token was issued
+        if (membershipIndex.isReady()) {
+            return isMembershipValid(member.userId());
         }
-        userRepository.deleteById(id);
+        return member.isMembershipValid();
+    }
+    
+    // Membership type from the index when it knows the user, otherwise from the row.
+    // Null for deleted users, whose remaining loans fall under the default policy.
+    @Transactional(readOnly = true)
+    public User.MembershipType getMembershipType(Long userId) {
+        if (membershipIndex.contains(userId)) {
+            return membershipIndex.membershipType(userId);
+        }
+        return userRepository.findById(userId)
+                .map(User::getMembershipType)
+                .orElse(null);
+    }
+    
+    // Token claims carry the membership type from when the token was issued; the index also sees changes since
+    public User.MembershipType getMembershipType(MemberClaims member) {
+        if (membershipIndex.contains(member.userId())) {
+            return membershipIndex.membershipType(member.userId());
+        }
+        return member.membershipType();
     }
     
     public boolean isMembershipValid(User user) {
@@ -88,18 +218,22 @@ public class UserService {
     
     public User extendMembership(Long userId, int months) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
         
-        if (user.getMembershipEndDate() != null) {
-            user.setMembershipEndDate(user.getMembershipEndDate().plusMonths(months));
-        } else {
-            user.setMembershipEndDate(LocalDateTime.now().plusMonths(months));
-        }
+        MembershipService.extend(user, months, LocalDateTime.now());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        publishMemberChange(saved);
+        return saved;
     }
     
+    @Transactional(readOnly = true)
     public List<User> getUsersWithExpiredMembership() {
         return userRepository.findUsersWithExpiredMembership();
     }
+    
+    // Keep the member search and membership indexes in step once the change commits
+    private void publishMemberChange(User user) {
+        eventPublisher.publishEvent(new MemberChangedEvent(user.getId(), MemberIndexEntry.of(user)));
+    }
 }
\ No newline at end of file
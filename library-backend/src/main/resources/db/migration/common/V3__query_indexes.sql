@@ -0,0 +1,31 @@
+-- Secondary indexes for the repository queries. Leading columns follow the
+-- equality predicates; IS NULL counts as equality, so (return_date, due_date)
+-- serves the "not returned and due before/between" scans.
+
+-- borrow_transactions
+CREATE INDEX idx_bt_user_return_book ON borrow_transactions (user_id, return_date, book_id);
+CREATE INDEX idx_bt_user_borrow_date ON borrow_transactions (user_id, borrow_date);
+CREATE INDEX idx_bt_return_due ON borrow_transactions (return_date, due_date);
+CREATE INDEX idx_bt_borrow_date ON borrow_transactions (borrow_date);
+CREATE INDEX idx_bt_status_return ON borrow_transactions (status, return_date);
+CREATE INDEX idx_bt_fine_amount_paid ON borrow_transactions (fine_amount, fine_paid);
+
+-- reservations
+CREATE INDEX idx_res_book_status_queue ON reservations (book_id, status, queue_position);
+CREATE INDEX idx_res_user_status_book ON reservations (user_id, status, book_id);
+CREATE INDEX idx_res_status_notification ON reservations (status, notification_sent);
+CREATE INDEX idx_res_status_expiry ON reservations (status, expiry_date);
+
+-- books
+CREATE INDEX idx_books_status_available ON books (status, available_copies);
+CREATE INDEX idx_books_category ON books (category);
+CREATE INDEX idx_books_author ON books (author);
+CREATE INDEX idx_books_publication_year ON books (publication_year);
+
+-- users
+CREATE INDEX idx_users_role_membership_end ON users (role, membership_end_date);
+CREATE INDEX idx_users_membership_type ON users (membership_type);
+
+-- borrow_transactions_archive
+CREATE INDEX idx_bta_user_borrow_date ON borrow_transactions_archive (user_id, borrow_date);
+CREATE INDEX idx_bta_borrow_date ON borrow_transactions_archive (borrow_date);
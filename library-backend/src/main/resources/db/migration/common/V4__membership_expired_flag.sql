@@ -0,0 +1,8 @@
+-- Flag set in bulk by the membership expiry job, so the expired-members list reads
+-- an index instead of comparing every member's end date.
+ALTER TABLE users ADD COLUMN membership_expired BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE users SET membership_expired = TRUE
+WHERE role = 'MEMBER' AND membership_end_date < CURRENT_TIMESTAMP;
+
+CREATE INDEX idx_users_role_expired ON users (role, membership_expired);
@@ -0,0 +1,79 @@
+-- H2 equivalent of the MySQL baseline schema, used by the test profile.
+
+CREATE TABLE users (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  address VARCHAR(255),
+  created_at TIMESTAMP(6),
+  email VARCHAR(255) NOT NULL,
+  full_name VARCHAR(255) NOT NULL,
+  membership_end_date TIMESTAMP(6),
+  membership_start_date TIMESTAMP(6),
+  membership_type ENUM('PREMIUM','STANDARD','STUDENT'),
+  password VARCHAR(255) NOT NULL,
+  phone VARCHAR(255),
+  role ENUM('ADMIN','MEMBER') NOT NULL,
+  updated_at TIMESTAMP(6),
+  username VARCHAR(255) NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT uk_users_email UNIQUE (email),
+  CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE books (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  author VARCHAR(255) NOT NULL,
+  available_copies INT NOT NULL,
+  category VARCHAR(255),
+  created_at TIMESTAMP(6),
+  description VARCHAR(1000),
+  isbn VARCHAR(255) NOT NULL,
+  publication_year INT,
+  publisher VARCHAR(255),
+  shelf_location VARCHAR(255),
+  status ENUM('ACTIVE','DAMAGED','INACTIVE','LOST') NOT NULL,
+  title VARCHAR(255) NOT NULL,
+  total_copies INT NOT NULL,
+  updated_at TIMESTAMP(6),
+  PRIMARY KEY (id),
+  CONSTRAINT uk_books_isbn UNIQUE (isbn)
+);
+
+CREATE TABLE borrow_transactions (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  borrow_date DATE NOT NULL,
+  created_at TIMESTAMP(6),
+  daily_fine_rate DECIMAL(5,2),
+  due_date DATE NOT NULL,
+  fine_amount DECIMAL(10,2),
+  fine_paid BOOLEAN,
+  max_fine_amount DECIMAL(10,2),
+  max_renewals INT,
+  notes VARCHAR(500),
+  renewal_count INT,
+  return_date DATE,
+  status ENUM('BORROWED','OVERDUE','RENEWED','RETURNED') NOT NULL,
+  updated_at TIMESTAMP(6),
+  book_id BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT fk_borrow_transactions_user FOREIGN KEY (user_id) REFERENCES users (id),
+  CONSTRAINT fk_borrow_transactions_book FOREIGN KEY (book_id) REFERENCES books (id)
+);
+
+CREATE TABLE reservations (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  created_at TIMESTAMP(6),
+  expiry_date DATE NOT NULL,
+  notes VARCHAR(500),
+  notification_date TIMESTAMP(6),
+  notification_sent BOOLEAN,
+  queue_position INT,
+  reservation_date DATE NOT NULL,
+  status ENUM('ACTIVE','AVAILABLE','CANCELLED','EXPIRED','FULFILLED') NOT NULL,
+  updated_at TIMESTAMP(6),
+  book_id BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT fk_reservations_user FOREIGN KEY (user_id) REFERENCES users (id),
+  CONSTRAINT fk_reservations_book FOREIGN KEY (book_id) REFERENCES books (id)
+);
@@ -0,0 +1,19 @@
+-- H2 equivalent of the archive table; row compression is MySQL-only.
+
+CREATE TABLE IF NOT EXISTS borrow_transactions_archive (
+  id BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  book_id BIGINT NOT NULL,
+  borrow_date DATE NOT NULL,
+  due_date DATE NOT NULL,
+  return_date DATE NOT NULL,
+  status ENUM('BORROWED','OVERDUE','RENEWED','RETURNED') NOT NULL,
+  renewal_count INT,
+  fine_amount DECIMAL(10,2),
+  fine_paid BOOLEAN,
+  notes VARCHAR(500),
+  created_at TIMESTAMP(6),
+  updated_at TIMESTAMP(6),
+  archived_at TIMESTAMP(6) NOT NULL,
+  PRIMARY KEY (id)
+);
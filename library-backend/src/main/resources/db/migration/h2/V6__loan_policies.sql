@@ -0,0 +1,24 @@
+-- H2 equivalent of the loan policy table.
+
+CREATE TABLE loan_policies (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  membership_type ENUM('PREMIUM','STANDARD','STUDENT'),
+  category VARCHAR(255),
+  max_loans INT NOT NULL,
+  loan_period_days INT NOT NULL,
+  max_renewals INT NOT NULL,
+  renewal_days INT NOT NULL,
+  max_reservations INT NOT NULL,
+  daily_fine_rate DECIMAL(5,2) NOT NULL,
+  max_fine_amount DECIMAL(10,2) NOT NULL,
+  updated_at TIMESTAMP(6),
+  PRIMARY KEY (id)
+);
+
+INSERT INTO loan_policies (membership_type, category, max_loans, loan_period_days, max_renewals,
+  renewal_days, max_reservations, daily_fine_rate, max_fine_amount, updated_at)
+VALUES (NULL, NULL, 3, 14, 2, 14, 5, 0.50, 20.00, CURRENT_TIMESTAMP(6));
+
+ALTER TABLE borrow_transactions DROP COLUMN daily_fine_rate;
+ALTER TABLE borrow_transactions DROP COLUMN max_fine_amount;
+ALTER TABLE borrow_transactions DROP COLUMN max_renewals;
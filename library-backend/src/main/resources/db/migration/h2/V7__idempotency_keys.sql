@@ -0,0 +1,14 @@
+-- H2 equivalent of the idempotency key table.
+
+CREATE TABLE idempotency_keys (
+  idempotency_key VARCHAR(255) NOT NULL,
+  request_hash CHAR(64) NOT NULL,
+  response_status INT,
+  content_type VARCHAR(255),
+  response_body CLOB,
+  created_at TIMESTAMP(6) NOT NULL,
+  completed_at TIMESTAMP(6),
+  PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
@@ -0,0 +1,84 @@
+-- Baseline schema as previously generated by Hibernate (ddl-auto=update).
+-- Existing databases are baselined at version 1 and skip this script.
+
+CREATE TABLE `users` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `address` varchar(255) DEFAULT NULL,
+  `created_at` datetime(6) DEFAULT NULL,
+  `email` varchar(255) NOT NULL,
+  `full_name` varchar(255) NOT NULL,
+  `membership_end_date` datetime(6) DEFAULT NULL,
+  `membership_start_date` datetime(6) DEFAULT NULL,
+  `membership_type` enum('PREMIUM','STANDARD','STUDENT') DEFAULT NULL,
+  `password` varchar(255) NOT NULL,
+  `phone` varchar(255) DEFAULT NULL,
+  `role` enum('ADMIN','MEMBER') NOT NULL,
+  `updated_at` datetime(6) DEFAULT NULL,
+  `username` varchar(255) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `UK6dotkott2kjsp8vw4d0m25fb7` (`email`),
+  UNIQUE KEY `UKr43af9ap4edm43mmtq01oddj6` (`username`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `books` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `author` varchar(255) NOT NULL,
+  `available_copies` int NOT NULL,
+  `category` varchar(255) DEFAULT NULL,
+  `created_at` datetime(6) DEFAULT NULL,
+  `description` varchar(1000) DEFAULT NULL,
+  `isbn` varchar(255) NOT NULL,
+  `publication_year` int DEFAULT NULL,
+  `publisher` varchar(255) DEFAULT NULL,
+  `shelf_location` varchar(255) DEFAULT NULL,
+  `status` enum('ACTIVE','DAMAGED','INACTIVE','LOST') NOT NULL,
+  `title` varchar(255) NOT NULL,
+  `total_copies` int NOT NULL,
+  `updated_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `UKkibbepcitr0a3cpk3rfr7nihn` (`isbn`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `borrow_transactions` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `borrow_date` date NOT NULL,
+  `created_at` datetime(6) DEFAULT NULL,
+  `daily_fine_rate` decimal(5,2) DEFAULT NULL,
+  `due_date` date NOT NULL,
+  `fine_amount` decimal(10,2) DEFAULT NULL,
+  `fine_paid` bit(1) DEFAULT NULL,
+  `max_fine_amount` decimal(10,2) DEFAULT NULL,
+  `max_renewals` int DEFAULT NULL,
+  `notes` varchar(500) DEFAULT NULL,
+  `renewal_count` int DEFAULT NULL,
+  `return_date` date DEFAULT NULL,
+  `status` enum('BORROWED','OVERDUE','RENEWED','RETURNED') NOT NULL,
+  `updated_at` datetime(6) DEFAULT NULL,
+  `book_id` bigint NOT NULL,
+  `user_id` bigint NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `FKqtcs65emvosbmm1q7n4bptwil` (`book_id`),
+  KEY `FKct9jfcshu1s6oko3tt7pnw112` (`user_id`),
+  CONSTRAINT `FKct9jfcshu1s6oko3tt7pnw112` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`),
+  CONSTRAINT `FKqtcs65emvosbmm1q7n4bptwil` FOREIGN KEY (`book_id`) REFERENCES `books` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `reservations` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `created_at` datetime(6) DEFAULT NULL,
+  `expiry_date` date NOT NULL,
+  `notes` varchar(500) DEFAULT NULL,
+  `notification_date` datetime(6) DEFAULT NULL,
+  `notification_sent` bit(1) DEFAULT NULL,
+  `queue_position` int DEFAULT NULL,
+  `reservation_date` date NOT NULL,
+  `status` enum('ACTIVE','AVAILABLE','CANCELLED','EXPIRED','FULFILLED') NOT NULL,
+  `updated_at` datetime(6) DEFAULT NULL,
+  `book_id` bigint NOT NULL,
+  `user_id` bigint NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `FKrsdd3ib3landfpmgoolccjakt` (`book_id`),
+  KEY `FKb5g9io5h54iwl2inkno50ppln` (`user_id`),
+  CONSTRAINT `FKb5g9io5h54iwl2inkno50ppln` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`),
+  CONSTRAINT `FKrsdd3ib3landfpmgoolccjakt` FOREIGN KEY (`book_id`) REFERENCES `books` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,22 @@
+-- Cold storage for settled, returned borrow transactions (see TransactionArchiveService).
+-- The table may already exist if it was created by ddl-auto before migrations took over.
+
+CREATE TABLE IF NOT EXISTS `borrow_transactions_archive` (
+  `id` bigint NOT NULL,
+  `user_id` bigint NOT NULL,
+  `book_id` bigint NOT NULL,
+  `borrow_date` date NOT NULL,
+  `due_date` date NOT NULL,
+  `return_date` date NOT NULL,
+  `status` enum('BORROWED','OVERDUE','RENEWED','RETURNED') NOT NULL,
+  `renewal_count` int DEFAULT NULL,
+  `fine_amount` decimal(10,2) DEFAULT NULL,
+  `fine_paid` bit(1) DEFAULT NULL,
+  `notes` varchar(500) DEFAULT NULL,
+  `created_at` datetime(6) DEFAULT NULL,
+  `updated_at` datetime(6) DEFAULT NULL,
+  `archived_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
+
+ALTER TABLE `borrow_transactions_archive` ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
@@ -0,0 +1,7 @@
+-- Tombstones for deleted users and books. The entities filter on deleted_at IS NULL;
+-- the purge job removes their loans and holds in batches, then the row itself.
+ALTER TABLE `users` ADD COLUMN `deleted_at` datetime(6) DEFAULT NULL;
+ALTER TABLE `books` ADD COLUMN `deleted_at` datetime(6) DEFAULT NULL;
+
+CREATE INDEX `idx_users_deleted_at` ON `users` (`deleted_at`);
+CREATE INDEX `idx_books_deleted_at` ON `books` (`deleted_at`);
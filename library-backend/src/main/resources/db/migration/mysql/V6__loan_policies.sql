@@ -0,0 +1,27 @@
+-- Lending rules per membership type and book category (see LoanPolicyService). A NULL
+-- membership type or category matches any; the NULL/NULL row is the library-wide default.
+-- The per-loan renewal and fine columns are superseded by these rules.
+
+CREATE TABLE `loan_policies` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `membership_type` enum('PREMIUM','STANDARD','STUDENT') DEFAULT NULL,
+  `category` varchar(255) DEFAULT NULL,
+  `max_loans` int NOT NULL,
+  `loan_period_days` int NOT NULL,
+  `max_renewals` int NOT NULL,
+  `renewal_days` int NOT NULL,
+  `max_reservations` int NOT NULL,
+  `daily_fine_rate` decimal(5,2) NOT NULL,
+  `max_fine_amount` decimal(10,2) NOT NULL,
+  `updated_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `loan_policies` (`membership_type`, `category`, `max_loans`, `loan_period_days`, `max_renewals`,
+  `renewal_days`, `max_reservations`, `daily_fine_rate`, `max_fine_amount`, `updated_at`)
+VALUES (NULL, NULL, 3, 14, 2, 14, 5, 0.50, 20.00, CURRENT_TIMESTAMP(6));
+
+ALTER TABLE `borrow_transactions`
+  DROP COLUMN `daily_fine_rate`,
+  DROP COLUMN `max_fine_amount`,
+  DROP COLUMN `max_renewals`;
@@ -0,0 +1,14 @@
+-- Responses to borrow, return, renewal and fine requests sent with an Idempotency-Key, so a
+-- retried request replays the stored result instead of running again. A row without
+-- completed_at is still in flight; rows older than the retention window are deleted.
+CREATE TABLE `idempotency_keys` (
+  `idempotency_key` varchar(255) NOT NULL,
+  `request_hash` char(64) NOT NULL,
+  `response_status` int DEFAULT NULL,
+  `content_type` varchar(255) DEFAULT NULL,
+  `response_body` mediumtext,
+  `created_at` datetime(6) NOT NULL,
+  `completed_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`idempotency_key`),
+  KEY `idx_idempotency_keys_created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -1,13 +1,60 @@
 package com.library.library_management_system;
 
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.repository.BookRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The application starts on H2 with the second-level cache on, and the cached entities
+ * live in the regions configured in application.conf.
+ */
 @SpringBootTest
+@ActiveProfiles("test")
 class LibraryManagementSystemApplicationTests {
 
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private BookRepository bookRepository;
+
 	@Test
 	void contextLoads() {
+		CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+		for (String region : new String[] { "book", "book-natural-id", "user", "user-natural-id" }) {
+			assertNotNull(cacheManager.getCache(region), region + " is not configured");
+		}
+	}
+
+	@Test
+	void booksAreCachedInTheBookRegion() {
+		Book book = bookRepository.save(new Book("978-1-000-70001", "Cached Book", "Cache Author", "Fiction", 2020, 1));
+		try {
+			entityManagerFactory.getCache().evictAll();
+			bookRepository.findById(book.getId());
+			bookRepository.findById(book.getId());
+
+			CacheRegionStatistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+					.getStatistics().getDomainDataRegionStatistics("book");
+			assertTrue(statistics.getPutCount() > 0);
+			assertTrue(statistics.getHitCount() > 0);
+		} finally {
+			bookRepository.deleteAllInBatch();
+			entityManagerFactory.getCache().evictAll();
+		}
 	}
 
-}
+}
\ No newline at end of file
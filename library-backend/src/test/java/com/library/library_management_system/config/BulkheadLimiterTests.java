@@ -0,0 +1,131 @@
+package com.library.library_management_system.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checkouts and returns get in even when the bulkhead is full, normal requests queue for a
+ * slot, and low-priority requests are shed first: they leave the headroom free and stop
+ * being admitted once the queue backs up. They never queue in the interactive bulkhead, but
+ * low-priority reports wait briefly in the reporting bulkhead's queue.
+ */
+class BulkheadLimiterTests {
+
+	private static final int SLOTS = 4;
+
+	private static final int HEADROOM = 2;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final BulkheadLimiter limiter =
+			new BulkheadLimiter(Bulkhead.INTERACTIVE, SLOTS, 1, 200, HEADROOM, 10, 0, 0, meterRegistry);
+
+	// Like the reporting bulkhead: no headroom, and one short queue place for low-priority reports
+	private final SimpleMeterRegistry reportingRegistry = new SimpleMeterRegistry();
+
+	private final BulkheadLimiter reporting =
+			new BulkheadLimiter(Bulkhead.REPORTING, 1, 4, 500, 0, 10_000, 1, 100, reportingRegistry);
+
+	@Test
+	void criticalRequestsAreAlwaysAdmitted() throws Exception {
+		fill(SLOTS);
+
+		BulkheadLimiter.Admission admission = limiter.admit(RequestPriority.CRITICAL);
+		assertEquals(BulkheadLimiter.Admission.OVERFLOW, admission);
+		assertEquals(1, inFlight(RequestPriority.CRITICAL));
+
+		// An overflow admission held no slot, so releasing it frees none
+		limiter.release(RequestPriority.CRITICAL, admission);
+		assertEquals(0, inFlight(RequestPriority.CRITICAL));
+		assertEquals(BulkheadLimiter.Admission.OVERFLOW, limiter.admit(RequestPriority.CRITICAL));
+	}
+
+	@Test
+	void lowPriorityLeavesHeadroomFree() throws Exception {
+		fill(SLOTS - HEADROOM - 1);
+		assertEquals(BulkheadLimiter.Admission.PERMIT, limiter.admit(RequestPriority.LOW));
+
+		assertEquals(BulkheadLimiter.Admission.SHED, limiter.admit(RequestPriority.LOW));
+		assertEquals(BulkheadLimiter.Admission.PERMIT, limiter.admit(RequestPriority.NORMAL));
+		assertEquals(1.0, meterRegistry.get("library.bulkhead.rejected").tag("reason", "shed").counter().count());
+	}
+
+	@Test
+	void normalRequestsQueueAndTimeOut() throws Exception {
+		fill(SLOTS);
+
+		long start = System.nanoTime();
+		assertEquals(BulkheadLimiter.Admission.TIMEOUT, limiter.admit(RequestPriority.NORMAL));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+	}
+
+	@Test
+	void queueBacklogShedsLowPriority() throws Exception {
+		fill(SLOTS);
+		assertFalse(limiter.underPressure());
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// Teach the average that queued requests wait, then keep one waiting
+			assertEquals(BulkheadLimiter.Admission.TIMEOUT, limiter.admit(RequestPriority.NORMAL));
+			Future<BulkheadLimiter.Admission> waiting = executor.submit(() -> limiter.admit(RequestPriority.NORMAL));
+			while (meterRegistry.get("library.bulkhead.queued").gauge().value() == 0) {
+				Thread.onSpinWait();
+			}
+			assertTrue(limiter.underPressure());
+			assertEquals(BulkheadLimiter.Admission.SHED, limiter.admit(RequestPriority.LOW));
+
+			limiter.release(RequestPriority.NORMAL, BulkheadLimiter.Admission.PERMIT);
+			assertEquals(BulkheadLimiter.Admission.PERMIT, waiting.get(1, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void lowPriorityReportsQueueBriefly() throws Exception {
+		assertEquals(BulkheadLimiter.Admission.PERMIT, reporting.admit(RequestPriority.NORMAL));
+
+		// A full reporting bulkhead makes a low-priority report wait its shorter time, not shed it
+		long start = System.nanoTime();
+		assertEquals(BulkheadLimiter.Admission.TIMEOUT, reporting.admit(RequestPriority.LOW));
+		long waited = System.nanoTime() - start;
+		assertTrue(waited >= TimeUnit.MILLISECONDS.toNanos(80));
+		assertTrue(waited < TimeUnit.MILLISECONDS.toNanos(450));
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<BulkheadLimiter.Admission> waiting = executor.submit(() -> reporting.admit(RequestPriority.LOW));
+			while (reportingRegistry.get("library.bulkhead.queued").gauge().value() == 0) {
+				Thread.onSpinWait();
+			}
+			// Only one low-priority report may wait at a time
+			assertEquals(BulkheadLimiter.Admission.SHED, reporting.admit(RequestPriority.LOW));
+
+			reporting.release(RequestPriority.NORMAL, BulkheadLimiter.Admission.PERMIT);
+			assertEquals(BulkheadLimiter.Admission.PERMIT, waiting.get(1, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void fill(int slots) throws InterruptedException {
+		for (int i = 0; i < slots; i++) {
+			assertEquals(BulkheadLimiter.Admission.PERMIT, limiter.admit(RequestPriority.NORMAL));
+		}
+	}
+
+	private double inFlight(RequestPriority priority) {
+		return meterRegistry.get("library.bulkhead.in_flight").tag("priority", priority.tag()).gauge().value();
+	}
+
+}
\ No newline at end of file
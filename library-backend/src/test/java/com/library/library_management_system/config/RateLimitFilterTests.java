@@ -0,0 +1,100 @@
+package com.library.library_management_system.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Each client gets its own bucket per rule, the first matching rule wins, an empty bucket
+ * answers 429 with Retry-After, and concurrent callers never get more than the burst.
+ */
+class RateLimitFilterTests {
+
+	private static final int THREADS = 16;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final RateLimitFilter filter = new RateLimitFilter(
+			List.of("POST /api/transactions/**=2/1", "/api/books/**=3/1"), 1000, meterRegistry);
+
+	@Test
+	void emptyBucketAnswersTooManyRequests() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(200, perform("GET", "/api/books/" + i, "10.0.0.1").getStatus());
+		}
+
+		MockHttpServletResponse rejected = perform("GET", "/api/books/1", "10.0.0.1");
+		assertEquals(429, rejected.getStatus());
+		assertNotNull(rejected.getHeader("Retry-After"));
+		assertTrue(Long.parseLong(rejected.getHeader("Retry-After")) >= 1);
+		assertEquals(1.0, meterRegistry.get("library.rate_limit.rejected").tag("route", "/api/books/**")
+				.counter().count());
+	}
+
+	@Test
+	void clientsAndRulesHaveTheirOwnBuckets() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			perform("GET", "/api/books", "10.0.0.2");
+		}
+		assertEquals(429, perform("GET", "/api/books", "10.0.0.2").getStatus());
+
+		assertEquals(200, perform("GET", "/api/books", "10.0.0.3").getStatus());
+		assertEquals(200, perform("POST", "/api/transactions/borrow", "10.0.0.2").getStatus());
+		assertEquals(200, perform("GET", "/api/users/1", "10.0.0.2").getStatus());
+	}
+
+	@Test
+	void concurrentCallersShareTheBurst() throws Exception {
+		TokenBucket bucket = new TokenBucket(100, 0.001);
+		AtomicInteger granted = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> callers = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				callers.add(executor.submit(() -> {
+					start.await();
+					for (int j = 0; j < 50; j++) {
+						if (bucket.tryConsume()) {
+							granted.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> caller : callers) {
+				caller.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(100, granted.get());
+		assertTrue(bucket.nanosUntilNextToken() > 0);
+	}
+
+	private MockHttpServletResponse perform(String method, String uri, String address) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+		request.setRemoteAddr(address);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+}
\ No newline at end of file
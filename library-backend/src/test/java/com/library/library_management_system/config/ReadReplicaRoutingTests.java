@@ -0,0 +1,91 @@
+package com.library.library_management_system.config;
+
+import com.library.library_management_system.repository.BookRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The test profile points the replica at the same in-memory database through its own
+ * pools, so which pool holds the checked-out connection shows where a transaction went.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadReplicaRoutingTests {
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private HikariDataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private HikariDataSource replicaDataSource;
+
+	@Autowired
+	@Qualifier("reportingDataSource")
+	private HikariDataSource reportingDataSource;
+
+	@Autowired
+	@Qualifier("reportingReplicaDataSource")
+	private HikariDataSource reportingReplicaDataSource;
+
+	@Test
+	void readOnlyTransactionsUseTheReplica() {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(true);
+		template.executeWithoutResult(status -> {
+			bookRepository.findAllSummaries();
+			assertEquals(1, activeConnections(replicaDataSource));
+			assertEquals(0, activeConnections(primaryDataSource));
+		});
+	}
+
+	@Test
+	void readWriteTransactionsUseThePrimary() {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.executeWithoutResult(status -> {
+			bookRepository.findAllSummaries();
+			assertEquals(1, activeConnections(primaryDataSource));
+			assertEquals(0, activeConnections(replicaDataSource));
+		});
+	}
+
+	@Test
+	void reportingBulkheadUsesItsOwnPools() {
+		TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		Bulkhead.REPORTING.run(() -> {
+			readWrite.executeWithoutResult(status -> {
+				bookRepository.findAllSummaries();
+				assertEquals(1, activeConnections(reportingDataSource));
+				assertEquals(0, activeConnections(primaryDataSource));
+			});
+			readOnly.executeWithoutResult(status -> {
+				bookRepository.findAllSummaries();
+				assertEquals(1, activeConnections(reportingReplicaDataSource));
+				assertEquals(0, activeConnections(replicaDataSource));
+			});
+		});
+	}
+
+	private static int activeConnections(HikariDataSource dataSource) {
+		HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+		return pool == null ? 0 : pool.getActiveConnections();
+	}
+
+}
\ No newline at end of file
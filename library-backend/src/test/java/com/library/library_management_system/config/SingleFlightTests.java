@@ -0,0 +1,103 @@
+package com.library.library_management_system.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent callers for the same key share one loader run; nothing outlives the flight
+ * without a ttl, and failures are not remembered.
+ */
+class SingleFlightTests {
+
+	private static final int CALLERS = 16;
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		SingleFlight<Long, String> flight = new SingleFlight<>("test", 0, new SimpleMeterRegistry());
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			results.add(executor.submit(() -> flight.execute(1L, () -> {
+				loads.incrementAndGet();
+				started.countDown();
+				await(release);
+				return "book-1";
+			})));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			for (int i = 1; i < CALLERS; i++) {
+				results.add(executor.submit(() -> flight.execute(1L, () -> {
+					loads.incrementAndGet();
+					return "book-1";
+				})));
+			}
+			// Give the followers time to join the running flight before it completes
+			Thread.sleep(200);
+			release.countDown();
+
+			for (Future<String> result : results) {
+				assertEquals("book-1", result.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, loads.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void completedResultsAreNotReusedWithoutTtl() {
+		SingleFlight<Long, Integer> flight = new SingleFlight<>("test", 0, new SimpleMeterRegistry());
+		AtomicInteger loads = new AtomicInteger();
+
+		flight.execute(1L, loads::incrementAndGet);
+		flight.execute(1L, loads::incrementAndGet);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void resultsAreReusedWithinTtlUntilForgotten() {
+		SingleFlight<Long, Integer> flight = new SingleFlight<>("test", 60_000, new SimpleMeterRegistry());
+		AtomicInteger loads = new AtomicInteger();
+
+		assertEquals(1, flight.execute(1L, loads::incrementAndGet));
+		assertEquals(1, flight.execute(1L, loads::incrementAndGet));
+		flight.forget(1L);
+		assertEquals(2, flight.execute(1L, loads::incrementAndGet));
+	}
+
+	@Test
+	void failuresAreNotRemembered() {
+		SingleFlight<Long, Integer> flight = new SingleFlight<>("test", 60_000, new SimpleMeterRegistry());
+
+		assertThrows(RuntimeException.class, () -> flight.execute(1L, () -> {
+			throw new RuntimeException("Book not found");
+		}));
+		assertEquals(7, flight.execute(1L, () -> 7));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
\ No newline at end of file
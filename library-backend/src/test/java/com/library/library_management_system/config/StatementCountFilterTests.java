@@ -0,0 +1,56 @@
+package com.library.library_management_system.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Without budget enforcement the filter only counts: the response goes down the chain
+ * unwrapped and unbuffered. Enforcing budgets buffers it so the count header can follow.
+ */
+class StatementCountFilterTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void countingAloneDoesNotBufferTheResponse() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ServletResponse seen = perform(new StatementCountFilter(meterRegistry, false), response);
+
+		assertSame(response, seen);
+		assertEquals("body", response.getContentAsString());
+		assertNull(response.getHeader(StatementCountFilter.HEADER));
+		assertEquals(1, meterRegistry.get("library.http.sql.statements").summary().count());
+	}
+
+	@Test
+	void enforcingBudgetsBuffersForTheCountHeader() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ServletResponse seen = perform(new StatementCountFilter(meterRegistry, true), response);
+
+		assertNotSame(response, seen);
+		assertEquals("body", response.getContentAsString());
+		assertNotNull(response.getHeader(StatementCountFilter.HEADER));
+	}
+
+	private static ServletResponse perform(StatementCountFilter filter, MockHttpServletResponse response)
+			throws Exception {
+		AtomicReference<ServletResponse> seen = new AtomicReference<>();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/books"), response, (request, chained) -> {
+			seen.set(chained);
+			chained.getWriter().write("body");
+		});
+		return seen.get();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.library.library_management_system.controller;
+
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.RuleViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Domain rejections and bad input come back as problem responses with a machine-readable
+ * {@code code}, and the domain exceptions do not capture stack traces.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ErrorMappingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void missingRowsMapToNotFound() throws Exception {
+		mockMvc.perform(post("/api/transactions/borrow")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"userId\": 999999, \"bookId\": 999999}"))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.code").value("USER_NOT_FOUND"))
+				.andExpect(jsonPath("$.detail").value("User not found"));
+	}
+
+	@Test
+	void badArgumentsMapToInvalidRequest() throws Exception {
+		mockMvc.perform(get("/api/transactions/status/NOT_A_STATUS"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code").value("INVALID_REQUEST"))
+				.andExpect(jsonPath("$.detail").value("Invalid request"));
+	}
+
+	@Test
+	void domainExceptionsAreStackless() {
+		RuleViolationException e = new RuleViolationException(ErrorCode.BORROW_LIMIT_REACHED);
+
+		assertEquals(0, e.getStackTrace().length);
+		assertEquals("User has reached maximum borrowing limit", e.getMessage());
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.library.library_management_system.controller;
+
+import com.library.library_management_system.config.IdempotencyFilter;
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.repository.BookRepository;
+import com.library.library_management_system.repository.BorrowTransactionRepository;
+import com.library.library_management_system.repository.IdempotencyRecordRepository;
+import com.library.library_management_system.repository.ReservationRepository;
+import com.library.library_management_system.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A borrow retried with the same {@code Idempotency-Key} replays the first response and
+ * takes one copy, while reusing the key for a different request is refused. Anonymous keys
+ * are scoped to the client address, so another client's key never collides.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowTransactionRepository borrowTransactionRepository;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User member;
+
+	private Book book;
+
+	@BeforeEach
+	void setUp() {
+		User user = new User("idempotent.member", "secret", "Idempotent Member",
+				"idempotent.member@example.com", User.Role.MEMBER);
+		user.setMembershipEndDate(LocalDateTime.now().plusYears(1));
+		member = userRepository.save(user);
+		book = bookRepository.save(new Book("978-1-000-80001", "Retry Book", "Retry Author", "Fiction", 2020, 3));
+	}
+
+	@AfterEach
+	void tearDown() {
+		idempotencyRecordRepository.deleteAllInBatch();
+		reservationRepository.deleteAllInBatch();
+		borrowTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		userRepository.deleteAllInBatch();
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	void retriedBorrowReplaysTheFirstResponse() throws Exception {
+		MvcResult first = borrow("retry-1", book.getId())
+				.andExpect(status().isCreated())
+				.andReturn();
+		assertNull(first.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+
+		MvcResult retry = borrow("retry-1", book.getId())
+				.andExpect(status().isCreated())
+				.andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+				.andReturn();
+
+		assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+		assertEquals(1, borrowTransactionRepository.count());
+		entityManagerFactory.getCache().evictAll();
+		assertEquals(2, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+	}
+
+	@Test
+	void rejectionsAreReplayedToo() throws Exception {
+		borrow("retry-2", 999999L).andExpect(status().isNotFound());
+
+		borrow("retry-2", 999999L)
+				.andExpect(status().isNotFound())
+				.andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+	}
+
+	@Test
+	void reusingAKeyForAnotherRequestIsRefused() throws Exception {
+		borrow("retry-3", book.getId()).andExpect(status().isCreated());
+
+		borrow("retry-3", 999999L).andExpect(status().isUnprocessableEntity());
+		assertEquals(1, borrowTransactionRepository.count());
+	}
+
+	@Test
+	void anonymousClientsDoNotShareKeys() throws Exception {
+		borrow("shared-key", book.getId()).andExpect(status().isCreated());
+
+		MvcResult other = mockMvc.perform(post("/api/transactions/borrow")
+						.header(IdempotencyFilter.HEADER, "shared-key")
+						.with(request -> {
+							request.setRemoteAddr("10.0.0.99");
+							return request;
+						})
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(body(999999L)))
+				.andExpect(status().isNotFound())
+				.andReturn();
+		assertNull(other.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertEquals(2, idempotencyRecordRepository.count());
+	}
+
+	@Test
+	void requestsWithoutAKeyRunEveryTime() throws Exception {
+		mockMvc.perform(post("/api/transactions/borrow")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(body(book.getId())))
+				.andExpect(status().isCreated());
+		mockMvc.perform(post("/api/transactions/borrow")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(body(book.getId())))
+				.andExpect(status().isConflict());
+		assertEquals(0, idempotencyRecordRepository.count());
+	}
+
+	private ResultActions borrow(String key, Long bookId) throws Exception {
+		return mockMvc.perform(post("/api/transactions/borrow")
+				.header(IdempotencyFilter.HEADER, key)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body(bookId)));
+	}
+
+	private String body(Long bookId) {
+		return "{\"userId\": " + member.getId() + ", \"bookId\": " + bookId + "}";
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.library.library_management_system.controller;
+
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.BorrowTransaction;
+import com.library.library_management_system.entity.Reservation;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.repository.BookRepository;
+import com.library.library_management_system.repository.BorrowTransactionRepository;
+import com.library.library_management_system.repository.ReservationRepository;
+import com.library.library_management_system.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The dashboard endpoint returns loans, holds with their live queue rank and the fine
+ * balance in one response, and only to the member themselves or an admin.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MemberDashboardTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowTransactionRepository borrowTransactionRepository;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	private User member;
+
+	private User other;
+
+	@BeforeEach
+	void setUp() {
+		LocalDate today = LocalDate.now();
+		member = userRepository.save(new User("dashboard.member", "secret", "Dashboard Member",
+				"dashboard.member@example.com", User.Role.MEMBER));
+		other = userRepository.save(new User("dashboard.other", "secret", "Dashboard Other",
+				"dashboard.other@example.com", User.Role.MEMBER));
+		Book borrowed = bookRepository.save(new Book("978-1-000-1000-1", "Dashboard Loan", "Author", "Fiction", 2020, 1));
+		Book reserved = bookRepository.save(new Book("978-1-000-1000-2", "Dashboard Hold", "Author", "Fiction", 2020, 1));
+
+		BorrowTransaction overdue = new BorrowTransaction(member, borrowed, today.minusDays(20), today.minusDays(6));
+		overdue.setStatus(BorrowTransaction.TransactionStatus.OVERDUE);
+		overdue.setFineAmount(new BigDecimal("3.00"));
+		overdue.setFinePaid(false);
+		borrowTransactionRepository.save(overdue);
+
+		// The other member is first in line, so the member's hold ranks second
+		Reservation first = new Reservation(other, reserved, today.minusDays(2));
+		first.setQueuePosition(1);
+		Reservation second = new Reservation(member, reserved, today.minusDays(1));
+		second.setQueuePosition(2);
+		reservationRepository.save(first);
+		reservationRepository.save(second);
+	}
+
+	@AfterEach
+	void tearDown() {
+		reservationRepository.deleteAllInBatch();
+		borrowTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		userRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void dashboardGathersLoansHoldsAndFines() throws Exception {
+		mockMvc.perform(get("/api/users/" + member.getId() + "/dashboard").with(as(member, "MEMBER")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.activeLoans.length()").value(1))
+				.andExpect(jsonPath("$.activeLoans[0].bookTitle").value("Dashboard Loan"))
+				.andExpect(jsonPath("$.overdueLoans").value(1))
+				.andExpect(jsonPath("$.holds.length()").value(1))
+				.andExpect(jsonPath("$.holds[0].queuePosition").value(2))
+				.andExpect(jsonPath("$.unpaidFines").value(3.0));
+	}
+
+	@Test
+	void otherMembersCannotReadTheDashboard() throws Exception {
+		mockMvc.perform(get("/api/users/" + member.getId() + "/dashboard").with(as(other, "MEMBER")))
+				.andExpect(status().isForbidden())
+				.andExpect(jsonPath("$.code").value("ACCESS_DENIED"));
+		mockMvc.perform(get("/api/users/" + member.getId() + "/dashboard"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private static RequestPostProcessor as(User user, String role) {
+		return jwt().jwt(token -> token.subject(String.valueOf(user.getId()))
+				.claim("username", user.getUsername())
+				.claim("role", role));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.library.library_management_system.controller;
+
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.Reservation;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.repository.BookRepository;
+import com.library.library_management_system.repository.ReservationRepository;
+import com.library.library_management_system.repository.UserRepository;
+import com.library.library_management_system.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With coalesced results kept for a while, the reservation queue of a book is still never
+ * served stale: reserving, cancelling and handing a returned copy to the next member in
+ * line all forget it.
+ */
+@SpringBootTest(properties = "library.coalescing.ttl-ms=60000")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReservationQueueCoalescingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	private User first;
+
+	private User second;
+
+	private Book book;
+
+	@BeforeEach
+	void setUp() {
+		first = userRepository.save(member("queue.first"));
+		second = userRepository.save(member("queue.second"));
+		Book checkedOut = new Book("978-1-000-60001", "Queue Book", "Queue Author", "Fiction", 2020, 1);
+		checkedOut.borrowCopy();
+		book = bookRepository.save(checkedOut);
+	}
+
+	@AfterEach
+	void tearDown() {
+		reservationRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		userRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void queueChangesForgetTheCoalescedQueue() throws Exception {
+		expectQueueSize(0);
+
+		Reservation firstHold = reservationService.createReservation(first.getId(), book.getId());
+		expectQueueSize(1);
+		reservationService.createReservation(second.getId(), book.getId());
+		expectQueueSize(2);
+
+		reservationService.cancelReservation(firstHold.getId());
+		expectQueueSize(1);
+
+		reservationService.processBookReturn(book.getId());
+		expectQueueSize(0);
+	}
+
+	private void expectQueueSize(int size) throws Exception {
+		mockMvc.perform(get("/api/reservations/book/" + book.getId() + "/queue"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.queueSize").value(size));
+	}
+
+	private static User member(String username) {
+		User user = new User(username, "secret", username, username + "@example.com", User.Role.MEMBER);
+		user.setMembershipEndDate(LocalDateTime.now().plusYears(1));
+		return user;
+	}
+
+}
\ No newline at end of file
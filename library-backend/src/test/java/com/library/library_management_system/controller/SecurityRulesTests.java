@@ -0,0 +1,97 @@
+package com.library.library_management_system.controller;
+
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.service.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Role rules in the security filter chain: admin-only paths refuse member tokens even where
+ * a public wildcard would also match them, a member's live stream is only open to that member
+ * or an admin, and metrics are admin-only while health stays public.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityRulesTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Test
+	void adminUserPathsRefuseMembers() throws Exception {
+		mockMvc.perform(get("/api/users/members").with(as(1L, "MEMBER")))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/api/users/expired-memberships").with(as(1L, "MEMBER")))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/api/users/members").with(as(1L, "ADMIN")))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void memberStreamsAreOnlyOpenToTheirMember() throws Exception {
+		mockMvc.perform(get("/api/stream/books"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/stream/users/7"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/stream/users/7").accept(MediaType.TEXT_EVENT_STREAM).with(as(8L, "MEMBER")))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/api/stream/users/7").with(as(7L, "MEMBER")))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/stream/users/7").with(as(8L, "ADMIN")))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void streamsAcceptTheTokenInTheQueryString() throws Exception {
+		User member = new User("stream.member", "secret", "Stream Member", "stream.member@example.com",
+				User.Role.MEMBER);
+		member.setId(7L);
+		String token = tokenService.issueToken(member).value();
+
+		mockMvc.perform(get("/api/stream/users/7").param("access_token", token))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/stream/users/8").param("access_token", token))
+				.andExpect(status().isForbidden());
+		// Other endpoints only read the Authorization header
+		mockMvc.perform(get("/api/users/7/dashboard").param("access_token", token))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void metricsAreAdminOnly() throws Exception {
+		mockMvc.perform(get("/actuator/health"))
+				.andExpect(status().isOk());
+		for (String path : new String[] {"/actuator/prometheus", "/actuator/metrics", "/actuator/metrics/jvm.threads.live"}) {
+			mockMvc.perform(get(path))
+					.andExpect(status().isUnauthorized());
+			mockMvc.perform(get(path).with(as(1L, "MEMBER")))
+					.andExpect(status().isForbidden());
+		}
+		// Tests run without the Prometheus registry, so admin access is checked on the metrics endpoint
+		mockMvc.perform(get("/actuator/metrics/jvm.threads.live").with(as(1L, "ADMIN")))
+				.andExpect(status().isOk());
+	}
+
+	private static RequestPostProcessor as(Long userId, String role) {
+		return jwt().jwt(token -> token.subject(String.valueOf(userId))
+						.claim("username", "user" + userId)
+						.claim("role", role))
+				.authorities(new SimpleGrantedAuthority("ROLE_" + role));
+	}
+
+}
\ No newline at end of file
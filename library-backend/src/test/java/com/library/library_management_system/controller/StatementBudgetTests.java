@@ -0,0 +1,168 @@
+package com.library.library_management_system.controller;
+
+import com.library.library_management_system.config.StatementCountFilter;
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.BorrowTransaction;
+import com.library.library_management_system.entity.Reservation;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.repository.BookRepository;
+import com.library.library_management_system.repository.BorrowTransactionRepository;
+import com.library.library_management_system.repository.ReservationRepository;
+import com.library.library_management_system.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Calls the list endpoints over a few rows per user and book and fails if any of them
+ * goes over its {@code @StatementBudget}. The test profile enforces budgets, so an
+ * N+1 regression turns the response into a 500.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatementBudgetTests {
+
+	private static final int ROWS = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowTransactionRepository borrowTransactionRepository;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User member;
+
+	private Book book;
+
+	private Long transactionId;
+
+	private Long reservationId;
+
+	@BeforeEach
+	void setUp() {
+		LocalDate today = LocalDate.now();
+		List<BorrowTransaction> transactions = new ArrayList<>();
+		List<Reservation> reservations = new ArrayList<>();
+		for (int i = 0; i < ROWS; i++) {
+			User user = userRepository.save(new User("budget.member" + i, "secret", "Budget Member " + i,
+					"budget.member" + i + "@example.com", User.Role.MEMBER));
+			Book copy = bookRepository.save(new Book("978-1-000-0000" + i, "Budget Book " + i, "Budget Author " + i,
+					"Fiction", 2020, 2));
+			
+			// Overdue with an unpaid fine, so every list below returns all rows
+			BorrowTransaction transaction = new BorrowTransaction(user, copy, today.minusDays(20), today.minusDays(6));
+			transaction.setStatus(BorrowTransaction.TransactionStatus.OVERDUE);
+			transaction.setFineAmount(new BigDecimal("3.00"));
+			transaction.setFinePaid(false);
+			transactions.add(transaction);
+			
+			Reservation reservation = new Reservation(user, copy, today.minusDays(8));
+			reservations.add(reservation);
+			if (i == 0) {
+				member = user;
+				book = copy;
+			}
+		}
+		// Every user reserves and borrows the first book as well
+		for (int i = 1; i < ROWS; i++) {
+			User user = transactions.get(i).getUser();
+			transactions.add(new BorrowTransaction(user, book, today.minusDays(3), today.plusDays(2)));
+			reservations.add(new Reservation(user, book, today.minusDays(1)));
+		}
+		transactionId = borrowTransactionRepository.saveAll(transactions).get(0).getId();
+		reservationId = reservationRepository.saveAll(reservations).get(0).getId();
+		
+		// Start cold, otherwise the second-level cache hides lazy loads
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@AfterEach
+	void tearDown() {
+		reservationRepository.deleteAllInBatch();
+		borrowTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		userRepository.deleteAllInBatch();
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	void transactionEndpointsStayWithinBudget() throws Exception {
+		LocalDate today = LocalDate.now();
+		assertWithinBudget("/api/transactions");
+		assertWithinBudget("/api/transactions/" + transactionId);
+		assertWithinBudget("/api/transactions/user/" + member.getId() + "/history");
+		assertWithinBudget("/api/transactions/user/" + member.getId() + "/active");
+		assertWithinBudget("/api/transactions/overdue");
+		assertWithinBudget("/api/transactions/due-soon?days=5");
+		assertWithinBudget("/api/transactions/unpaid-fines");
+		assertWithinBudget("/api/transactions/status/overdue");
+		assertWithinBudget("/api/transactions/date-range?startDate=" + today.minusDays(30) + "&endDate=" + today);
+		assertWithinBudget("/api/transactions/summaries");
+		assertWithinBudget("/api/transactions/summaries/overdue");
+		assertWithinBudget("/api/transactions/summaries/user/" + member.getId() + "/active");
+		assertWithinBudget("/api/transactions/summaries/user/" + member.getId() + "/history");
+	}
+
+	@Test
+	void reservationEndpointsStayWithinBudget() throws Exception {
+		assertWithinBudget("/api/reservations");
+		assertWithinBudget("/api/reservations/" + reservationId);
+		assertWithinBudget("/api/reservations/user/" + member.getId());
+		assertWithinBudget("/api/reservations/user/" + member.getId() + "/active");
+		assertWithinBudget("/api/reservations/book/" + book.getId());
+		assertWithinBudget("/api/reservations/status/active");
+		assertWithinBudget("/api/reservations/expired");
+		assertWithinBudget("/api/reservations/needs-notification");
+		assertWithinBudget("/api/reservations/expiring-soon?days=7");
+		assertWithinBudget("/api/reservations/book/" + book.getId() + "/queue");
+		assertWithinBudget("/api/reservations/summaries");
+		assertWithinBudget("/api/reservations/summaries/user/" + member.getId());
+		assertWithinBudget("/api/reservations/summaries/book/" + book.getId() + "/queue");
+	}
+
+	@Test
+	void bookSummaryEndpointsStayWithinBudget() throws Exception {
+		assertWithinBudget("/api/books/summaries");
+		assertWithinBudget("/api/books/summaries/search?searchTerm=Budget");
+		assertWithinBudget("/api/books/summaries/available");
+		assertWithinBudget("/api/books/summaries/category/Fiction");
+	}
+
+	private void assertWithinBudget(String uri) throws Exception {
+		entityManagerFactory.getCache().evictAll();
+		MvcResult result = mockMvc.perform(get(uri)).andReturn();
+		assertEquals(200, result.getResponse().getStatus(),
+				uri + ": " + result.getResponse().getContentAsString());
+		assertNotNull(result.getResponse().getHeader(StatementCountFilter.HEADER), uri + " has no statement count");
+	}
+
+}
\ No newline at end of file
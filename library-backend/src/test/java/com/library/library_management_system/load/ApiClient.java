@@ -0,0 +1,65 @@
+package com.library.library_management_system.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Minimal JSON-over-HTTP client for the load harness. Non-2xx responses throw, so
+ * the probe counts them as errors.
+ */
+final class ApiClient {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final HttpClient http = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	private final String baseUrl;
+
+	ApiClient(int port) {
+		this.baseUrl = "http://localhost:" + port;
+	}
+
+	String get(String path) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(Duration.ofSeconds(30))
+				.GET()
+				.build();
+		return send(request);
+	}
+
+	String post(String path, Object body) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(Duration.ofSeconds(30))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body == null ? "" : MAPPER.writeValueAsString(body)))
+				.build();
+		return send(request);
+	}
+
+	static long readId(String json) throws Exception {
+		JsonNode id = MAPPER.readTree(json).get("id");
+		if (id == null) {
+			throw new IllegalStateException("Response has no id: " + json);
+		}
+		return id.asLong();
+	}
+
+	private String send(HttpRequest request) throws Exception {
+		HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() / 100 != 2) {
+			throw new IllegalStateException(request.method() + " " + request.uri().getPath()
+					+ " returned " + response.statusCode());
+		}
+		return response.body();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.library.library_management_system.load;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Writes one CSV file per table plus {@code load-data.sql}, a script of
+ * {@code LOAD DATA LOCAL INFILE} statements that bulk-loads them into MySQL:
+ *
+ * <pre>
+ * mysql --local-infile=1 library_management_db &lt; target/dataset/load-data.sql
+ * </pre>
+ */
+final class CsvRowSink implements RowSink {
+
+	private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	private final Path directory;
+
+	private final long firstId;
+
+	private final Map<Table, BufferedWriter> writers = new EnumMap<>(Table.class);
+
+	CsvRowSink(Path directory, long firstId) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.firstId = firstId;
+	}
+
+	@Override
+	public long firstId(Table table) {
+		return firstId;
+	}
+
+	@Override
+	public void row(Table table, Object... values) throws IOException {
+		BufferedWriter writer = writers.get(table);
+		if (writer == null) {
+			writer = Files.newBufferedWriter(file(table), StandardCharsets.UTF_8);
+			writers.put(table, writer);
+		}
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write(format(values[i]));
+		}
+		writer.write('\n');
+	}
+
+	@Override
+	public void close() throws IOException {
+		StringBuilder script = new StringBuilder()
+				.append("SET FOREIGN_KEY_CHECKS = 0;\n")
+				.append("SET UNIQUE_CHECKS = 0;\n");
+		for (Map.Entry<Table, BufferedWriter> entry : writers.entrySet()) {
+			entry.getValue().close();
+			Table table = entry.getKey();
+			script.append("LOAD DATA LOCAL INFILE '").append(file(table).toAbsolutePath()).append("'\n")
+					.append("  INTO TABLE ").append(table.tableName()).append('\n')
+					.append("  FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"'\n")
+					.append("  LINES TERMINATED BY '\\n'\n")
+					.append("  (").append(String.join(", ", table.columns())).append(");\n");
+		}
+		script.append("SET UNIQUE_CHECKS = 1;\n")
+				.append("SET FOREIGN_KEY_CHECKS = 1;\n");
+		Files.writeString(directory.resolve("load-data.sql"), script);
+	}
+
+	private Path file(Table table) {
+		return directory.resolve(table.tableName() + ".csv");
+	}
+
+	private static String format(Object value) {
+		if (value == null) {
+			return "\\N";
+		}
+		if (value instanceof Boolean flag) {
+			return flag ? "1" : "0";
+		}
+		if (value instanceof LocalDateTime timestamp) {
+			return TIMESTAMP.format(timestamp);
+		}
+		if (value instanceof String text) {
+			return '"' + text.replace("\\", "\\\\").replace("\"", "\"\"") + '"';
+		}
+		return value.toString();
+	}
+
+}
\ No newline at end of file
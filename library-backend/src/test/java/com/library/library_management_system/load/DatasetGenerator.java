@@ -0,0 +1,322 @@
+package com.library.library_management_system.load;
+
+import com.library.library_management_system.load.RowSink.Table;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a synthetic library at production scale: members, a catalogue whose
+ * popularity follows a Zipf distribution, years of returned loans (some late and
+ * fined), open loans with a share of them overdue, and hold queues on books whose
+ * copies are all out. Output is deterministic for a given seed and internally
+ * consistent: available copies match open loans, and nobody goes over the borrowing
+ * or reservation limits.
+ *
+ * <p>Straight into a database with batched inserts:
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.library.library_management_system.load.DatasetGenerator \
+ *     -Ddataset.jdbc-url="jdbc:mysql://localhost:3306/library_management_db?rewriteBatchedStatements=true" \
+ *     -Ddataset.username=root -Ddataset.password=secret
+ * </pre>
+ * or, with {@code -Ddataset.csv-dir=target/dataset} instead of a JDBC URL, to CSV files
+ * plus a {@code LOAD DATA} script (see {@link CsvRowSink}). Volumes are set with
+ * {@code dataset.members}, {@code dataset.books}, {@code dataset.transactions},
+ * {@code dataset.reservations}, {@code dataset.overdue-ratio}, {@code dataset.zipf-exponent}
+ * and {@code dataset.seed}.
+ */
+public final class DatasetGenerator {
+
+	/** Words titles are built from; search load can draw terms from the same list. */
+	static final List<String> TITLE_WORDS = List.of("Silent", "River", "Shadow", "Garden", "Empire", "Winter",
+			"Glass", "Storm", "Letters", "Island", "Machine", "Kingdom", "Secret", "Harbor", "Night", "Memory",
+			"Atlas", "Fire", "Orchard", "Voyage", "Stone", "Lantern", "Theory", "History", "Engine", "Forest",
+			"Mirror", "North", "Promise", "Signal");
+
+	static final List<String> CATEGORIES = List.of("Fiction", "Science", "History", "Biography", "Technology",
+			"Children", "Mystery", "Fantasy", "Romance", "Poetry", "Philosophy", "Travel", "Art", "Business",
+			"Health", "Religion", "Cooking", "Law", "Mathematics", "Reference");
+
+	private static final int MAX_BOOKS_PER_USER = 3;
+
+	private static final int MAX_RESERVATIONS_PER_USER = 5;
+
+	private static final int LOAN_PERIOD_DAYS = 14;
+
+	private static final BigDecimal DAILY_FINE_RATE = new BigDecimal("0.50");
+
+	private static final BigDecimal MAX_FINE_AMOUNT = new BigDecimal("20.00");
+
+	/** Generated volumes and skew. */
+	record Config(int members, int books, long transactions, int reservations, double overdueRatio,
+			double zipfExponent, int historyDays, long seed) {
+
+		static Config fromSystemProperties() {
+			return new Config(
+					Integer.getInteger("dataset.members", 200_000),
+					Integer.getInteger("dataset.books", 1_000_000),
+					Long.getLong("dataset.transactions", 10_000_000L),
+					Integer.getInteger("dataset.reservations", 1_000_000),
+					Double.parseDouble(System.getProperty("dataset.overdue-ratio", "0.08")),
+					Double.parseDouble(System.getProperty("dataset.zipf-exponent", "1.0")),
+					Integer.getInteger("dataset.history-days", 730),
+					Long.getLong("dataset.seed", 42L));
+		}
+	}
+
+	/**
+	 * What was generated, by index from the first id. Idle members have a valid
+	 * membership and no open loans or holds; held books have every copy out.
+	 */
+	record Result(long firstMemberId, int members, long firstBookId, int books, BitSet idleMembers,
+			BitSet heldBooks) {
+
+		long memberId(int index) {
+			return firstMemberId + index;
+		}
+
+		long bookId(int index) {
+			return firstBookId + index;
+		}
+	}
+
+	private final Config config;
+
+	private final Random random;
+
+	private final LocalDate today = LocalDate.now();
+
+	private final LocalDateTime now = LocalDateTime.now();
+
+	private DatasetGenerator(Config config) {
+		this.config = config;
+		this.random = new Random(config.seed());
+	}
+
+	public static void main(String[] args) throws Exception {
+		Config config = Config.fromSystemProperties();
+		String csvDirectory = System.getProperty("dataset.csv-dir");
+		long start = System.nanoTime();
+		if (csvDirectory != null) {
+			try (RowSink sink = new CsvRowSink(Path.of(csvDirectory), Long.getLong("dataset.first-id", 1_000L))) {
+				generate(config, sink);
+			}
+		} else {
+			String url = System.getProperty("dataset.jdbc-url", "jdbc:mysql://localhost:3306/library_management_db"
+					+ "?rewriteBatchedStatements=true");
+			try (Connection connection = DriverManager.getConnection(url,
+					System.getProperty("dataset.username", "root"), System.getProperty("dataset.password", ""));
+					RowSink sink = new JdbcRowSink(connection, Integer.getInteger("dataset.batch-size", 1_000))) {
+				generate(config, sink);
+			}
+		}
+		System.out.printf("Generated %s in %d s%n", config, (System.nanoTime() - start) / 1_000_000_000L);
+	}
+
+	static Result generate(Config config, RowSink sink) throws Exception {
+		return new DatasetGenerator(config).writeTo(sink);
+	}
+
+	private Result writeTo(RowSink sink) throws Exception {
+		int members = config.members();
+		int books = config.books();
+		long firstMemberId = sink.firstId(Table.USERS);
+		long firstBookId = sink.firstId(Table.BOOKS);
+		long transactionId = sink.firstId(Table.BORROW_TRANSACTIONS);
+		long reservationId = sink.firstId(Table.RESERVATIONS);
+		
+		ZipfSampler bookPopularity = new ZipfSampler(books, config.zipfExponent(), random);
+		// Borrowing activity is skewed too, but less than book popularity
+		ZipfSampler memberActivity = new ZipfSampler(members, config.zipfExponent() * 0.75, random);
+		
+		byte[] copies = new byte[books];
+		for (int book = 0; book < books; book++) {
+			copies[book] = (byte) pick(new int[] { 1, 2, 3, 5 }, new int[] { 50, 25, 15, 10 });
+		}
+		
+		// Open loans first, so available copies can be written with the books
+		// Around 0.6 open loans per member, concentrated on the most active ones
+		int openLoanCount = (int) Math.min(config.transactions() / 10, members * 6L / 10);
+		int[] loanMember = new int[openLoanCount];
+		int[] loanBook = new int[openLoanCount];
+		byte[] out = new byte[books];
+		byte[] loansPerMember = new byte[members];
+		int openLoans = 0;
+		for (int attempt = 0; openLoans < openLoanCount && attempt < openLoanCount * 4; attempt++) {
+			int member = memberActivity.next();
+			int book = bookPopularity.next();
+			if (loansPerMember[member] < MAX_BOOKS_PER_USER && out[book] < copies[book]) {
+				loanMember[openLoans] = member;
+				loanBook[openLoans] = book;
+				loansPerMember[member]++;
+				out[book]++;
+				openLoans++;
+			}
+		}
+		
+		BitSet expired = new BitSet(members);
+		for (int member = 0; member < members; member++) {
+			boolean lapsed = random.nextInt(100) < 8;
+			expired.set(member, lapsed);
+			sink.row(Table.USERS, member(firstMemberId + member, lapsed));
+		}
+		log("users", members);
+		
+		BitSet held = new BitSet(books);
+		for (int book = 0; book < books; book++) {
+			held.set(book, out[book] == copies[book]);
+			sink.row(Table.BOOKS, book(firstBookId + book, copies[book], copies[book] - out[book]));
+		}
+		log("books", books);
+		
+		long history = config.transactions() - openLoans;
+		for (long i = 0; i < history; i++) {
+			sink.row(Table.BORROW_TRANSACTIONS, returnedLoan(transactionId++,
+					firstMemberId + memberActivity.next(), firstBookId + bookPopularity.next()));
+		}
+		for (int i = 0; i < openLoans; i++) {
+			sink.row(Table.BORROW_TRANSACTIONS, openLoan(transactionId++,
+					firstMemberId + loanMember[i], firstBookId + loanBook[i]));
+		}
+		log("borrow_transactions", config.transactions());
+		
+		// Hold queues on books with every copy out, popular books first in line
+		byte[] holdsPerMember = new byte[members];
+		int queued = 0;
+		int queueTarget = Math.min(config.reservations() / 5, held.cardinality() * 4);
+		for (int attempt = 0; queued < queueTarget && attempt < queueTarget * 4; attempt++) {
+			int book = bookPopularity.next();
+			if (!held.get(book)) {
+				continue;
+			}
+			int queueLength = 1 + random.nextInt(4);
+			for (int position = 1; position <= queueLength && queued < queueTarget; position++) {
+				int member = memberActivity.next();
+				if (expired.get(member) || holdsPerMember[member] >= MAX_RESERVATIONS_PER_USER) {
+					continue;
+				}
+				holdsPerMember[member]++;
+				sink.row(Table.RESERVATIONS, activeHold(reservationId++, firstMemberId + member,
+						firstBookId + book, position, queueLength));
+				queued++;
+			}
+			// One queue per book keeps positions unique
+			held.clear(book);
+		}
+		for (long i = queued; i < config.reservations(); i++) {
+			sink.row(Table.RESERVATIONS, closedHold(reservationId++,
+					firstMemberId + memberActivity.next(), firstBookId + bookPopularity.next()));
+		}
+		log("reservations", config.reservations());
+		
+		BitSet idle = new BitSet(members);
+		for (int member = 0; member < members; member++) {
+			idle.set(member, !expired.get(member) && loansPerMember[member] == 0 && holdsPerMember[member] == 0);
+		}
+		BitSet heldBooks = new BitSet(books);
+		for (int book = 0; book < books; book++) {
+			heldBooks.set(book, out[book] == copies[book]);
+		}
+		return new Result(firstMemberId, members, firstBookId, books, idle, heldBooks);
+	}
+
+	private Object[] member(long id, boolean lapsed) {
+		LocalDateTime joined = now.minusDays(random.nextInt(30, 365 * 4));
+		LocalDateTime end = lapsed ? now.minusDays(random.nextInt(1, 180)) : now.plusDays(random.nextInt(1, 365));
+		String type = pick(new String[] { "STANDARD", "STUDENT", "PREMIUM" }, new int[] { 70, 20, 10 });
+		return new Object[] { id, (id % 500) + " Generated Street", joined, "gen-m" + id + "@example.com",
+				"Generated Member " + id, end, joined, type, "password", String.format("555-%07d", id % 10_000_000),
+				"MEMBER", joined, "gen-m" + id };
+	}
+
+	private Object[] book(long id, int copies, int available) {
+		String title = TITLE_WORDS.get(random.nextInt(TITLE_WORDS.size())) + " "
+				+ TITLE_WORDS.get(random.nextInt(TITLE_WORDS.size())) + " " + id;
+		String category = CATEGORIES.get(Math.min(CATEGORIES.size() - 1, (int) (-Math.log(1 - random.nextDouble()) * 4)));
+		LocalDateTime added = now.minusDays(random.nextInt(1, 365 * 10));
+		return new Object[] { id, "Generated Author " + random.nextInt(Math.max(1, config.books() / 8)), available,
+				category, added, "Synthetic catalogue entry " + id + ".", String.format("979-%010d", id),
+				1900 + random.nextInt(today.getYear() - 1899), "Generated Press", "S" + (id % 400) + "-" + (id % 7),
+				"ACTIVE", title, copies, added };
+	}
+
+	private Object[] returnedLoan(long id, long memberId, long bookId) {
+		LocalDate borrowed = today.minusDays(random.nextInt(LOAN_PERIOD_DAYS + 1, config.historyDays() + 2));
+		int renewals = random.nextInt(100) < 20 ? 1 : 0;
+		LocalDate due = borrowed.plusDays(LOAN_PERIOD_DAYS * (1L + renewals));
+		// About one loan in six comes back late
+		long lateDays = random.nextInt(6) == 0 ? random.nextInt(1, 30) : 0;
+		LocalDate returned = lateDays > 0 ? due.plusDays(lateDays) : borrowed.plusDays(random.nextInt(1,
+				(int) (due.toEpochDay() - borrowed.toEpochDay()) + 1));
+		if (returned.isAfter(today)) {
+			returned = today;
+		}
+		BigDecimal fine = fine(Math.max(0, returned.toEpochDay() - due.toEpochDay()));
+		boolean paid = fine.signum() == 0 || random.nextInt(100) < 90;
+		return new Object[] { id, borrowed, borrowed.atTime(10, 0), due, fine, paid, null, renewals, returned,
+				"RETURNED", returned.atTime(16, 0), bookId, memberId };
+	}
+
+	private Object[] openLoan(long id, long memberId, long bookId) {
+		boolean overdue = random.nextDouble() < config.overdueRatio();
+		LocalDate borrowed = overdue
+				? today.minusDays(random.nextInt(LOAN_PERIOD_DAYS + 1, LOAN_PERIOD_DAYS + 60))
+				: today.minusDays(random.nextInt(0, LOAN_PERIOD_DAYS));
+		LocalDate due = borrowed.plusDays(LOAN_PERIOD_DAYS);
+		BigDecimal fine = fine(Math.max(0, today.toEpochDay() - due.toEpochDay()));
+		return new Object[] { id, borrowed, borrowed.atTime(10, 0), due, fine, false, null, 0, null,
+				overdue ? "OVERDUE" : "BORROWED", now, bookId, memberId };
+	}
+
+	private Object[] activeHold(long id, long memberId, long bookId, int position, int queueLength) {
+		LocalDate reserved = today.minusDays(queueLength - position);
+		return new Object[] { id, reserved.atTime(9, 0), reserved.plusDays(7), null, null, false, position,
+				reserved, "ACTIVE", reserved.atTime(9, 0), bookId, memberId };
+	}
+
+	private Object[] closedHold(long id, long memberId, long bookId) {
+		LocalDate reserved = today.minusDays(random.nextInt(8, config.historyDays() + 9));
+		String status = pick(new String[] { "FULFILLED", "CANCELLED", "EXPIRED" }, new int[] { 60, 25, 15 });
+		boolean notified = !"CANCELLED".equals(status);
+		LocalDate closed = reserved.plusDays(random.nextInt(1, 8));
+		return new Object[] { id, reserved.atTime(9, 0), reserved.plusDays(7), null,
+				notified ? closed.atTime(8, 0) : null, notified, 1, reserved, status, closed.atTime(12, 0),
+				bookId, memberId };
+	}
+
+	private static BigDecimal fine(long daysOverdue) {
+		return DAILY_FINE_RATE.multiply(BigDecimal.valueOf(daysOverdue)).min(MAX_FINE_AMOUNT);
+	}
+
+	private int pick(int[] values, int[] weights) {
+		return values[weightedIndex(weights)];
+	}
+
+	private <T> T pick(T[] values, int[] weights) {
+		return values[weightedIndex(weights)];
+	}
+
+	private int weightedIndex(int[] weights) {
+		int roll = random.nextInt(100);
+		for (int i = 0; i < weights.length; i++) {
+			roll -= weights[i];
+			if (roll < 0) {
+				return i;
+			}
+		}
+		return weights.length - 1;
+	}
+
+	private static void log(String table, long rows) {
+		System.out.printf("  %-20s %,d rows%n", table, rows);
+	}
+
+}
\ No newline at end of file
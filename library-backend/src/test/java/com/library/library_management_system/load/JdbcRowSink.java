@@ -0,0 +1,102 @@
+package com.library.library_management_system.load;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Writes rows with JDBC batches, committing once per batch. Against MySQL, add
+ * {@code rewriteBatchedStatements=true} to the URL so each batch goes out as one
+ * multi-row INSERT.
+ */
+final class JdbcRowSink implements RowSink {
+
+	private final Connection connection;
+
+	private final int batchSize;
+
+	private final Map<Table, PreparedStatement> statements = new EnumMap<>(Table.class);
+
+	private final Map<Table, Integer> pending = new EnumMap<>(Table.class);
+
+	private final Map<Table, Long> maxIds = new EnumMap<>(Table.class);
+
+	private Table current;
+
+	JdbcRowSink(Connection connection, int batchSize) throws SQLException {
+		this.connection = connection;
+		this.batchSize = batchSize;
+		connection.setAutoCommit(false);
+	}
+
+	@Override
+	public long firstId(Table table) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table.tableName())) {
+			result.next();
+			return result.getLong(1) + 1;
+		}
+	}
+
+	@Override
+	public void row(Table table, Object... values) throws SQLException {
+		if (table != current) {
+			// Parent rows must be in before the first child batch references them
+			flushAll();
+			current = table;
+		}
+		PreparedStatement statement = statements.get(table);
+		if (statement == null) {
+			statement = connection.prepareStatement(table.insertSql());
+			statements.put(table, statement);
+		}
+		for (int i = 0; i < values.length; i++) {
+			statement.setObject(i + 1, values[i]);
+		}
+		statement.addBatch();
+		maxIds.merge(table, (Long) values[0], Math::max);
+		if (pending.merge(table, 1, Integer::sum) >= batchSize) {
+			flush(table);
+		}
+	}
+
+	@Override
+	public void close() throws SQLException {
+		try {
+			flushAll();
+			// H2 does not move an identity column past explicitly inserted ids; MySQL does
+			if ("H2".equals(connection.getMetaData().getDatabaseProductName())) {
+				try (Statement statement = connection.createStatement()) {
+					for (Map.Entry<Table, Long> maxId : maxIds.entrySet()) {
+						statement.execute("ALTER TABLE " + maxId.getKey().tableName()
+								+ " ALTER COLUMN id RESTART WITH " + (maxId.getValue() + 1));
+					}
+				}
+				connection.commit();
+			}
+		} finally {
+			for (PreparedStatement statement : statements.values()) {
+				statement.close();
+			}
+		}
+	}
+
+	private void flushAll() throws SQLException {
+		for (Table table : statements.keySet()) {
+			if (pending.getOrDefault(table, 0) > 0) {
+				flush(table);
+			}
+		}
+	}
+
+	private void flush(Table table) throws SQLException {
+		statements.get(table).executeBatch();
+		connection.commit();
+		pending.put(table, 0);
+	}
+
+}
\ No newline at end of file
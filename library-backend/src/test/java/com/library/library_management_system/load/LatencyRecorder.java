@@ -0,0 +1,52 @@
+package com.library.library_management_system.load;
+
+import java.util.Arrays;
+
+/**
+ * Collects raw latency samples for one operation and reduces them to percentiles.
+ */
+final class LatencyRecorder {
+
+	private long[] samples = new long[4096];
+
+	private int count;
+
+	private long errors;
+
+	synchronized void record(long nanos) {
+		if (count == samples.length) {
+			samples = Arrays.copyOf(samples, count * 2);
+		}
+		samples[count++] = nanos;
+	}
+
+	synchronized void recordError() {
+		errors++;
+	}
+
+	synchronized Summary summarize(double elapsedSeconds) {
+		long[] sorted = Arrays.copyOf(samples, count);
+		Arrays.sort(sorted);
+		return new Summary(count, errors, count / elapsedSeconds,
+				percentileMillis(sorted, 50), percentileMillis(sorted, 90),
+				percentileMillis(sorted, 99), percentileMillis(sorted, 100));
+	}
+
+	private static double percentileMillis(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1_000_000.0;
+	}
+
+	record Summary(long count, long errors, double throughput,
+			double p50Millis, double p90Millis, double p99Millis, double maxMillis) {
+
+		double errorRate() {
+			long total = count + errors;
+			return total == 0 ? 0 : (double) errors / total;
+		}
+	}
+
+}
\ No newline at end of file
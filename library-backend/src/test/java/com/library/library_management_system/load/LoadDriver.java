@@ -0,0 +1,198 @@
+package com.library.library_management_system.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load driver with two modes, each running a warm-up period that is not recorded
+ * before the measured period:
+ * <ul>
+ * <li>closed loop: a fixed number of workers run the workload back to back;</li>
+ * <li>open loop: iterations arrive at a fixed rate whether or not earlier ones have
+ * finished, so a slow server shows up as latency and dropped arrivals instead of
+ * silently lowering the offered load.</li>
+ * </ul>
+ */
+final class LoadDriver {
+
+	/** Operation under which open-loop arrivals that found no idle worker are counted. */
+	static final String DROPPED = "(dropped arrivals)";
+
+	/**
+	 * One iteration of a workload. Worker ids are stable, so a workload can give each
+	 * worker its own member or book and keep iterations independent.
+	 */
+	@FunctionalInterface
+	interface Workload {
+
+		void iteration(int worker, Probe probe) throws Exception;
+
+	}
+
+	private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+
+	private volatile boolean recording;
+
+	Map<String, LatencyRecorder.Summary> runClosedLoop(int concurrency, Duration warmup, Duration duration,
+			Workload workload) throws InterruptedException {
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		try {
+			runFor(workers, concurrency, warmup, workload);
+			recording = true;
+			long start = System.nanoTime();
+			runFor(workers, concurrency, duration, workload);
+			recording = false;
+			return summarize((System.nanoTime() - start) / 1_000_000_000.0);
+		} finally {
+			workers.shutdownNow();
+		}
+	}
+
+	/**
+	 * Starts {@code ratePerSecond} iterations per second. At most {@code maxInFlight}
+	 * run at once; each running iteration holds a distinct worker id, so per-worker
+	 * members and books stay independent just as in the closed loop.
+	 */
+	Map<String, LatencyRecorder.Summary> runOpenLoop(double ratePerSecond, int maxInFlight, Duration warmup,
+			Duration duration, Workload workload) throws InterruptedException {
+		ExecutorService workers = Executors.newFixedThreadPool(maxInFlight);
+		BlockingQueue<Integer> idle = new ArrayBlockingQueue<>(maxInFlight);
+		for (int worker = 0; worker < maxInFlight; worker++) {
+			idle.add(worker);
+		}
+		try {
+			arrive(workers, idle, ratePerSecond, warmup, workload);
+			recording = true;
+			long start = System.nanoTime();
+			arrive(workers, idle, ratePerSecond, duration, workload);
+			double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+			awaitIdle(idle, maxInFlight);
+			recording = false;
+			return summarize(elapsedSeconds);
+		} finally {
+			workers.shutdownNow();
+		}
+	}
+
+	private void arrive(ExecutorService workers, BlockingQueue<Integer> idle, double ratePerSecond,
+			Duration period, Workload workload) {
+		long interval = (long) (1_000_000_000L / ratePerSecond);
+		long start = System.nanoTime();
+		long deadline = start + period.toNanos();
+		for (long next = start; next < deadline; next += interval) {
+			long wait = next - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			Integer worker = idle.poll();
+			if (worker == null) {
+				if (recording) {
+					recorder(DROPPED).recordError();
+				}
+				continue;
+			}
+			workers.execute(() -> {
+				try {
+					workload.iteration(worker, new Probe());
+				} catch (Exception e) {
+					// failures are already counted by the probe
+				} finally {
+					idle.add(worker);
+				}
+			});
+		}
+	}
+
+	private static void awaitIdle(BlockingQueue<Integer> idle, int maxInFlight) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+		while (idle.size() < maxInFlight && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private void runFor(ExecutorService workers, int concurrency, Duration period, Workload workload)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + period.toNanos();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int worker = 0; worker < concurrency; worker++) {
+			int id = worker;
+			futures.add(workers.submit(() -> {
+				Probe probe = new Probe();
+				while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+					try {
+						workload.iteration(id, probe);
+					} catch (Exception e) {
+						// failures are already counted by the probe
+					}
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			try {
+				future.get(period.toMillis() + 60_000, TimeUnit.MILLISECONDS);
+			} catch (Exception e) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	Map<String, LatencyRecorder.Summary> summarize(double elapsedSeconds) {
+		Map<String, LatencyRecorder.Summary> summaries = new LinkedHashMap<>();
+		synchronized (recorders) {
+			recorders.forEach((name, recorder) -> summaries.put(name, recorder.summarize(elapsedSeconds)));
+		}
+		return summaries;
+	}
+
+	LatencyRecorder recorder(String operation) {
+		synchronized (recorders) {
+			return recorders.computeIfAbsent(operation, name -> new LatencyRecorder());
+		}
+	}
+
+	static String format(String title, Map<String, LatencyRecorder.Summary> summaries) {
+		StringBuilder report = new StringBuilder(title).append('\n');
+		report.append(String.format("%-48s %9s %7s %8s %10s %9s %9s %9s %9s%n",
+				"operation", "count", "errors", "err%", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+		summaries.forEach((name, s) -> report.append(String.format("%-48s %9d %7d %7.2f%% %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+				name, s.count(), s.errors(), s.errorRate() * 100, s.throughput(),
+				s.p50Millis(), s.p90Millis(), s.p99Millis(), s.maxMillis())));
+		return report.toString();
+	}
+
+	/**
+	 * Times individual calls inside an iteration. A call that throws is counted as an
+	 * error for its operation and the exception is propagated to end the iteration.
+	 */
+	final class Probe {
+
+		<T> T time(String operation, Callable<T> call) throws Exception {
+			long start = System.nanoTime();
+			try {
+				T result = call.call();
+				if (recording) {
+					recorder(operation).record(System.nanoTime() - start);
+				}
+				return result;
+			} catch (Exception e) {
+				if (recording) {
+					recorder(operation).recordError();
+				}
+				throw e;
+			}
+		}
+
+	}
+
+}
\ No newline at end of file
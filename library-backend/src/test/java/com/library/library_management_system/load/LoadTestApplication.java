@@ -0,0 +1,44 @@
+package com.library.library_management_system.load;
+
+import com.library.library_management_system.LibraryManagementSystemApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the full application on a random port for the load harnesses. Uses a private
+ * in-memory H2 database in MySQL mode unless {@code -Dbenchmark.datasource.url} (and
+ * {@code .username}/{@code .password}) point at a real MySQL instance.
+ */
+final class LoadTestApplication {
+
+	private LoadTestApplication() {
+	}
+
+	static ConfigurableApplicationContext start(String databaseName, String... profiles) {
+		List<String> args = new ArrayList<>(List.of("--server.port=0", "--library.archive.cron=-", "--library.purge.cron=-",
+				"--library.rate-limit.enabled=false"));
+		String url = System.getProperty("benchmark.datasource.url");
+		if (url != null) {
+			args.add("--spring.datasource.url=" + url);
+			args.add("--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "root"));
+			args.add("--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""));
+			args.add("--spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver");
+			args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect");
+			args.add("--spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect");
+		} else {
+			args.add("--spring.datasource.url=jdbc:h2:mem:" + databaseName
+					+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		}
+		return new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+				.profiles(profiles)
+				.run(args.toArray(String[]::new));
+	}
+
+	static int port(ConfigurableApplicationContext context) {
+		return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+	}
+
+}
\ No newline at end of file
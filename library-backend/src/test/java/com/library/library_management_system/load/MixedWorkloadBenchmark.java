@@ -0,0 +1,185 @@
+package com.library.library_management_system.load;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * End-to-end load run: boots the application against an embedded database, fills it
+ * with {@link DatasetGenerator} (sized by {@code benchmark.members}, {@code .books},
+ * {@code .transactions} and {@code .reservations}), then drives a weighted mix of catalogue search, borrow/return, reservations and
+ * dashboard polling at a fixed arrival rate. It prints throughput, latency percentiles
+ * and error rate for every {@code BookController}, {@code BorrowTransactionController}
+ * and {@code ReservationController} endpoint it hits. Like {@link ThreadModelBenchmark}
+ * it is not part of the regular test run:
+ *
+ * <pre>
+ * ./mvnw test -Dtest=MixedWorkloadBenchmark -Dsurefire.failIfNoSpecifiedTests=false -Dbenchmark.rps=400
+ * </pre>
+ *
+ * Arrivals that find all {@code benchmark.max-in-flight} workers busy are reported as
+ * {@value LoadDriver#DROPPED}; a non-zero count means the server could not keep up
+ * with the offered rate.
+ */
+class MixedWorkloadBenchmark {
+
+	private static final double RPS = Double.parseDouble(System.getProperty("benchmark.rps", "200"));
+
+	private static final int MAX_IN_FLIGHT = Integer.getInteger("benchmark.max-in-flight", 64);
+
+	private static final int MEMBERS = Integer.getInteger("benchmark.members", 5_000);
+
+	private static final int BOOKS = Integer.getInteger("benchmark.books", 20_000);
+
+	private static final long TRANSACTIONS = Long.getLong("benchmark.transactions", 200_000L);
+
+	private static final int RESERVATIONS = Integer.getInteger("benchmark.reservations", 20_000);
+
+	private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 10));
+
+	private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 60));
+
+	// Scenario weights, in percent
+	private static final int SEARCH = 35;
+
+	private static final int BROWSE = 10;
+
+	private static final int BORROW_RETURN = 20;
+
+	private static final int RESERVE = 10;
+
+	private static final int DASHBOARD = 20;
+
+	@Test
+	void mixedWorkload() throws Exception {
+		try (ConfigurableApplicationContext context = LoadTestApplication.start("bench_mixed", "test")) {
+			Dataset data = seed(context);
+			ApiClient api = new ApiClient(LoadTestApplication.port(context));
+			
+			Map<String, LatencyRecorder.Summary> summaries = new LoadDriver().runOpenLoop(RPS, MAX_IN_FLIGHT,
+					WARMUP, DURATION, (worker, probe) -> {
+						int scenario = ThreadLocalRandom.current().nextInt(100);
+						long memberId = data.memberIds().get(worker);
+						if (scenario < SEARCH) {
+							search(api, probe, data);
+						} else if (scenario < SEARCH + BROWSE) {
+							browse(api, probe);
+						} else if (scenario < SEARCH + BROWSE + BORROW_RETURN) {
+							borrowAndReturn(api, probe, data, memberId);
+						} else if (scenario < SEARCH + BROWSE + BORROW_RETURN + RESERVE) {
+							reserveAndCancel(api, probe, data, memberId);
+						} else if (scenario < SEARCH + BROWSE + BORROW_RETURN + RESERVE + DASHBOARD) {
+							memberDashboard(api, probe, memberId);
+						} else {
+							adminDashboard(api, probe);
+						}
+					});
+			
+			System.out.println(LoadDriver.format(String.format("mixed workload, %.0f req/s offered, %d books, %d members,"
+					+ " %d loans", RPS, BOOKS, MEMBERS, TRANSACTIONS), summaries));
+		}
+	}
+
+	private static void search(ApiClient api, LoadDriver.Probe probe, Dataset data) throws Exception {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String term = DatasetGenerator.TITLE_WORDS.get(random.nextInt(DatasetGenerator.TITLE_WORDS.size()));
+		probe.time("GET /api/books/search", () -> api.get("/api/books/search?searchTerm=" + term));
+		long bookId = data.pickBook(random);
+		probe.time("GET /api/books/{id}", () -> api.get("/api/books/" + bookId));
+		probe.time("GET /api/books/{id}/availability", () -> api.get("/api/books/" + bookId + "/availability"));
+	}
+
+	private static void browse(ApiClient api, LoadDriver.Probe probe) throws Exception {
+		List<String> categories = DatasetGenerator.CATEGORIES;
+		String category = categories.get(ThreadLocalRandom.current().nextInt(categories.size()));
+		probe.time("GET /api/books/categories", () -> api.get("/api/books/categories"));
+		probe.time("GET /api/books/category/{category}", () -> api.get("/api/books/category/" + category));
+		probe.time("GET /api/books/advanced-search", () -> api.get("/api/books/advanced-search?category="
+				+ category + "&availableOnly=true"));
+	}
+
+	private static void borrowAndReturn(ApiClient api, LoadDriver.Probe probe, Dataset data, long memberId)
+			throws Exception {
+		Map<String, Long> borrow = Map.of("userId", memberId, "bookId", data.pickBook(ThreadLocalRandom.current()));
+		String transaction = probe.time("POST /api/transactions/borrow", () -> api.post("/api/transactions/borrow", borrow));
+		long transactionId = ApiClient.readId(transaction);
+		try {
+			probe.time("POST /api/transactions/{id}/renew", () -> api.post("/api/transactions/" + transactionId + "/renew", null));
+		} finally {
+			// Always return so the member never drifts into the borrowing limit
+			probe.time("POST /api/transactions/{id}/return", () -> api.post("/api/transactions/" + transactionId + "/return", null));
+		}
+	}
+
+	private static void reserveAndCancel(ApiClient api, LoadDriver.Probe probe, Dataset data, long memberId)
+			throws Exception {
+		long bookId = data.pickHeldBook(ThreadLocalRandom.current());
+		probe.time("GET /api/reservations/can-reserve", () -> api.get("/api/reservations/can-reserve?userId="
+				+ memberId + "&bookId=" + bookId));
+		Map<String, Long> reserve = Map.of("userId", memberId, "bookId", bookId);
+		String reservation = probe.time("POST /api/reservations", () -> api.post("/api/reservations", reserve));
+		long reservationId = ApiClient.readId(reservation);
+		try {
+			probe.time("GET /api/reservations/book/{bookId}/queue", () -> api.get("/api/reservations/book/" + bookId + "/queue"));
+		} finally {
+			probe.time("POST /api/reservations/{id}/cancel", () -> api.post("/api/reservations/" + reservationId + "/cancel", null));
+		}
+	}
+
+	private static void memberDashboard(ApiClient api, LoadDriver.Probe probe, long memberId) throws Exception {
+		probe.time("GET /api/transactions/user/{userId}/active", () -> api.get("/api/transactions/user/" + memberId + "/active"));
+		probe.time("GET /api/reservations/user/{userId}/active", () -> api.get("/api/reservations/user/" + memberId + "/active"));
+		probe.time("GET /api/transactions/user/{userId}/history", () -> api.get("/api/transactions/user/" + memberId + "/history"));
+	}
+
+	private static void adminDashboard(ApiClient api, LoadDriver.Probe probe) throws Exception {
+		probe.time("GET /api/books/statistics", () -> api.get("/api/books/statistics"));
+		probe.time("GET /api/transactions/statistics", () -> api.get("/api/transactions/statistics"));
+		probe.time("GET /api/reservations/statistics", () -> api.get("/api/reservations/statistics"));
+		probe.time("GET /api/transactions/overdue", () -> api.get("/api/transactions/overdue"));
+		probe.time("GET /api/transactions/due-soon", () -> api.get("/api/transactions/due-soon"));
+		probe.time("GET /api/books/low-availability", () -> api.get("/api/books/low-availability"));
+	}
+
+	private static Dataset seed(ConfigurableApplicationContext context) throws Exception {
+		DatasetGenerator.Config config = new DatasetGenerator.Config(MEMBERS, BOOKS, TRANSACTIONS, RESERVATIONS,
+				0.08, 1.0, 730, 42L);
+		DatasetGenerator.Result result;
+		try (Connection connection = context.getBean(DataSource.class).getConnection();
+				RowSink sink = new JdbcRowSink(connection, 1_000)) {
+			result = DatasetGenerator.generate(config, sink);
+		}
+		
+		// Workers act as members with nothing on loan or hold, one member per worker
+		List<Long> memberIds = result.idleMembers().stream().limit(MAX_IN_FLIGHT)
+				.mapToObj(result::memberId).toList();
+		if (memberIds.size() < MAX_IN_FLIGHT) {
+			throw new IllegalStateException("Only " + memberIds.size() + " idle members for " + MAX_IN_FLIGHT + " workers");
+		}
+		List<Long> available = new ArrayList<>();
+		List<Long> held = new ArrayList<>();
+		for (int book = 0; book < result.books(); book++) {
+			(result.heldBooks().get(book) ? held : available).add(result.bookId(book));
+		}
+		return new Dataset(memberIds, available, held);
+	}
+
+	private record Dataset(List<Long> memberIds, List<Long> availableBookIds, List<Long> heldBookIds) {
+
+		long pickBook(ThreadLocalRandom random) {
+			return availableBookIds.get(random.nextInt(availableBookIds.size()));
+		}
+
+		long pickHeldBook(ThreadLocalRandom random) {
+			return heldBookIds.get(random.nextInt(heldBookIds.size()));
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.library.library_management_system.load;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Destination for generated rows. {@link DatasetGenerator} writes whole tables in
+ * foreign-key order (users, books, loans, reservations) with explicit ids.
+ */
+interface RowSink extends AutoCloseable {
+
+	/** First id the generator may use for {@code table} without clashing with existing rows. */
+	long firstId(Table table) throws Exception;
+
+	/** Writes one row; {@code values} follow {@link Table#columns()} and start with the id. */
+	void row(Table table, Object... values) throws Exception;
+
+	@Override
+	void close() throws Exception;
+
+	enum Table {
+
+		USERS("users", List.of("id", "address", "created_at", "email", "full_name", "membership_end_date",
+				"membership_start_date", "membership_type", "password", "phone", "role", "updated_at", "username")),
+
+		BOOKS("books", List.of("id", "author", "available_copies", "category", "created_at", "description", "isbn",
+				"publication_year", "publisher", "shelf_location", "status", "title", "total_copies", "updated_at")),
+
+		BORROW_TRANSACTIONS("borrow_transactions", List.of("id", "borrow_date", "created_at", "due_date",
+				"fine_amount", "fine_paid", "notes", "renewal_count", "return_date", "status", "updated_at", "book_id",
+				"user_id")),
+
+		RESERVATIONS("reservations", List.of("id", "created_at", "expiry_date", "notes", "notification_date",
+				"notification_sent", "queue_position", "reservation_date", "status", "updated_at", "book_id", "user_id"));
+
+		private final String tableName;
+
+		private final List<String> columns;
+
+		Table(String tableName, List<String> columns) {
+			this.tableName = tableName;
+			this.columns = columns;
+		}
+
+		String tableName() {
+			return tableName;
+		}
+
+		List<String> columns() {
+			return columns;
+		}
+
+		String insertSql() {
+			return "INSERT INTO " + tableName + " (" + String.join(", ", columns) + ") VALUES ("
+					+ columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+		}
+
+	}
+
+}
\ No newline at end of file
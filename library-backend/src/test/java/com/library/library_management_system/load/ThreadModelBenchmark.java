@@ -0,0 +1,95 @@
+package com.library.library_management_system.load;
+
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.repository.BookRepository;
+import com.library.library_management_system.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares throughput and tail latency of the search and borrow/return endpoints with
+ * Tomcat on platform threads against the {@code virtual-threads} profile. Not part of
+ * the regular test run (the class name does not match the surefire includes):
+ *
+ * <pre>
+ * ./mvnw test -Dtest=ThreadModelBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ *
+ * Runs against in-memory H2 unless {@code -Dbenchmark.datasource.url} points at MySQL
+ * (see {@link LoadTestApplication}), where JDBC waits dominate and the difference
+ * between the thread models actually shows. Virtual threads need a Java 21+
+ * runtime; on older JVMs both runs use platform threads.
+ */
+class ThreadModelBenchmark {
+
+	private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 200);
+
+	private static final int BOOKS = Integer.getInteger("benchmark.books", 500);
+
+	private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 10));
+
+	private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 30));
+
+	@Test
+	void compareThreadModels() throws Exception {
+		Map<String, Map<String, LatencyRecorder.Summary>> results = new LinkedHashMap<>();
+		results.put("platform", run("platform", "test"));
+		results.put("virtual", run("virtual", "test", "virtual-threads"));
+		
+		System.out.println("Java " + Runtime.version() + ", concurrency " + CONCURRENCY);
+		results.forEach((mode, summaries) -> System.out.println(LoadDriver.format(mode + " threads", summaries)));
+	}
+
+	private Map<String, LatencyRecorder.Summary> run(String mode, String... profiles) throws Exception {
+		try (ConfigurableApplicationContext context = LoadTestApplication.start("bench_" + mode, profiles)) {
+			String prefix = "bench-" + mode + "-" + System.currentTimeMillis();
+			List<Long> memberIds = seedMembers(context, prefix, CONCURRENCY);
+			List<Long> bookIds = seedBooks(context, prefix, BOOKS);
+			
+			ApiClient api = new ApiClient(LoadTestApplication.port(context));
+			LoadDriver driver = new LoadDriver();
+			return driver.runClosedLoop(CONCURRENCY, WARMUP, DURATION, (worker, probe) -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				String term = String.format("Title %03d", random.nextInt(BOOKS / 10 + 1));
+				probe.time("GET /api/books/search", () -> api.get("/api/books/search?searchTerm=" + term.replace(" ", "%20")));
+				
+				Map<String, Long> borrow = Map.of(
+						"userId", memberIds.get(worker % memberIds.size()),
+						"bookId", bookIds.get(random.nextInt(bookIds.size())));
+				String transaction = probe.time("POST /api/transactions/borrow", () -> api.post("/api/transactions/borrow", borrow));
+				long transactionId = ApiClient.readId(transaction);
+				probe.time("POST /api/transactions/{id}/return", () -> api.post("/api/transactions/" + transactionId + "/return", null));
+			});
+		}
+	}
+
+	private static List<Long> seedMembers(ConfigurableApplicationContext context, String prefix, int count) {
+		UserService userService = context.getBean(UserService.class);
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			User member = new User(prefix + "-m" + i, "secret", "Benchmark Member " + i,
+					prefix + "-m" + i + "@example.com", User.Role.MEMBER);
+			member.setMembershipType(User.MembershipType.STANDARD);
+			ids.add(userService.createUser(member).getId());
+		}
+		return ids;
+	}
+
+	private static List<Long> seedBooks(ConfigurableApplicationContext context, String prefix, int count) {
+		List<Book> books = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			books.add(new Book(prefix + "-" + i, String.format("Benchmark Title %04d", i),
+					"Benchmark Author " + (i % 50), "Benchmark", 2000 + i % 25, 1_000));
+		}
+		return context.getBean(BookRepository.class).saveAll(books).stream().map(Book::getId).toList();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.library.library_management_system.load;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws items {@code 0..n-1} with Zipf-distributed frequency: the item of popularity
+ * rank {@code k} comes up with probability proportional to {@code 1/k^s}. Ranks go
+ * through a fixed random permutation, so the popular items are spread across the id
+ * range instead of being the lowest ids.
+ */
+final class ZipfSampler {
+
+	private final double[] cumulative;
+
+	private final int[] itemByRank;
+
+	private final Random random;
+
+	ZipfSampler(int n, double exponent, Random random) {
+		this.random = random;
+		cumulative = new double[n];
+		double sum = 0;
+		for (int rank = 0; rank < n; rank++) {
+			sum += 1.0 / Math.pow(rank + 1, exponent);
+			cumulative[rank] = sum;
+		}
+		for (int rank = 0; rank < n; rank++) {
+			cumulative[rank] /= sum;
+		}
+		itemByRank = new int[n];
+		for (int i = 0; i < n; i++) {
+			itemByRank[i] = i;
+		}
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = itemByRank[i];
+			itemByRank[i] = itemByRank[j];
+			itemByRank[j] = swap;
+		}
+	}
+
+	int next() {
+		int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+		if (rank < 0) {
+			rank = -rank - 1;
+		}
+		return itemByRank[Math.min(rank, itemByRank.length - 1)];
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,240 @@
+package com.library.library_management_system.repository;
+
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.BorrowTransaction;
+import com.library.library_management_system.entity.Reservation;
+import com.library.library_management_system.entity.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs the repository queries against the migrated schema and fails if the
+ * EXPLAIN plan of any statement they issue falls back to a full scan.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.library.library_management_system.repository.RepositoryQueryPlanTests$RecordingStatementInspector")
+class RepositoryQueryPlanTests {
+
+	// "/* public.books.tableScan */" or an index walked without a condition, e.g. "/* public.idx_books_author */"
+	private static final Pattern TABLE_ACCESS = Pattern.compile("/\\*\\s*([\\w.\"]+)(:[^*]*)?\\s*\\*/");
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BorrowTransactionRepository borrowTransactionRepository;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	@Autowired
+	private BorrowTransactionArchiveRepository borrowTransactionArchiveRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private User user;
+
+	private Book book;
+
+	@BeforeEach
+	void setUp() {
+		user = userRepository.saveAndFlush(
+				new User("plan.member", "secret", "Plan Member", "plan.member@example.com", User.Role.MEMBER));
+		book = bookRepository.saveAndFlush(
+				new Book("978-0-000-00000-1", "Plan Book", "Plan Author", "Fiction", 2020, 2));
+	}
+
+	// Not checked on purpose: findAll and the unfiltered summary lists, the LIKE '%term%' searches, findMostBorrowedBooks,
+	// findAllCategories/findAllAuthors (whole-table aggregates) and findArchivableTransactionIds
+	// (a background batch that walks the primary key in id order). findByIsbn and findByUsername
+	// resolve through the natural-id cache and only ever hit the unique keys.
+
+	@Test
+	void borrowTransactionQueriesUseIndexes() {
+		LocalDate today = LocalDate.now();
+		assertIndexed("findByUser", () -> borrowTransactionRepository.findByUser(user));
+		assertIndexed("findByBook", () -> borrowTransactionRepository.findByBook(book));
+		assertIndexed("findByStatus", () -> borrowTransactionRepository.findByStatus(BorrowTransaction.TransactionStatus.OVERDUE));
+		assertIndexed("findActiveBorrowingsByUser", () -> borrowTransactionRepository.findActiveBorrowingsByUser(user));
+		assertIndexed("countActiveBorrowingsByUser", () -> borrowTransactionRepository.countActiveBorrowingsByUser(user));
+		assertIndexed("findOverdueTransactions", () -> borrowTransactionRepository.findOverdueTransactions(today));
+		assertIndexed("findOverdueTransactionsForSweep", () -> borrowTransactionRepository.findOverdueTransactionsForSweep(today));
+		assertIndexed("findTransactionsDueSoon", () -> borrowTransactionRepository.findTransactionsDueSoon(today, today.plusDays(3)));
+		assertIndexed("findByBorrowDateBetween", () -> borrowTransactionRepository.findByBorrowDateBetween(today.minusDays(30), today));
+		assertIndexed("findTransactionsWithUnpaidFines", () -> borrowTransactionRepository.findTransactionsWithUnpaidFines());
+		assertIndexed("findBorrowingHistoryByUser", () -> borrowTransactionRepository.findBorrowingHistoryByUser(user));
+		assertIndexed("hasUserBorrowedBook", () -> borrowTransactionRepository.hasUserBorrowedBook(user, book));
+		assertIndexed("findByUserId", () -> borrowTransactionRepository.findByUserId(user.getId()));
+		assertIndexed("findOverdueLoanSummaries", () -> borrowTransactionRepository.findOverdueLoanSummaries(today));
+		assertIndexed("findActiveLoanSummariesByUserId", () -> borrowTransactionRepository.findActiveLoanSummariesByUserId(user.getId()));
+		assertIndexed("findLoanSummariesByUserId", () -> borrowTransactionRepository.findLoanSummariesByUserId(user.getId()));
+		assertIndexed("findIdsByUserId", () -> borrowTransactionRepository.findIdsByUserId(user.getId(), PageRequest.of(0, 10)));
+		assertIndexed("findIdsByBookId", () -> borrowTransactionRepository.findIdsByBookId(book.getId(), PageRequest.of(0, 10)));
+	}
+
+	@Test
+	void reservationQueriesUseIndexes() {
+		LocalDate today = LocalDate.now();
+		assertIndexed("findByUser", () -> reservationRepository.findByUser(user));
+		assertIndexed("findByBook", () -> reservationRepository.findByBook(book));
+		assertIndexed("findByStatus", () -> reservationRepository.findByStatus(Reservation.ReservationStatus.AVAILABLE));
+		assertIndexed("findActiveReservationsByUser", () -> reservationRepository.findActiveReservationsByUser(user));
+		assertIndexed("findActiveReservationsByBook", () -> reservationRepository.findActiveReservationsByBook(book));
+		assertIndexed("countActiveReservationsByUser", () -> reservationRepository.countActiveReservationsByUser(user));
+		assertIndexed("findExpiredReservations", () -> reservationRepository.findExpiredReservations(today));
+		assertIndexed("findReservationsNeedingNotification", () -> reservationRepository.findReservationsNeedingNotification());
+		assertIndexed("findNextReservationInQueue", () -> reservationRepository.findNextReservationInQueue(book));
+		assertIndexed("hasUserReservedBook", () -> reservationRepository.hasUserReservedBook(user, book));
+		assertIndexed("findReservationsExpiringSoon", () -> reservationRepository.findReservationsExpiringSoon(today, today.plusDays(3)));
+		assertIndexed("calculateQueuePosition", () -> reservationRepository.calculateQueuePosition(book, today));
+		assertIndexed("findHoldSummariesByUserId", () -> reservationRepository.findHoldSummariesByUserId(user.getId()));
+		assertIndexed("findActiveHoldSummariesByBookId", () -> reservationRepository.findActiveHoldSummariesByBookId(book.getId()));
+		assertIndexed("findIdsByUserId", () -> reservationRepository.findIdsByUserId(user.getId(), PageRequest.of(0, 10)));
+		assertIndexed("findIdsByBookId", () -> reservationRepository.findIdsByBookId(book.getId(), PageRequest.of(0, 10)));
+	}
+
+	@Test
+	void bookQueriesUseIndexes() {
+		assertIndexed("existsByIsbn", () -> bookRepository.existsByIsbn("978-0-000-00000-1"));
+		assertIndexed("findByCategory", () -> bookRepository.findByCategory("Fiction"));
+		assertIndexed("findByStatus", () -> bookRepository.findByStatus(Book.BookStatus.DAMAGED));
+		assertIndexed("findAvailableBooks", () -> bookRepository.findAvailableBooks());
+		assertIndexed("findByPublicationYearBetween", () -> bookRepository.findByPublicationYearBetween(2000, 2010));
+		assertIndexed("findBooksWithLowAvailability", () -> bookRepository.findBooksWithLowAvailability(2));
+		assertIndexed("findAvailableSummaries", () -> bookRepository.findAvailableSummaries());
+		assertIndexed("findSummariesByCategory", () -> bookRepository.findSummariesByCategory("Fiction"));
+		assertIndexed("findDeletedIds", () -> bookRepository.findDeletedIds(LocalDateTime.now(), PageRequest.of(0, 10)));
+	}
+
+	@Test
+	void userQueriesUseIndexes() {
+		assertIndexed("findByEmail", () -> userRepository.findByEmail("plan.member@example.com"));
+		assertIndexed("existsByUsername", () -> userRepository.existsByUsername("plan.member"));
+		assertIndexed("existsByEmail", () -> userRepository.existsByEmail("plan.member@example.com"));
+		assertIndexed("findByRole", () -> userRepository.findByRole(User.Role.ADMIN));
+		assertIndexed("findByMembershipType", () -> userRepository.findByMembershipType(User.MembershipType.STUDENT));
+		assertIndexed("findAllMembers", () -> userRepository.findAllMembers());
+		assertIndexed("findUsersWithExpiredMembership", () -> userRepository.findUsersWithExpiredMembership());
+		assertIndexed("findNewlyExpiredMemberIds",
+				() -> userRepository.findNewlyExpiredMemberIds(LocalDateTime.now(), PageRequest.of(0, 10)));
+		assertIndexed("findDeletedIds", () -> userRepository.findDeletedIds(LocalDateTime.now(), PageRequest.of(0, 10)));
+	}
+
+	@Test
+	void archiveQueriesUseIndexes() {
+		LocalDate today = LocalDate.now();
+		assertIndexed("findByUserIdOrderByBorrowDateDesc", () -> borrowTransactionArchiveRepository.findByUserIdOrderByBorrowDateDesc(user.getId()));
+		assertIndexed("findByBorrowDateBetween", () -> borrowTransactionArchiveRepository.findByBorrowDateBetween(today.minusDays(30), today));
+		assertIndexed("findLoanSummariesByUserId", () -> borrowTransactionArchiveRepository.findLoanSummariesByUserId(user.getId()));
+	}
+
+	private void assertIndexed(String queryName, Runnable query) {
+		RecordingStatementInspector.clear();
+		query.run();
+		
+		List<String> selects = RecordingStatementInspector.drain().stream()
+				.filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+				.toList();
+		if (selects.isEmpty()) {
+			fail(queryName + " did not issue a SELECT statement");
+		}
+		
+		for (String sql : selects) {
+			String plan = explain(sql);
+			Matcher matcher = TABLE_ACCESS.matcher(plan);
+			while (matcher.find()) {
+				boolean tableScan = matcher.group(1).toLowerCase().endsWith(".tablescan");
+				boolean unconditionedIndexScan = matcher.group(2) == null;
+				assertFalse(tableScan || unconditionedIndexScan,
+						queryName + " regressed to a full scan:\n" + plan);
+			}
+		}
+	}
+
+	private String explain(String sql) {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+			ParameterMetaData metaData = statement.getParameterMetaData();
+			for (int i = 1; i <= metaData.getParameterCount(); i++) {
+				bindSampleValue(statement, i, metaData.getParameterType(i));
+			}
+			try (ResultSet resultSet = statement.executeQuery()) {
+				resultSet.next();
+				return resultSet.getString(1);
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException("Could not explain: " + sql, e);
+		}
+	}
+
+	// EXPLAIN does not evaluate the parameters, they only need to be bound
+	private static void bindSampleValue(PreparedStatement statement, int index, int sqlType) throws SQLException {
+		switch (sqlType) {
+			case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT, Types.DECIMAL, Types.NUMERIC ->
+					statement.setLong(index, 1L);
+			case Types.DATE -> statement.setDate(index, java.sql.Date.valueOf(LocalDate.now()));
+			case Types.TIMESTAMP -> statement.setTimestamp(index, new java.sql.Timestamp(System.currentTimeMillis()));
+			case Types.BOOLEAN, Types.BIT -> statement.setBoolean(index, false);
+			default -> statement.setString(index, "1");
+		}
+	}
+
+	public static class RecordingStatementInspector implements StatementInspector {
+
+		private static final List<String> STATEMENTS = new ArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			synchronized (STATEMENTS) {
+				STATEMENTS.add(sql);
+			}
+			return sql;
+		}
+
+		static void clear() {
+			synchronized (STATEMENTS) {
+				STATEMENTS.clear();
+			}
+		}
+
+		static List<String> drain() {
+			synchronized (STATEMENTS) {
+				List<String> drained = new ArrayList<>(STATEMENTS);
+				STATEMENTS.clear();
+				return drained;
+			}
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,226 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.BorrowTransaction;
+import com.library.library_management_system.entity.BorrowTransactionArchive;
+import com.library.library_management_system.entity.Reservation;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.exception.NotFoundException;
+import com.library.library_management_system.repository.BookRepository;
+import com.library.library_management_system.repository.BorrowTransactionArchiveRepository;
+import com.library.library_management_system.repository.BorrowTransactionRepository;
+import com.library.library_management_system.repository.ReservationRepository;
+import com.library.library_management_system.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Deleting a user or book only tombstones it: it disappears from lookups at once, while
+ * its loans and reservations stay until the purge job archives or removes them and then
+ * drops the row. Until then their open loans can still be returned, but not renewed. A
+ * purged user's copies go back to the shelf and their holds to the next member in line.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DeletionPurgeServiceTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DeletionPurgeService deletionPurgeService;
+
+	@Autowired
+	private BorrowTransactionService borrowTransactionService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowTransactionRepository borrowTransactionRepository;
+
+	@Autowired
+	private BorrowTransactionArchiveRepository borrowTransactionArchiveRepository;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	private User member;
+
+	private User next;
+
+	private Book book;
+
+	private Book other;
+
+	private BorrowTransaction returned;
+
+	private BorrowTransaction open;
+
+	private Reservation nextHold;
+
+	@BeforeEach
+	void setUp() {
+		LocalDate today = LocalDate.now();
+		member = userRepository.save(new User("purge.member", "secret", "Purge Member",
+				"purge.member@example.com", User.Role.MEMBER));
+		book = bookRepository.save(new Book("978-1-000-90001", "Purge Book", "Purge Author", "Fiction", 2020, 2));
+		next = userRepository.save(new User("purge.next", "secret", "Purge Next",
+				"purge.next@example.com", User.Role.MEMBER));
+		Book borrowed = new Book("978-1-000-90002", "Other Book", "Other Author", "Fiction", 2021, 1);
+		borrowed.borrowCopy();
+		other = bookRepository.save(borrowed);
+
+		returned = new BorrowTransaction(member, book, today.minusDays(30), today.minusDays(16));
+		returned.setReturnDate(today.minusDays(18));
+		returned.setStatus(BorrowTransaction.TransactionStatus.RETURNED);
+		open = new BorrowTransaction(member, other, today.minusDays(2), today.plusDays(12));
+		borrowTransactionRepository.saveAll(List.of(returned, open));
+
+		// The member is first in line for the copy they already have out, the next member second
+		reservationRepository.save(hold(member, other, 1));
+		nextHold = reservationRepository.save(hold(next, other, 2));
+	}
+
+	@AfterEach
+	void tearDown() {
+		reservationRepository.deleteAllInBatch();
+		borrowTransactionRepository.deleteAllInBatch();
+		borrowTransactionArchiveRepository.deleteAllInBatch();
+		deletionPurgeService.purgeDeleted();
+		bookRepository.deleteAllInBatch();
+		userRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void deletedUserIsHiddenAtOnceAndPurgedLater() {
+		userService.deleteUser(member.getId());
+
+		assertTrue(userService.findById(member.getId()).isEmpty());
+		assertTrue(userService.findByUsername("purge.member").isEmpty());
+		assertThrows(NotFoundException.class, () -> userService.deleteUser(member.getId()));
+		assertTrue(userRepository.existsByUsername("purge.member"));
+		assertEquals(2, borrowTransactionRepository.count());
+		assertEquals(2, reservationRepository.count());
+
+		assertEquals(1, deletionPurgeService.purgeDeleted());
+		assertEquals(0, borrowTransactionRepository.count());
+		assertEquals(List.of(returned.getId()),
+				borrowTransactionArchiveRepository.findAll().stream().map(BorrowTransactionArchive::getId).toList());
+		assertFalse(userRepository.existsByUsername("purge.member"));
+
+		// The copy on the open loan came back and is now held for the next member, first in line
+		assertEquals(1, bookRepository.findById(other.getId()).orElseThrow().getAvailableCopies());
+		assertEquals(1, reservationRepository.count());
+		Reservation promoted = reservationRepository.findById(nextHold.getId()).orElseThrow();
+		assertEquals(Reservation.ReservationStatus.AVAILABLE, promoted.getStatus());
+		assertEquals(1, promoted.getQueuePosition());
+	}
+
+	@Test
+	void heldCopyOfAPurgedUserGoesToTheNextInLine() {
+		LocalDate today = LocalDate.now();
+		Book held = bookRepository.save(new Book("978-1-000-90003", "Held Book", "Held Author", "Fiction", 2022, 1));
+		Reservation ready = hold(member, held, 1);
+		ready.markAsAvailable();
+		reservationRepository.save(ready);
+		Reservation waiting = reservationRepository.save(hold(next, held, 2));
+		borrowTransactionRepository.deleteAllInBatch();
+		userService.deleteUser(member.getId());
+
+		deletionPurgeService.purgeDeleted();
+
+		Reservation promoted = reservationRepository.findById(waiting.getId()).orElseThrow();
+		assertEquals(Reservation.ReservationStatus.AVAILABLE, promoted.getStatus());
+		assertEquals(1, promoted.getQueuePosition());
+		assertEquals(today.plusDays(3), promoted.getExpiryDate());
+		assertEquals(1, bookRepository.findById(held.getId()).orElseThrow().getAvailableCopies());
+	}
+
+	@Test
+	void deletedBookIsHiddenAtOnceAndPurgedLater() {
+		bookService.deleteBook(book.getId());
+
+		assertTrue(bookService.findById(book.getId()).isEmpty());
+		assertTrue(bookRepository.existsByIsbn("978-1-000-90001"));
+
+		assertEquals(1, deletionPurgeService.purgeDeleted());
+		assertEquals(1, borrowTransactionRepository.count());
+		assertEquals(1, borrowTransactionArchiveRepository.count());
+		assertFalse(bookRepository.existsByIsbn("978-1-000-90001"));
+	}
+
+	@Test
+	void loansOfADeletedBookCanBeReturnedButNotRenewed() throws Exception {
+		LocalDate today = LocalDate.now();
+		BorrowTransaction overdue = borrowTransactionRepository.save(
+				new BorrowTransaction(member, book, today.minusDays(20), today.minusDays(6)));
+		bookService.deleteBook(book.getId());
+
+		borrowTransactionService.updateOverdueTransactions();
+		BorrowTransaction swept = borrowTransactionRepository.findById(overdue.getId()).orElseThrow();
+		assertEquals(BorrowTransaction.TransactionStatus.OVERDUE, swept.getStatus());
+		assertEquals(0, new BigDecimal("3.00").compareTo(swept.getFineAmount()));
+
+		assertSettles(overdue.getId());
+		assertTrue(bookService.findById(book.getId()).isEmpty());
+	}
+
+	@Test
+	void loansOfADeletedUserCanBeReturnedButNotRenewed() throws Exception {
+		userService.deleteUser(member.getId());
+
+		borrowTransactionService.updateOverdueTransactions();
+		assertSettles(open.getId());
+		assertEquals(1, bookRepository.findById(other.getId()).orElseThrow().getAvailableCopies());
+		// The returned copy skips the deleted member's own hold
+		assertEquals(Reservation.ReservationStatus.AVAILABLE,
+				reservationRepository.findById(nextHold.getId()).orElseThrow().getStatus());
+	}
+
+	private static Reservation hold(User user, Book book, int queuePosition) {
+		Reservation reservation = new Reservation(user, book, LocalDate.now().minusDays(queuePosition));
+		reservation.setQueuePosition(queuePosition);
+		return reservation;
+	}
+
+	private void assertSettles(Long transactionId) throws Exception {
+		mockMvc.perform(post("/api/transactions/" + transactionId + "/renew"))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.code").value("RENEWAL_NOT_ALLOWED"));
+		mockMvc.perform(post("/api/transactions/" + transactionId + "/return"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.returnDate").isNotEmpty());
+		assertNotNull(borrowTransactionRepository.findById(transactionId).orElseThrow().getReturnDate());
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.dto.MemberClaims;
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.BorrowTransaction;
+import com.library.library_management_system.entity.LoanPolicy;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.exception.RuleViolationException;
+import com.library.library_management_system.repository.BookRepository;
+import com.library.library_management_system.repository.BorrowTransactionRepository;
+import com.library.library_management_system.repository.LoanPolicyRepository;
+import com.library.library_management_system.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Loan policies resolve from the most specific row down to the library default, changes
+ * take effect as soon as they commit, and borrowing applies the resolved loan period for the
+ * member's current membership type, not the one in an older access token.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanPolicyServiceTests {
+
+	@Autowired
+	private LoanPolicyService loanPolicyService;
+
+	@Autowired
+	private LoanPolicyRepository loanPolicyRepository;
+
+	@Autowired
+	private BorrowTransactionService borrowTransactionService;
+
+	@Autowired
+	private BorrowTransactionRepository borrowTransactionRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MembershipIndex membershipIndex;
+
+	@AfterEach
+	void tearDown() {
+		loanPolicyRepository.findAll().stream()
+				.filter(policy -> policy.getMembershipType() != null || policy.getCategory() != null)
+				.forEach(policy -> loanPolicyService.deletePolicy(policy.getId()));
+		borrowTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		userRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void mostSpecificPolicyWins() {
+		loanPolicyService.createPolicy(policy(User.MembershipType.STUDENT, null, 5, 21));
+		loanPolicyService.createPolicy(policy(null, "Reference", 3, 7));
+		LoanPolicy studentReference = loanPolicyService.createPolicy(policy(User.MembershipType.STUDENT, "Reference", 1, 7));
+
+		assertEquals(14, loanPolicyService.rule(null, null).loanPeriodDays());
+		assertEquals(14, loanPolicyService.rule(User.MembershipType.STANDARD, "Fiction").loanPeriodDays());
+		assertEquals(21, loanPolicyService.rule(User.MembershipType.STUDENT, "Fiction").loanPeriodDays());
+		assertEquals(7, loanPolicyService.rule(User.MembershipType.PREMIUM, "Reference").loanPeriodDays());
+		assertEquals(1, loanPolicyService.rule(User.MembershipType.STUDENT, "Reference").maxLoans());
+
+		assertThrows(RuleViolationException.class,
+				() -> loanPolicyService.createPolicy(policy(User.MembershipType.STUDENT, "Reference", 2, 7)));
+
+		loanPolicyService.deletePolicy(studentReference.getId());
+		assertEquals(3, loanPolicyService.rule(User.MembershipType.STUDENT, "Reference").maxLoans());
+	}
+
+	@Test
+	void borrowingUsesTheMembersPolicy() {
+		loanPolicyService.createPolicy(policy(User.MembershipType.STUDENT, "Reference", 1, 7));
+		User student = new User("policy.student", "secret", "Policy Student", "policy.student@example.com",
+				User.Role.MEMBER);
+		student.setMembershipType(User.MembershipType.STUDENT);
+		student.setMembershipEndDate(LocalDateTime.now().plusMonths(6));
+		student = userRepository.save(student);
+		Book reference = bookRepository.save(new Book("978-1-000-70001", "Atlas", "Cartographer", "Reference", 2019, 2));
+
+		BorrowTransaction loan = borrowTransactionService.borrowBook(student.getId(), reference.getId());
+
+		assertEquals(LocalDate.now().plusDays(7), loan.getDueDate());
+	}
+
+	@Test
+	void borrowingWithAStaleTokenUsesTheCurrentMembershipType() {
+		loanPolicyService.createPolicy(policy(User.MembershipType.STUDENT, "Reference", 1, 7));
+		User student = new User("policy.upgraded", "secret", "Policy Upgraded", "policy.upgraded@example.com",
+				User.Role.MEMBER);
+		student.setMembershipType(User.MembershipType.STUDENT);
+		student.setMembershipEndDate(LocalDateTime.now().plusMonths(6));
+		student = userRepository.save(student);
+		membershipIndex.rebuild();
+		Book reference = bookRepository.save(new Book("978-1-000-70002", "Gazetteer", "Cartographer", "Reference", 2019, 2));
+
+		// Issued while the member was still on a standard membership
+		MemberClaims claims = new MemberClaims(student.getId(), student.getUsername(), User.Role.MEMBER,
+				User.MembershipType.STANDARD, student.getMembershipEndDate());
+		BorrowTransaction loan = borrowTransactionService.borrowBook(claims, reference.getId());
+
+		assertEquals(LocalDate.now().plusDays(7), loan.getDueDate());
+	}
+
+	private static LoanPolicy policy(User.MembershipType membershipType, String category, int maxLoans, int loanPeriodDays) {
+		LoanPolicy policy = new LoanPolicy();
+		policy.setMembershipType(membershipType);
+		policy.setCategory(category);
+		policy.setMaxLoans(maxLoans);
+		policy.setLoanPeriodDays(loanPeriodDays);
+		policy.setMaxRenewals(2);
+		policy.setRenewalDays(14);
+		policy.setMaxReservations(5);
+		policy.setDailyFineRate(new BigDecimal("0.50"));
+		policy.setMaxFineAmount(new BigDecimal("20.00"));
+		return policy;
+	}
+
+}
\ No newline at end of file
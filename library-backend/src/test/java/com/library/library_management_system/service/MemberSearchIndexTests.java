@@ -0,0 +1,111 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Member search matches prefixes and substrings across name, username, email and phone,
+ * finds members by id, ranks closer matches first, pages the results and follows creates,
+ * edits and deletes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MemberSearchIndexTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MemberSearchIndex memberSearchIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private DeletionPurgeService deletionPurgeService;
+
+	private User alice;
+
+	private User malia;
+
+	@BeforeEach
+	void setUp() {
+		memberSearchIndex.rebuild();
+		alice = userService.createUser(member("ali", "Alice Walker", "alice.walker@example.com", "555-010-2030"));
+		malia = userService.createUser(member("msmith", "Malia Smith", "malia@example.com", "555-010-9999"));
+		userService.createUser(member("bjones", "Bob Jones", "bob@example.com", null));
+	}
+
+	@AfterEach
+	void tearDown() {
+		userRepository.findAll().forEach(user -> userService.deleteUser(user.getId()));
+		deletionPurgeService.purgeDeleted();
+	}
+
+	@Test
+	void rankedSubstringAndPrefixMatches() {
+		assertEquals(List.of(alice.getId(), malia.getId()), ids(userService.searchUsers("ali", null, 0, 20)));
+		assertEquals(List.of(alice.getId()), ids(userService.searchUsers("wa", null, 0, 20)));
+		assertEquals(List.of(malia.getId()), ids(userService.searchUsers("smith mal", null, 0, 20)));
+		assertEquals(List.of(malia.getId()), ids(userService.searchUsers("9999", null, 0, 20)));
+		assertEquals(List.of(alice.getId()), ids(userService.searchUsers("010-2030", null, 0, 20)));
+		assertTrue(userService.searchUsers("nobody", null, 0, 20).isEmpty());
+	}
+
+	@Test
+	void longMemberIdsAreFoundById() {
+		jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH 4321");
+		User numbered = userService.createUser(member("cdoe", "Carol Doe", "carol@example.com", null));
+
+		assertEquals(4321L, numbered.getId());
+		assertEquals(List.of(numbered.getId()), ids(userService.searchUsers("4321", null, 0, 20)));
+		assertEquals(List.of(numbered.getId()), ids(userService.searchUsers("4321 carol", null, 0, 20)));
+		assertTrue(userService.searchUsers("4321 alice", null, 0, 20).isEmpty());
+	}
+
+	@Test
+	void resultsArePaged() {
+		Page<User> second = userService.searchUsers("example.com", User.Role.MEMBER, 1, 2);
+
+		assertEquals(3, second.getTotalElements());
+		assertEquals(1, second.getContent().size());
+	}
+
+	@Test
+	void indexFollowsUpdatesAndDeletes() {
+		User details = member("ali", "Alicia Keys", "alicia.keys@example.com", null);
+		userService.updateUser(alice.getId(), details);
+		assertEquals(List.of(alice.getId()), ids(userService.searchUsers("keys", null, 0, 20)));
+		assertTrue(userService.searchUsers("walker alice", null, 0, 20).isEmpty());
+
+		userService.deleteUser(malia.getId());
+		assertEquals(List.of(alice.getId()), ids(userService.searchUsers("ali", null, 0, 20)));
+	}
+
+	private static User member(String username, String fullName, String email, String phone) {
+		User user = new User(username, "secret", fullName, email, User.Role.MEMBER);
+		user.setPhone(phone);
+		return user;
+	}
+
+	private static List<Long> ids(Page<User> page) {
+		return page.getContent().stream().map(User::getId).toList();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The membership index answers validity checks and follows renewals, the expiry job flags
+ * lapsed members in batches, and bulk renewal clears the flag again.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MembershipServiceTests {
+
+	@Autowired
+	private MembershipService membershipService;
+
+	@Autowired
+	private MembershipIndex membershipIndex;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User lapsed;
+
+	private User current;
+
+	@BeforeEach
+	void setUp() {
+		LocalDateTime now = LocalDateTime.now();
+		lapsed = userRepository.save(member("lapsed.member", now.minusDays(3)));
+		current = userRepository.save(member("current.member", now.plusMonths(2)));
+		membershipIndex.rebuild();
+	}
+
+	@AfterEach
+	void tearDown() {
+		userRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void indexAnswersValidityAndFollowsRenewals() {
+		assertTrue(membershipIndex.contains(lapsed.getId()));
+		assertFalse(userService.isMembershipValid(lapsed.getId()));
+		assertTrue(userService.isMembershipValid(current.getId()));
+
+		userService.extendMembership(lapsed.getId(), 1);
+		assertTrue(userService.isMembershipValid(lapsed.getId()));
+	}
+
+	@Test
+	void expiryJobFlagsLapsedMembersAndBulkRenewalClearsThem() {
+		assertEquals(1, membershipService.flagExpiredMemberships());
+		assertEquals(0, membershipService.flagExpiredMemberships());
+		assertEquals(List.of(lapsed.getId()),
+				userService.getUsersWithExpiredMembership().stream().map(User::getId).toList());
+
+		assertEquals(2, membershipService.extendMemberships(List.of(lapsed.getId(), current.getId(), -1L), 1));
+		assertTrue(userService.getUsersWithExpiredMembership().isEmpty());
+		assertTrue(membershipIndex.isValid(lapsed.getId()));
+	}
+
+	private static User member(String username, LocalDateTime membershipEnd) {
+		User user = new User(username, "secret", username, username + "@example.com", User.Role.MEMBER);
+		user.setMembershipEndDate(membershipEnd);
+		return user;
+	}
+
+}
\ No newline at end of file
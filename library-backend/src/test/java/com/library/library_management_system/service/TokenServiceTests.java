@@ -0,0 +1,78 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.dto.MemberClaims;
+import com.library.library_management_system.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tokens issued at login verify locally and carry the member claims the borrow and
+ * reservation paths rely on; a token altered after signing is rejected.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenServiceTests {
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Autowired
+	private JwtDecoder jwtDecoder;
+
+	@Test
+	void issuedTokenCarriesMemberClaims() {
+		LocalDateTime membershipEnd = LocalDateTime.now().plusDays(30).withNano(0);
+		User user = member(42L, membershipEnd);
+		user.setMembershipType(User.MembershipType.STUDENT);
+
+		Jwt token = jwtDecoder.decode(tokenService.issueToken(user).value());
+		MemberClaims claims = tokenService.claims(token);
+
+		assertEquals(TokenService.ISSUER, token.getClaimAsString("iss"));
+		assertEquals(42L, claims.userId());
+		assertEquals("token.member", claims.username());
+		assertEquals(User.Role.MEMBER, claims.role());
+		assertEquals(User.MembershipType.STUDENT, claims.membershipType());
+		assertEquals(membershipEnd, claims.membershipEndDate());
+		assertTrue(claims.isMembershipValid());
+	}
+
+	@Test
+	void claimsOnlyApplyToTheTokenOwner() {
+		Jwt token = jwtDecoder.decode(tokenService.issueToken(member(7L, null)).value());
+
+		assertNotNull(tokenService.claimsFor(token, 7L));
+		assertNull(tokenService.claimsFor(token, 8L));
+		assertNull(tokenService.claimsFor(null, 7L));
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		String value = tokenService.issueToken(member(7L, null)).value();
+		String[] parts = value.split("\\.");
+		String forged = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+		assertThrows(JwtException.class, () -> jwtDecoder.decode(forged));
+	}
+
+	private User member(Long id, LocalDateTime membershipEnd) {
+		User user = new User("token.member", "secret", "Token Member", "token.member@example.com", User.Role.MEMBER);
+		user.setId(id);
+		user.setMembershipEndDate(membershipEnd);
+		return user;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.dto.LoanSummary;
+import com.library.library_management_system.entity.Book;
+import com.library.library_management_system.entity.BorrowTransaction;
+import com.library.library_management_system.entity.BorrowTransactionArchive;
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.repository.BookRepository;
+import com.library.library_management_system.repository.BorrowTransactionArchiveRepository;
+import com.library.library_management_system.repository.BorrowTransactionRepository;
+import com.library.library_management_system.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Archival moves settled, returned loans older than the retention window out of the live
+ * table a batch at a time, stops once a batch comes back empty even when the last full one
+ * was exactly the batch size, and leaves open, recent and unsettled loans alone. Archived
+ * loans still show up in the member's history and in lookups by id.
+ */
+@SpringBootTest(properties = "library.archive.batch-size=2")
+@ActiveProfiles("test")
+class TransactionArchiveServiceTests {
+
+	private static final LocalDate OLD = LocalDate.now().minusDays(400);
+
+	@Autowired
+	private TransactionArchiveService transactionArchiveService;
+
+	@Autowired
+	private BorrowTransactionService borrowTransactionService;
+
+	@Autowired
+	private BorrowTransactionRepository borrowTransactionRepository;
+
+	@Autowired
+	private BorrowTransactionArchiveRepository borrowTransactionArchiveRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private User member;
+
+	private Book book;
+
+	@BeforeEach
+	void setUp() {
+		member = userRepository.save(new User("archive.member", "secret", "Archive Member",
+				"archive.member@example.com", User.Role.MEMBER));
+		book = bookRepository.save(new Book("978-1-000-50001", "Archive Book", "Archive Author", "History", 2010, 5));
+	}
+
+	@AfterEach
+	void tearDown() {
+		borrowTransactionRepository.deleteAllInBatch();
+		borrowTransactionArchiveRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		userRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void settledOldLoansMoveToTheArchiveInBatches() {
+		// Four archivable loans fill exactly two batches of two
+		List<BorrowTransaction> archivable = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			archivable.add(returned(OLD.minusDays(i), null, false));
+		}
+		archivable.add(returned(OLD, new BigDecimal("1.50"), true));
+		BorrowTransaction open = new BorrowTransaction(member, book, LocalDate.now().minusDays(3), LocalDate.now().plusDays(11));
+		BorrowTransaction recent = returned(LocalDate.now().minusDays(10), null, false);
+		BorrowTransaction unsettled = returned(OLD, new BigDecimal("2.00"), false);
+		borrowTransactionRepository.saveAll(archivable);
+		borrowTransactionRepository.saveAll(List.of(open, recent, unsettled));
+
+		assertEquals(4, transactionArchiveService.archiveReturnedTransactions());
+		assertEquals(0, transactionArchiveService.archiveReturnedTransactions());
+
+		assertEquals(ids(archivable), borrowTransactionArchiveRepository.findAll().stream()
+				.map(BorrowTransactionArchive::getId).collect(Collectors.toSet()));
+		assertEquals(ids(List.of(open, recent, unsettled)), borrowTransactionRepository.findAll().stream()
+				.map(BorrowTransaction::getId).collect(Collectors.toSet()));
+	}
+
+	@Test
+	void archivedLoansStayInHistoryAndLookups() {
+		BorrowTransaction old = borrowTransactionRepository.save(returned(OLD, null, false));
+		BorrowTransaction recent = borrowTransactionRepository.save(returned(LocalDate.now().minusDays(10), null, false));
+
+		assertEquals(1, transactionArchiveService.archiveReturnedTransactions());
+
+		BorrowTransaction found = borrowTransactionService.findById(old.getId()).orElseThrow();
+		assertEquals(OLD, found.getReturnDate());
+		assertEquals(BorrowTransaction.TransactionStatus.RETURNED, found.getStatus());
+		assertEquals(ids(List.of(old, recent)), borrowTransactionService.getUserBorrowingHistory(member.getId())
+				.stream().map(BorrowTransaction::getId).collect(Collectors.toSet()));
+		List<LoanSummary> summaries = borrowTransactionService.getUserLoanHistorySummaries(member.getId());
+		assertEquals(List.of(recent.getId(), old.getId()), summaries.stream().map(LoanSummary::getId).toList());
+		assertTrue(summaries.stream().allMatch(summary -> "Archive Book".equals(summary.getBookTitle())));
+	}
+
+	private BorrowTransaction returned(LocalDate returnDate, BigDecimal fine, boolean finePaid) {
+		BorrowTransaction transaction = new BorrowTransaction(member, book, returnDate.minusDays(14), returnDate);
+		transaction.setReturnDate(returnDate);
+		transaction.setStatus(BorrowTransaction.TransactionStatus.RETURNED);
+		if (fine != null) {
+			transaction.setFineAmount(fine);
+			transaction.setFinePaid(finePaid);
+		}
+		return transaction;
+	}
+
+	private static Set<Long> ids(List<BorrowTransaction> transactions) {
+		return transactions.stream().map(BorrowTransaction::getId).collect(Collectors.toSet());
+	}
+
+}
\ No newline at end of file
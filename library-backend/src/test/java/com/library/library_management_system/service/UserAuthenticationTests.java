@@ -0,0 +1,72 @@
+package com.library.library_management_system.service;
+
+import com.library.library_management_system.entity.User;
+import com.library.library_management_system.exception.ErrorCode;
+import com.library.library_management_system.exception.LibraryException;
+import com.library.library_management_system.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Legacy plaintext passwords still sign in once and are rehashed on that login, new
+ * registrations are stored hashed, and repeated attempts on one account are throttled.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserAuthenticationTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private LoginThrottle loginThrottle;
+
+	@AfterEach
+	void tearDown() {
+		userRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void plaintextPasswordIsRehashedOnLogin() {
+		User legacy = userRepository.save(new User("legacy.member", "secret", "Legacy Member",
+				"legacy.member@example.com", User.Role.MEMBER));
+
+		assertTrue(userService.authenticateUser("legacy.member", "wrong").isEmpty());
+		assertTrue(userService.authenticateUser("legacy.member", "secret").isPresent());
+
+		String stored = userRepository.findById(legacy.getId()).orElseThrow().getPassword();
+		assertTrue(stored.startsWith("{bcrypt}"), stored);
+		assertTrue(userService.authenticateUser("legacy.member", "secret").isPresent());
+	}
+
+	@Test
+	void registeredPasswordIsStoredHashed() {
+		User created = userService.createUser(new User("hashed.member", "secret", "Hashed Member",
+				"hashed.member@example.com", User.Role.MEMBER));
+
+		assertTrue(created.getPassword().startsWith("{bcrypt}"));
+		assertTrue(userService.authenticateUser("hashed.member", "secret").isPresent());
+		assertTrue(userService.authenticateUser("unknown.member", "secret").isEmpty());
+	}
+
+	@Test
+	void repeatedAttemptsOnOneAccountAreThrottled() {
+		LibraryException rejection = assertThrows(LibraryException.class, () -> {
+			for (int i = 0; i < 100; i++) {
+				loginThrottle.acquire("throttled.member", "10.0.0." + i);
+			}
+		});
+		assertEquals(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS, rejection.getCode());
+	}
+
+}
\ No newline at end of file
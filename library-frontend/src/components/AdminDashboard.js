@@ -12,6 +12,7 @@ const AdminDashboard = () => {
     localStorage.removeItem('user');
     localStorage.removeItem('userRole');
     localStorage.removeItem('userId');
+    localStorage.removeItem('accessToken');
     
     // Navigate back to home page
     navigate('/');
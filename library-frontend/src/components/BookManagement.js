@@ -165,7 +165,7 @@ const BookManagement = () => {
       setShowAddEditModal(false);
       setSelectedBook(null);
     } catch (err) {
-      alert(err.response?.data || 'Failed to save book');
+      alert(err.response?.data?.detail || 'Failed to save book');
       console.error('Error saving book:', err);
     }
   };
@@ -186,6 +186,7 @@ const BookManagement = () => {
     localStorage.removeItem('user');
     localStorage.removeItem('userRole');
     localStorage.removeItem('userId');
+    localStorage.removeItem('accessToken');
     navigate('/');
   };
 
@@ -35,6 +35,19 @@ const BookSearch = () => {
     fetchInitialData();
   }, [navigate]);
 
+  useEffect(() => {
+    // Live availability updates replace re-fetching the catalogue after every change
+    const stream = new EventSource('http://localhost:8080/api/stream/books');
+    stream.addEventListener('availability', (event) => {
+      const { bookId, availableCopies, totalCopies } = JSON.parse(event.data);
+      const update = (book) => (book.id === bookId ? { ...book, availableCopies, totalCopies } : book);
+      setBooks((current) => current.map(update));
+      setFilteredBooks((current) => current.map(update));
+      setSelectedBook((current) => (current ? update(current) : current));
+    });
+    return () => stream.close();
+  }, []);
+
   const fetchInitialData = async () => {
     try {
       setLoading(true);
@@ -111,14 +124,13 @@ const BookSearch = () => {
 
       alert(`Successfully borrowed "${selectedBook.title}"! Due date: ${new Date(response.data.dueDate).toLocaleDateString()}`);
       
-      // Refresh books data to update availability
-      await fetchInitialData();
+      // Availability updates arrive over the live stream
       setSelectedBook(null);
       
     } catch (err) {
       console.error('Borrow error:', err);
-      if (err.response?.data) {
-        alert(`Failed to borrow book: ${err.response.data}`);
+      if (err.response?.data?.detail) {
+        alert(`Failed to borrow book: ${err.response.data.detail}`);
       } else {
         alert('Failed to borrow book. Please try again.');
       }
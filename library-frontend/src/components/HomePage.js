@@ -37,7 +37,7 @@ const HomePage = () => {
 
     setIsSearching(true);
     try {
-      const response = await axios.get(`http://localhost:8080/api/books/search?searchTerm=${encodeURIComponent(searchTerm)}`);
+      const response = await axios.get(`http://localhost:8080/api/books/summaries/search?searchTerm=${encodeURIComponent(searchTerm)}`);
       setSearchResults(response.data);
       setShowDropdown(true);
     } catch (error) {
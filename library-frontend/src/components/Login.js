@@ -33,9 +33,10 @@ const Login = ({ isOpen, onClose }) => {
         password: formData.password
       });
 
-      const user = response.data;
+      const { accessToken, user } = response.data;
       
-      // Store user data in localStorage (simple auth)
+      // Store the access token and user data in localStorage
+      localStorage.setItem('accessToken', accessToken);
       localStorage.setItem('user', JSON.stringify(user));
       localStorage.setItem('userRole', user.role);
       localStorage.setItem('userId', user.id);
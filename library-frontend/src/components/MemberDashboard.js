@@ -9,6 +9,7 @@ const MemberDashboard = () => {
   const [user, setUser] = useState(null);
   const [activeBorrowings, setActiveBorrowings] = useState([]);
   const [reservations, setReservations] = useState([]);
+  const [unpaidFines, setUnpaidFines] = useState(0);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [showProfileModal, setShowProfileModal] = useState(false);
@@ -30,18 +31,31 @@ const MemberDashboard = () => {
 
     setUser(parsedUser);
     fetchUserData(parsedUser.id);
+
+    // Reload when the server reports a loan, hold or queue change for this member.
+    // EventSource cannot send headers, so the access token goes in the query string.
+    const token = encodeURIComponent(localStorage.getItem('accessToken') || '');
+    const stream = new EventSource(`http://localhost:8080/api/stream/users/${parsedUser.id}?access_token=${token}`);
+    const refresh = () => fetchUserData(parsedUser.id, false);
+    ['loan', 'hold-ready', 'queue-position'].forEach((type) => stream.addEventListener(type, refresh));
+    stream.addEventListener('hold-ready', (event) => {
+      const { bookTitle } = JSON.parse(event.data);
+      alert(`"${bookTitle}" is ready for pickup!`);
+    });
+    return () => stream.close();
   }, [navigate]);
 
-  const fetchUserData = async (userId) => {
+  const fetchUserData = async (userId, showLoading = true) => {
     try {
-      setLoading(true);
+      if (showLoading) {
+        setLoading(true);
+      }
       
-      // Fetch active borrowings
-      const borrowingsResponse = await axios.get(`http://localhost:8080/api/transactions/user/${userId}/active`);
-      setActiveBorrowings(borrowingsResponse.data);
-
-      // Note: Reservations endpoint would be similar - placeholder for now
-      setReservations([]);
+      // Loans, holds and fine balance arrive together from the dashboard endpoint
+      const response = await axios.get(`http://localhost:8080/api/users/${userId}/dashboard`);
+      setActiveBorrowings(response.data.activeLoans);
+      setReservations(response.data.holds);
+      setUnpaidFines(response.data.unpaidFines);
       
     } catch (err) {
       console.error('Error fetching user data:', err);
@@ -55,6 +69,7 @@ const MemberDashboard = () => {
     localStorage.removeItem('user');
     localStorage.removeItem('userRole');
     localStorage.removeItem('userId');
+    localStorage.removeItem('accessToken');
     navigate('/');
   };
 
@@ -190,8 +205,8 @@ const MemberDashboard = () => {
               <tbody>
                 {activeBorrowings.map((transaction) => (
                   <tr key={transaction.id} className={isOverdue(transaction.dueDate) ? 'overdue-row' : ''}>
-                    <td>{transaction.book?.title || 'Unknown'}</td>
-                    <td>{transaction.book?.author || 'Unknown'}</td>
+                    <td>{transaction.bookTitle || 'Unknown'}</td>
+                    <td>{transaction.bookAuthor || 'Unknown'}</td>
                     <td>{formatDate(transaction.borrowDate)}</td>
                     <td>{formatDate(transaction.dueDate)}</td>
                     <td>
@@ -226,7 +241,6 @@ const MemberDashboard = () => {
               <thead>
                 <tr>
                   <th>Book Title</th>
-                  <th>Author</th>
                   <th>Reserved Date</th>
                   <th>Queue Position</th>
                   <th>Status</th>
@@ -235,10 +249,9 @@ const MemberDashboard = () => {
               <tbody>
                 {reservations.map((reservation) => (
                   <tr key={reservation.id}>
-                    <td>{reservation.book?.title || 'Unknown'}</td>
-                    <td>{reservation.book?.author || 'Unknown'}</td>
+                    <td>{reservation.bookTitle || 'Unknown'}</td>
                     <td>{formatDate(reservation.reservationDate)}</td>
-                    <td>{reservation.queuePosition || 'N/A'}</td>
+                    <td>{reservation.queuePosition > 0 ? reservation.queuePosition : 'Ready'}</td>
                     <td>
                       <span className={`status-badge ${reservation.status.toLowerCase()}`}>
                         {reservation.status}
@@ -264,9 +277,9 @@ const MemberDashboard = () => {
         <button 
           onClick={handlePayFines} 
           className="action-btn secondary-btn"
-          disabled={activeBorrowings.every(t => calculateFine(t) === 0)}
+          disabled={unpaidFines <= 0}
         >
-          Pay Fines
+          Pay Fines{unpaidFines > 0 ? ` ($${Number(unpaidFines).toFixed(2)})` : ''}
         </button>
         
         <button 
@@ -60,22 +60,26 @@ const MemberManagement = () => {
     }
   };
 
-  const filterMembers = useCallback(() => {
-    let filtered = [...members];
-
-    // Filter by search term (name, username, ID, email)
-    if (searchTerm.trim()) {
-      filtered = filtered.filter(member =>
-        (member.fullName && member.fullName.toLowerCase().includes(searchTerm.toLowerCase())) ||
-        (member.username && member.username.toLowerCase().includes(searchTerm.toLowerCase())) ||
-        (member.id && member.id.toString().includes(searchTerm)) ||
-        (member.email && member.email.toLowerCase().includes(searchTerm.toLowerCase()))
-      );
+  const filterMembers = useCallback(async (signal) => {
+    // Search by name, username, ID, email or phone on the server's member index
+    if (!searchTerm.trim()) {
+      setFilteredMembers(members);
+      setCurrentPage(1);
+      return;
     }
 
-    console.log('Filtered members:', filtered);
-    setFilteredMembers(filtered);
-    setCurrentPage(1); // Reset to first page when filtering
+    try {
+      const response = await axios.get(`${API_BASE_URL}/users/search`, {
+        params: { searchTerm: searchTerm.trim(), role: 'MEMBER', size: 100 },
+        signal
+      });
+      setFilteredMembers(response.data);
+      setCurrentPage(1); // Reset to first page when filtering
+    } catch (err) {
+      if (!axios.isCancel(err)) {
+        console.error('Error searching members:', err);
+      }
+    }
   }, [members, searchTerm]);
 
   useEffect(() => {
@@ -83,7 +87,13 @@ const MemberManagement = () => {
   }, []);
 
   useEffect(() => {
-    filterMembers();
+    // Wait for a pause in typing and drop the previous request when the term changes
+    const controller = new AbortController();
+    const timer = setTimeout(() => filterMembers(controller.signal), 250);
+    return () => {
+      clearTimeout(timer);
+      controller.abort();
+    };
   }, [filterMembers]);
 
   const handleRowClick = (member) => {
@@ -146,7 +156,7 @@ const MemberManagement = () => {
       setShowAddEditModal(false);
       setSelectedMember(null);
     } catch (err) {
-      alert(err.response?.data || 'Failed to save member');
+      alert(err.response?.data?.detail || 'Failed to save member');
       console.error('Error saving member:', err);
     }
   };
@@ -167,6 +177,7 @@ const MemberManagement = () => {
     localStorage.removeItem('user');
     localStorage.removeItem('userRole');
     localStorage.removeItem('userId');
+    localStorage.removeItem('accessToken');
     navigate('/');
   };
 
@@ -227,7 +238,7 @@ const MemberManagement = () => {
           <div className="search-controls">
             <input
               type="text"
-              placeholder="Search by Name, Username, ID, or Email..."
+              placeholder="Search by Name, Username, ID, Email, or Phone..."
               value={searchTerm}
               onChange={(e) => setSearchTerm(e.target.value)}
               className="search-input"
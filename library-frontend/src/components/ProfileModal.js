@@ -115,8 +115,8 @@ const ProfileModal = ({ isOpen, onClose, user, onUserUpdate }) => {
 
     } catch (err) {
       console.error('Profile update error:', err);
-      if (err.response?.data) {
-        setError(err.response.data);
+      if (err.response?.data?.detail) {
+        setError(err.response.data.detail);
       } else {
         setError('Failed to update profile. Please try again.');
       }
@@ -68,7 +68,7 @@ const Register = ({ isOpen, onClose }) => {
       
     } catch (error) {
       console.error('Registration error:', error);
-      const errorMessage = error.response?.data || 'Registration failed. Please try again.';
+      const errorMessage = error.response?.data?.detail || 'Registration failed. Please try again.';
       setError(errorMessage);
     } finally {
       setIsLoading(false);